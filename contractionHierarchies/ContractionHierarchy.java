@@ -0,0 +1,153 @@
+package contractionHierarchies;
+
+import searchAlgorithms.CompiledGraph;
+
+/**
+ * Preprocessed contraction hierarchy of a compiled graph, built by ContractionHierarchyBuilder.
+ * Every vertex has a rank (the order it was contracted in), and the original edges together with the
+ * shortcuts added during contraction are split into:
+ * - upward edges u -> v with rank[v] > rank[u], stored at u, searched forward from the source
+ * - downward edges u -> v with rank[u] > rank[v], stored at v as v -> u, searched backward from the target
+ * A shortcut edge records the middle vertex it bypasses, so a path over shortcuts can be unpacked
+ * into original edges. Edges that are in the original graph have middle NO_MIDDLE.
+ *
+ * Instances are immutable and threadsafe.
+ * @author watso
+ */
+public final class ContractionHierarchy {
+	/**
+	 * RI:
+	 * 	rank is a permutation of [0, vertexCount)
+	 * 	upOffsets/downOffsets have length vertexCount + 1 and are non decreasing
+	 * 	every upward edge at u has target v with rank[v] > rank[u], likewise every downward edge at v has target u with rank[u] > rank[v]
+	 * 	a middle vertex m of an edge a - b has rank[m] < rank[a] and rank[m] < rank[b]
+	 * AF:
+	 * 	Represents the shortcut augmented graph of graph, split by rank into its upward and downward halves
+	 * Rep safety:
+	 * 	all arrays are private and never returned or modified after construction
+	 */
+	public static final int NO_MIDDLE = -1;
+
+	private final CompiledGraph graph;
+	private final int[] rank;
+	private final int[] upOffsets;
+	private final int[] upTargets;
+	private final int[] upWeights;
+	private final int[] upMiddles;
+	private final int[] downOffsets;
+	private final int[] downTargets;
+	private final int[] downWeights;
+	private final int[] downMiddles;
+	private final int shortcutCount;
+
+	ContractionHierarchy(CompiledGraph graph, int[] rank,
+			int[] upOffsets, int[] upTargets, int[] upWeights, int[] upMiddles,
+			int[] downOffsets, int[] downTargets, int[] downWeights, int[] downMiddles,
+			int shortcutCount) {
+		this.graph = graph;
+		this.rank = rank;
+		this.upOffsets = upOffsets;
+		this.upTargets = upTargets;
+		this.upWeights = upWeights;
+		this.upMiddles = upMiddles;
+		this.downOffsets = downOffsets;
+		this.downTargets = downTargets;
+		this.downWeights = downWeights;
+		this.downMiddles = downMiddles;
+		this.shortcutCount = shortcutCount;
+	}
+
+	/**
+	 * @return the original graph the hierarchy was built from, for labels and vertex ids
+	 */
+	public CompiledGraph getGraph() {
+		return graph;
+	}
+
+	public int vertexCount() {
+		return rank.length;
+	}
+
+	/**
+	 * @return number of shortcut edges added by contraction
+	 */
+	public int shortcutCount() {
+		return shortcutCount;
+	}
+
+	/**
+	 * @param vertex
+	 * @return contraction order of the vertex, higher is more important
+	 */
+	public int rank(int vertex) {
+		return rank[vertex];
+	}
+
+	public int firstUpEdge(int vertex) {
+		return upOffsets[vertex];
+	}
+
+	public int endUpEdge(int vertex) {
+		return upOffsets[vertex + 1];
+	}
+
+	public int upTarget(int edge) {
+		return upTargets[edge];
+	}
+
+	public int upWeight(int edge) {
+		return upWeights[edge];
+	}
+
+	public int upMiddle(int edge) {
+		return upMiddles[edge];
+	}
+
+	public int firstDownEdge(int vertex) {
+		return downOffsets[vertex];
+	}
+
+	public int endDownEdge(int vertex) {
+		return downOffsets[vertex + 1];
+	}
+
+	/**
+	 * @param edge - downward edge stored at v
+	 * @return the higher ranked vertex u of the original direction edge u -> v
+	 */
+	public int downTarget(int edge) {
+		return downTargets[edge];
+	}
+
+	public int downWeight(int edge) {
+		return downWeights[edge];
+	}
+
+	public int downMiddle(int edge) {
+		return downMiddles[edge];
+	}
+
+	/**
+	 * Finds the middle vertex of the hierarchy edge from -> to
+	 * @param from
+	 * @param to
+	 * @return middle vertex, NO_MIDDLE if the edge is original
+	 */
+	int middleOf(int from, int to) {
+		if(rank[to] > rank[from]) {
+			for(int e = upOffsets[from]; e < upOffsets[from + 1]; e++) {
+				if(upTargets[e] == to) {
+					return upMiddles[e];
+				}
+			}
+		}
+		else {
+			for(int e = downOffsets[to]; e < downOffsets[to + 1]; e++) {
+				if(downTargets[e] == from) {
+					return downMiddles[e];
+				}
+			}
+		}
+		throw new IllegalStateException(String.format("No hierarchy edge %d -> %d", from, to));
+	}
+}
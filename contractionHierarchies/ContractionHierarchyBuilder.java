@@ -0,0 +1,370 @@
+package contractionHierarchies;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import graph.Graph;
+import queues.IndexedDaryHeap;
+import searchAlgorithms.CompiledGraph;
+
+/**
+ * Offline preprocessing step that contracts a graph into a ContractionHierarchy.
+ *
+ * Vertices are contracted one at a time in order of least importance. Contracting v removes it from the
+ * remaining graph, and for every pair of remaining neighbours u -> v -> w a shortcut u -> w is added
+ * unless a witness search finds a path from u to w avoiding v that is no longer.
+ * Importance is the edge difference (shortcuts added minus edges removed) plus the number of already
+ * contracted neighbours, which keeps the contraction spread evenly over the graph. Importance is
+ * recomputed for the neighbours of every contracted vertex, and lazily when a vertex reaches the top of the queue.
+ *
+ * Witness searches stop once every target is settled, and are bounded by a settled vertex limit.
+ * Stopping early can only add unnecessary shortcuts, never lose a shortest path.
+ * This class is not threadsafe, build() can be called once per builder.
+ * @author watso
+ */
+public class ContractionHierarchyBuilder {
+	/**
+	 * RI:
+	 * 	out[u] / in[v] hold the weight of every current edge u -> v between uncontracted vertices,
+	 * 	original or shortcut, one per pair
+	 * 	middles holds the bypassed vertex of every pair whose current edge is a shortcut
+	 * 	contracted[v] iff v has been given a rank, its edges then moved from out/in to up/down
+	 * 	witnessDist is INF and targetMark is 0 outside of a witness search
+	 */
+	public static final int DEFAULT_WITNESS_SETTLE_LIMIT = 500;
+	private static final int INF = Integer.MAX_VALUE;
+
+	private final CompiledGraph graph;
+	private final int vertexCount;
+	private final EdgeList[] out;
+	private final EdgeList[] in;
+	private final EdgeList[] up;
+	private final EdgeList[] down;
+	private final Map<Long, Integer> middles;
+	private final boolean[] contracted;
+	private final int[] contractedNeighbours;
+	private final int[] rank;
+	private int witnessSettleLimit;
+	private int shortcutCount;
+
+	private final int[] witnessDist;
+	private final int[] targetMark;
+	private final IndexedDaryHeap witnessQueue;
+	private final EdgeList witnessTouched;
+
+	/**
+	 * @param graph - graph to contract
+	 */
+	public ContractionHierarchyBuilder(Graph<String> graph) {
+		this(CompiledGraph.compile(graph));
+	}
+
+	/**
+	 * @param graph - compiled graph to contract
+	 */
+	public ContractionHierarchyBuilder(CompiledGraph graph) {
+		this.graph = graph;
+		this.vertexCount = graph.vertexCount();
+		this.out = new EdgeList[vertexCount];
+		this.in = new EdgeList[vertexCount];
+		this.up = new EdgeList[vertexCount];
+		this.down = new EdgeList[vertexCount];
+		for(int v = 0; v < vertexCount; v++) {
+			out[v] = new EdgeList();
+			in[v] = new EdgeList();
+			up[v] = new EdgeList();
+			down[v] = new EdgeList();
+		}
+		for(int u = 0; u < vertexCount; u++) {
+			for(int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+				int v = graph.edgeTarget(e);
+				if(u != v) {
+					setEdge(u, v, Math.min(out[u].weightOf(v), graph.edgeWeight(e)));
+				}
+			}
+		}
+		this.middles = new HashMap<>();
+		this.contracted = new boolean[vertexCount];
+		this.contractedNeighbours = new int[vertexCount];
+		this.rank = new int[vertexCount];
+		this.witnessSettleLimit = DEFAULT_WITNESS_SETTLE_LIMIT;
+		this.witnessDist = new int[vertexCount];
+		Arrays.fill(witnessDist, INF);
+		this.targetMark = new int[vertexCount];
+		this.witnessQueue = new IndexedDaryHeap(vertexCount);
+		this.witnessTouched = new EdgeList();
+	}
+
+	/**
+	 * Sets how many vertices a witness search may settle before giving up.
+	 * Lower limits build faster but add more shortcuts
+	 * @param limit - > 0
+	 */
+	public void setWitnessSettleLimit(int limit) {
+		if(limit <= 0) {
+			throw new IllegalArgumentException("Witness settle limit must be positive: " + limit);
+		}
+		this.witnessSettleLimit = limit;
+	}
+
+	/**
+	 * Contracts every vertex and returns the resulting hierarchy
+	 * @return hierarchy over the graph
+	 */
+	public ContractionHierarchy build() {
+		IndexedDaryHeap order = new IndexedDaryHeap(vertexCount);
+		for(int v = 0; v < vertexCount; v++) {
+			order.insert(v, importance(v));
+		}
+		int nextRank = 0;
+		while(!order.isEmpty()) {
+			int v = order.pollMin();
+			long current = importance(v);
+			if(!order.isEmpty() && current > order.peekMinPriority()) {
+				order.insert(v, current);	//importance went up since it was queued, try the next vertex
+				continue;
+			}
+			contract(v, false);
+			contracted[v] = true;
+			rank[v] = nextRank++;
+			removeVertex(v);
+			for(int i = 0; i < up[v].size; i++) {
+				neighbourContracted(order, up[v].targets[i]);
+			}
+			for(int i = 0; i < down[v].size; i++) {
+				if(up[v].weightOf(down[v].targets[i]) == INF) {
+					neighbourContracted(order, down[v].targets[i]);
+				}
+			}
+		}
+		return assemble();
+	}
+
+	private void neighbourContracted(IndexedDaryHeap order, int neighbour) {
+		contractedNeighbours[neighbour]++;
+		order.update(neighbour, importance(neighbour));
+	}
+
+	/**
+	 * @param v - uncontracted vertex
+	 * @return edge difference of contracting v plus its number of contracted neighbours
+	 */
+	private long importance(int v) {
+		int removed = out[v].size + in[v].size;
+		return contract(v, true) - removed + contractedNeighbours[v];
+	}
+
+	/**
+	 * Moves the edges of a just contracted vertex into the hierarchy and out of the remaining graph.
+	 * All its remaining neighbours will be ranked above it, so out edges go up and in edges go down
+	 * @param v - contracted vertex
+	 */
+	private void removeVertex(int v) {
+		for(int i = 0; i < out[v].size; i++) {
+			int w = out[v].targets[i];
+			up[v].add(w, out[v].weights[i], middles.getOrDefault(pairKey(v, w), ContractionHierarchy.NO_MIDDLE));
+			in[w].remove(v);
+		}
+		for(int i = 0; i < in[v].size; i++) {
+			int u = in[v].targets[i];
+			down[v].add(u, in[v].weights[i], middles.getOrDefault(pairKey(u, v), ContractionHierarchy.NO_MIDDLE));
+			out[u].remove(v);
+		}
+		out[v] = null;
+		in[v] = null;
+	}
+
+	/**
+	 * Finds the shortcuts needed to contract v, adding them unless simulating
+	 * @param v - vertex being contracted
+	 * @param simulate - if true only count the shortcuts
+	 * @return number of shortcuts needed
+	 */
+	private int contract(int v, boolean simulate) {
+		int shortcuts = 0;
+		EdgeList outEdges = out[v];
+		EdgeList inEdges = in[v];
+		for(int i = 0; i < inEdges.size; i++) {
+			int u = inEdges.targets[i];
+			int inWeight = inEdges.weights[i];
+			long maxVia = 0;
+			int targets = 0;
+			for(int j = 0; j < outEdges.size; j++) {
+				int w = outEdges.targets[j];
+				if(w != u) {
+					maxVia = Math.max(maxVia, (long) inWeight + outEdges.weights[j]);
+					targetMark[w] = u + 1;
+					targets++;
+				}
+			}
+			if(targets == 0) {
+				continue;
+			}
+			witnessSearch(u, v, maxVia, targets);
+			for(int j = 0; j < outEdges.size; j++) {
+				int w = outEdges.targets[j];
+				if(w == u) {
+					continue;
+				}
+				targetMark[w] = 0;
+				long via = (long) inWeight + outEdges.weights[j];
+				if(witnessDist[w] > via) {
+					shortcuts++;
+					if(!simulate) {
+						addShortcut(u, w, (int) via, v);
+					}
+				}
+			}
+			clearWitnessSearch();
+		}
+		return shortcuts;
+	}
+
+	/**
+	 * Dijkstra from u over uncontracted vertices other than v, until every target (targetMark == u + 1)
+	 * is settled, or up to distance limit or the settle limit
+	 */
+	private void witnessSearch(int u, int v, long limit, int targetCount) {
+		witnessDist[u] = 0;
+		witnessTouched.add(u, 0, 0);
+		witnessQueue.insert(u, 0);
+		int settled = 0;
+		while(!witnessQueue.isEmpty() && settled < witnessSettleLimit) {
+			if(witnessQueue.peekMinPriority() > limit) {
+				break;
+			}
+			int x = witnessQueue.pollMin();
+			settled++;
+			if(targetMark[x] == u + 1 && --targetCount == 0) {
+				break;
+			}
+			EdgeList edges = out[x];
+			for(int i = 0; i < edges.size; i++) {
+				int y = edges.targets[i];
+				if(y == v) {
+					continue;
+				}
+				int dist = witnessDist[x] + edges.weights[i];
+				if(dist < witnessDist[y]) {
+					if(witnessDist[y] == INF) {
+						witnessTouched.add(y, 0, 0);
+					}
+					witnessDist[y] = dist;
+					witnessQueue.insertOrDecrease(y, dist);
+				}
+			}
+		}
+	}
+
+	private void clearWitnessSearch() {
+		for(int i = 0; i < witnessTouched.size; i++) {
+			witnessDist[witnessTouched.targets[i]] = INF;
+		}
+		witnessTouched.size = 0;
+		witnessQueue.clear();
+	}
+
+	private void addShortcut(int u, int w, int weight, int middle) {
+		if(out[u].weightOf(w) <= weight) {
+			return;
+		}
+		setEdge(u, w, weight);
+		middles.put(pairKey(u, w), middle);
+		shortcutCount++;
+	}
+
+	private void setEdge(int u, int v, int weight) {
+		out[u].put(v, weight);
+		in[v].put(u, weight);
+	}
+
+	private static long pairKey(int u, int v) {
+		return ((long) u << 32) | (v & 0xffffffffL);
+	}
+
+	/**
+	 * Packs the per vertex hierarchy edge lists into the upward and downward CSR arrays
+	 */
+	private ContractionHierarchy assemble() {
+		int[] upOffsets = new int[vertexCount + 1];
+		int[] downOffsets = new int[vertexCount + 1];
+		for(int v = 0; v < vertexCount; v++) {
+			upOffsets[v + 1] = upOffsets[v] + up[v].size;
+			downOffsets[v + 1] = downOffsets[v] + down[v].size;
+		}
+		int[] upTargets = new int[upOffsets[vertexCount]];
+		int[] upWeights = new int[upTargets.length];
+		int[] upMiddles = new int[upTargets.length];
+		int[] downTargets = new int[downOffsets[vertexCount]];
+		int[] downWeights = new int[downTargets.length];
+		int[] downMiddles = new int[downTargets.length];
+		for(int v = 0; v < vertexCount; v++) {
+			System.arraycopy(up[v].targets, 0, upTargets, upOffsets[v], up[v].size);
+			System.arraycopy(up[v].weights, 0, upWeights, upOffsets[v], up[v].size);
+			System.arraycopy(up[v].middles, 0, upMiddles, upOffsets[v], up[v].size);
+			System.arraycopy(down[v].targets, 0, downTargets, downOffsets[v], down[v].size);
+			System.arraycopy(down[v].weights, 0, downWeights, downOffsets[v], down[v].size);
+			System.arraycopy(down[v].middles, 0, downMiddles, downOffsets[v], down[v].size);
+		}
+		return new ContractionHierarchy(graph, rank, upOffsets, upTargets, upWeights, upMiddles,
+				downOffsets, downTargets, downWeights, downMiddles, shortcutCount);
+	}
+
+	/**
+	 * Growable unordered list of (target, weight, middle) edges of one vertex.
+	 * Degrees stay small while contracting, so lookups are linear scans
+	 */
+	private static final class EdgeList {
+		private int[] targets = new int[4];
+		private int[] weights = new int[4];
+		private int[] middles = new int[4];
+		private int size;
+
+		/**
+		 * @return weight of the edge to target, INF if there is none
+		 */
+		int weightOf(int target) {
+			for(int i = 0; i < size; i++) {
+				if(targets[i] == target) {
+					return weights[i];
+				}
+			}
+			return INF;
+		}
+
+		void put(int target, int weight) {
+			for(int i = 0; i < size; i++) {
+				if(targets[i] == target) {
+					weights[i] = weight;
+					return;
+				}
+			}
+			add(target, weight, ContractionHierarchy.NO_MIDDLE);
+		}
+
+		void add(int target, int weight, int middle) {
+			if(size == targets.length) {
+				targets = Arrays.copyOf(targets, size * 2);
+				weights = Arrays.copyOf(weights, size * 2);
+				middles = Arrays.copyOf(middles, size * 2);
+			}
+			targets[size] = target;
+			weights[size] = weight;
+			middles[size] = middle;
+			size++;
+		}
+
+		void remove(int target) {
+			for(int i = 0; i < size; i++) {
+				if(targets[i] == target) {
+					size--;
+					targets[i] = targets[size];
+					weights[i] = weights[size];
+					middles[i] = middles[size];
+					return;
+				}
+			}
+		}
+	}
+}
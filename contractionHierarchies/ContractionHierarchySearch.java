@@ -0,0 +1,226 @@
+package contractionHierarchies;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedList;
+import java.util.List;
+
+import queues.IndexedDaryHeap;
+import searchAlgorithms.CompiledGraph;
+import searchAlgorithms.DijkstraSearch;
+import searchAlgorithms.SearchAlgorithm;
+
+/**
+ * Point to point queries on a ContractionHierarchy.
+ * A forward search from the source follows only upward edges and a backward search from the target
+ * follows only downward edges, so both only ever climb the hierarchy and settle a few hundred vertices
+ * even on large graphs. The shortest path is the best vertex settled by both searches, and its shortcut
+ * edges are unpacked into original edges for findPathToTarget.
+ *
+ * Per query state is reset by only clearing the vertices the query touched.
+ * searchWholeGraph is not sped up by the hierarchy and runs a DijkstraSearch over the original graph.
+ * This class is not threadsafe, use one instance per thread over a shared hierarchy.
+ * @author watso
+ */
+public class ContractionHierarchySearch implements SearchAlgorithm{
+	/**
+	 * RI:
+	 * 	forwardDist/backwardDist - tentative distances of the two searches, INF outside of touched vertices
+	 * 	forwardParent/backwardParent - previous vertex on each side, with the middle vertex of that hierarchy edge in
+	 * 								   forwardMiddle/backwardMiddle
+	 * 	touched - every vertex whose distance on either side is not INF
+	 * 	meeting - vertex joining the best path found by the last query, NONE if no path
+	 */
+	private static final int INF = Integer.MAX_VALUE;
+	private static final int NONE = -1;
+
+	private final ContractionHierarchy hierarchy;
+	private final CompiledGraph graph;
+	private final int[] forwardDist;
+	private final int[] backwardDist;
+	private final int[] forwardParent;
+	private final int[] backwardParent;
+	private final int[] forwardMiddle;
+	private final int[] backwardMiddle;
+	private final IndexedDaryHeap forwardQueue;
+	private final IndexedDaryHeap backwardQueue;
+	private final List<Integer> touched;
+	private DijkstraSearch wholeGraphSearch;
+
+	private long bestDistance;
+	private int meeting;
+	private int settledCount;
+
+	public ContractionHierarchySearch(ContractionHierarchy hierarchy) {
+		this.hierarchy = hierarchy;
+		this.graph = hierarchy.getGraph();
+		int vertexCount = hierarchy.vertexCount();
+		this.forwardDist = new int[vertexCount];
+		this.backwardDist = new int[vertexCount];
+		Arrays.fill(forwardDist, INF);
+		Arrays.fill(backwardDist, INF);
+		this.forwardParent = new int[vertexCount];
+		this.backwardParent = new int[vertexCount];
+		this.forwardMiddle = new int[vertexCount];
+		this.backwardMiddle = new int[vertexCount];
+		this.forwardQueue = new IndexedDaryHeap(vertexCount);
+		this.backwardQueue = new IndexedDaryHeap(vertexCount);
+		this.touched = new ArrayList<>();
+		this.meeting = NONE;
+	}
+
+	@Override
+	public boolean searchForTarget(String source, String target) {
+		reset();
+		int s = graph.idOf(source);
+		int t = graph.idOf(target);
+		if(s == CompiledGraph.NOT_FOUND || t == CompiledGraph.NOT_FOUND) {
+			return false;
+		}
+		reach(forwardDist, forwardParent, forwardMiddle, forwardQueue, s, 0, NONE, ContractionHierarchy.NO_MIDDLE);
+		reach(backwardDist, backwardParent, backwardMiddle, backwardQueue, t, 0, NONE, ContractionHierarchy.NO_MIDDLE);
+		while(true) {
+			boolean forwardOpen = !forwardQueue.isEmpty() && forwardQueue.peekMinPriority() < bestDistance;
+			boolean backwardOpen = !backwardQueue.isEmpty() && backwardQueue.peekMinPriority() < bestDistance;
+			if(!forwardOpen && !backwardOpen) {
+				break;
+			}
+			if(forwardOpen && (!backwardOpen || forwardQueue.peekMinPriority() <= backwardQueue.peekMinPriority())) {
+				int u = forwardQueue.pollMin();
+				settle(u);
+				for(int e = hierarchy.firstUpEdge(u); e < hierarchy.endUpEdge(u); e++) {
+					reach(forwardDist, forwardParent, forwardMiddle, forwardQueue, hierarchy.upTarget(e),
+							forwardDist[u] + hierarchy.upWeight(e), u, hierarchy.upMiddle(e));
+				}
+			}
+			else {
+				int u = backwardQueue.pollMin();
+				settle(u);
+				for(int e = hierarchy.firstDownEdge(u); e < hierarchy.endDownEdge(u); e++) {
+					reach(backwardDist, backwardParent, backwardMiddle, backwardQueue, hierarchy.downTarget(e),
+							backwardDist[u] + hierarchy.downWeight(e), u, hierarchy.downMiddle(e));
+				}
+			}
+		}
+		return meeting != NONE;
+	}
+
+	/**
+	 * Records a settled vertex, checking whether it joins the two searches with a shorter path
+	 */
+	private void settle(int u) {
+		settledCount++;
+		if(forwardDist[u] != INF && backwardDist[u] != INF && (long) forwardDist[u] + backwardDist[u] < bestDistance) {
+			bestDistance = (long) forwardDist[u] + backwardDist[u];
+			meeting = u;
+		}
+	}
+
+	/**
+	 * Lowers the distance of v on one side if the new distance is shorter
+	 */
+	private void reach(int[] dist, int[] parent, int[] middle, IndexedDaryHeap queue, int v, int newDist, int from, int via) {
+		if(newDist >= dist[v]) {
+			return;
+		}
+		if(forwardDist[v] == INF && backwardDist[v] == INF) {
+			touched.add(v);
+		}
+		dist[v] = newDist;
+		parent[v] = from;
+		middle[v] = via;
+		queue.insertOrDecrease(v, newDist);
+	}
+
+	private void reset() {
+		for(int v: touched) {
+			forwardDist[v] = INF;
+			backwardDist[v] = INF;
+		}
+		touched.clear();
+		forwardQueue.clear();
+		backwardQueue.clear();
+		bestDistance = INF;
+		meeting = NONE;
+		settledCount = 0;
+	}
+
+	/**
+	 * Returns the shortest path from source to target, with shortcuts unpacked into original edges
+	 * @return ordered list of vertex labels from source to target, empty if no path is found
+	 */
+	@Override
+	public List<String> findPathToTarget(String source, String target) {
+		List<String> path = new LinkedList<>();
+		if(!searchForTarget(source, target)) {
+			return path;
+		}
+		//hierarchy edges from the source up to the meeting vertex, collected backwards
+		List<int[]> edges = new ArrayList<>();
+		for(int v = meeting; forwardParent[v] != NONE; v = forwardParent[v]) {
+			edges.add(0, new int[] {forwardParent[v], v, forwardMiddle[v]});
+		}
+		for(int v = meeting; backwardParent[v] != NONE; v = backwardParent[v]) {
+			edges.add(new int[] {v, backwardParent[v], backwardMiddle[v]});
+		}
+		path.add(source);
+		for(int[] edge: edges) {
+			unpack(edge[0], edge[1], edge[2], path);
+		}
+		return path;
+	}
+
+	/**
+	 * Appends the original vertices of the hierarchy edge from -> to, after from and up to and including to
+	 */
+	private void unpack(int from, int to, int middle, List<String> path) {
+		Deque<int[]> stack = new ArrayDeque<>();
+		stack.push(new int[] {from, to, middle});
+		while(!stack.isEmpty()) {
+			int[] edge = stack.pop();
+			if(edge[2] == ContractionHierarchy.NO_MIDDLE) {
+				path.add(graph.labelOf(edge[1]));
+			}
+			else {
+				int m = edge[2];
+				stack.push(new int[] {m, edge[1], hierarchy.middleOf(m, edge[1])});
+				stack.push(new int[] {edge[0], m, hierarchy.middleOf(edge[0], m)});
+			}
+		}
+	}
+
+	/**
+	 * Returns total distance to target from source, or 0 if target cannot be reached
+	 */
+	@Override
+	public Integer findDistanceToTarget(String source, String target) {
+		if(searchForTarget(source, target)) {
+			return (int) bestDistance;
+		}
+		return 0;
+	}
+
+	@Override
+	public void searchWholeGraph(String source) {
+		if(wholeGraphSearch == null) {
+			wholeGraphSearch = new DijkstraSearch(graph);
+		}
+		wholeGraphSearch.searchWholeGraph(source);
+	}
+
+	/**
+	 * @return search used by searchWholeGraph, for its distances, null before the first call
+	 */
+	public DijkstraSearch getWholeGraphSearch() {
+		return wholeGraphSearch;
+	}
+
+	/**
+	 * @return number of vertices settled by both sides of the last query
+	 */
+	public int getSettledCount() {
+		return settledCount;
+	}
+}
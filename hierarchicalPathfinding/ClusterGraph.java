@@ -0,0 +1,503 @@
+package hierarchicalPathfinding;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import graph.Graph;
+import queues.IndexedDaryHeap;
+import searchAlgorithms.GridCoordinateIndex;
+import searchAlgorithms.VertexIndex;
+
+/**
+ * Abstract graph for hierarchical path finding (HPA*, Botea, Mueller and Schaeffer) over an undirected graph
+ * with "x,y" grid labels.
+ *
+ * The grid is split into square clusters of clusterSize x clusterSize cells. Along the border of every pair of
+ * adjacent clusters, each run of neighbouring cells with edges across the border is an entrance, crossed by a
+ * transition edge in its middle, or by one at each end when the run is ENTRANCE_SPLIT cells or longer.
+ * The transition endpoints are the abstract vertices, joined across borders by their transition edges
+ * and within each cluster by their shortest distance inside the cluster, computed once per cluster.
+ *
+ * After a cell is blocked, opened or has its edge weights changed in the graph, cellChanged reloads it and
+ * rebuilds only the clusters it touches and the neighbours whose entrances moved.
+ * Every edge must join cells of the same or adjacent clusters, true of any grid with clusterSize >= 2.
+ * This class is not threadsafe, searches share its cluster search workspace.
+ * @author watso
+ */
+public class ClusterGraph {
+	/**
+	 * RI:
+	 * 	targets[id]/weights[id] are the edges of vertex id as last loaded from the graph, null if it is not in the graph
+	 * 	clusters holds every cluster that has held a vertex, by pack(cx, cy), with cells[local(x, y)] the id of each vertex
+	 * 	cluster.transitions[key of b] holds (from, to, weight) triples of the transition edges from the cluster to b
+	 * 	cluster.entrances is the sorted set of transition endpoints in the cluster, and
+	 * 	cluster.distances[i][j] the shortest distance from entrances[i] to entrances[j] inside the cluster, INF if none
+	 * 	localDist/localParent hold the last searchCluster results for searched, by local cell
+	 */
+	public static final int DEFAULT_CLUSTER_SIZE = 16;
+	public static final int ENTRANCE_SPLIT = 6;
+	static final int INF = Integer.MAX_VALUE;
+	static final int NONE = -1;
+
+	private final Graph<String> graph;
+	private final int clusterSize;
+	private final VertexIndex index;
+	private final GridCoordinateIndex coordinates;
+	private int[][] targets;
+	private int[][] weights;
+	private final Map<Long, Cluster> clusters;
+	private double minCostPerCell;	//lowest edge weight per cell of chebyshev distance ever loaded
+	private int changeCount;	//cellChanged calls, so searches over the graph can tell it changed
+
+	private final int[] localDist;
+	private final int[] localParent;
+	private final IndexedDaryHeap localQueue;
+	private Cluster searched;
+
+	/**
+	 * Square block of cells and its abstract vertices
+	 */
+	static final class Cluster {
+		final int cx;
+		final int cy;
+		final int[] cells;
+		final Map<Long, int[]> transitions;
+		int[] entrances;
+		int[][] distances;
+
+		private Cluster(int cx, int cy, int clusterSize) {
+			this.cx = cx;
+			this.cy = cy;
+			this.cells = new int[clusterSize * clusterSize];
+			Arrays.fill(cells, NONE);
+			this.transitions = new HashMap<>();
+			this.entrances = new int[0];
+			this.distances = new int[0][0];
+		}
+
+		/**
+		 * @return position of the vertex in entrances, NONE if it is not an entrance
+		 */
+		int entranceIndex(int vertex) {
+			int position = Arrays.binarySearch(entrances, vertex);
+			return position < 0 ? NONE : position;
+		}
+	}
+
+	/**
+	 * @param graph - undirected graph with "x,y" labels
+	 */
+	public ClusterGraph(Graph<String> graph) {
+		this(graph, DEFAULT_CLUSTER_SIZE);
+	}
+
+	/**
+	 * Builds the clusters, their entrances and intra cluster distances
+	 * @param graph - undirected graph with "x,y" labels
+	 * @param clusterSize - width of the square clusters in cells, >= 2
+	 * @throws IllegalArgumentException if a label is not of the form "x,y"
+	 */
+	public ClusterGraph(Graph<String> graph, int clusterSize) {
+		if(clusterSize < 2) {
+			throw new IllegalArgumentException("Cluster size must be at least 2: " + clusterSize);
+		}
+		this.graph = graph;
+		this.clusterSize = clusterSize;
+		this.index = new VertexIndex();
+		this.coordinates = GridCoordinateIndex.over(index);
+		this.targets = new int[0][];
+		this.weights = new int[0][];
+		this.clusters = new HashMap<>();
+		this.minCostPerCell = Double.MAX_VALUE;
+		this.localDist = new int[clusterSize * clusterSize];
+		this.localParent = new int[clusterSize * clusterSize];
+		this.localQueue = new IndexedDaryHeap(clusterSize * clusterSize);
+		for(String vertex: graph.vertices()) {
+			int id = index.idOf(vertex);
+			load(id, graph.targets(vertex));
+			place(id);
+		}
+		for(Cluster cluster: clusters.values()) {
+			for(int[] direction: new int[][] {{1, 0}, {0, 1}, {1, 1}, {1, -1}}) {
+				Cluster neighbour = clusters.get(GridCoordinateIndex.pack(cluster.cx + direction[0], cluster.cy + direction[1]));
+				if(neighbour != null) {
+					linkClusters(cluster, neighbour);
+				}
+			}
+		}
+		for(Cluster cluster: clusters.values()) {
+			refreshEntrances(cluster);
+			computeDistances(cluster);
+		}
+	}
+
+	/**
+	 * Reloads a cell whose edges changed in the graph, or which was added to or removed from it,
+	 * and rebuilds the abstract graph around it
+	 * @param label - "x,y" label of the cell
+	 * @return number of clusters whose intra cluster distances were recomputed
+	 */
+	public int cellChanged(String label) {
+		changeCount++;
+		int id = index.idOf(label);
+		Set<Integer> reload = new LinkedHashSet<>();
+		reload.add(id);
+		if(id < targets.length && targets[id] != null) {
+			for(int neighbour: targets[id]) {
+				reload.add(neighbour);
+			}
+		}
+		Set<String> vertices = graph.vertices();
+		boolean present = vertices.contains(label);
+		load(id, present ? graph.targets(label) : null);
+		if(present) {
+			place(id);
+			for(int neighbour: targets[id]) {
+				reload.add(neighbour);
+			}
+		}
+		else {
+			Cluster cluster = clusterOf(id);
+			if(cluster != null) {
+				cluster.cells[localOf(cluster, id)] = NONE;
+			}
+		}
+		Set<Cluster> affected = new LinkedHashSet<>();
+		for(int vertex: reload) {
+			if(vertex != id) {
+				String neighbour = index.labelOf(vertex);
+				load(vertex, vertices.contains(neighbour) ? graph.targets(neighbour) : null);
+			}
+			Cluster cluster = clusterOf(vertex);
+			if(cluster != null) {
+				affected.add(cluster);
+			}
+		}
+
+		Set<Cluster> candidates = new LinkedHashSet<>(affected);
+		Set<Cluster> linked = new HashSet<>();
+		for(Cluster cluster: affected) {
+			for(Cluster neighbour: neighbours(cluster)) {
+				candidates.add(neighbour);
+				if(!linked.contains(neighbour)) {	//each border once
+					linkClusters(cluster, neighbour);
+				}
+			}
+			linked.add(cluster);
+		}
+		int rebuilt = 0;
+		for(Cluster cluster: candidates) {
+			if(refreshEntrances(cluster) || affected.contains(cluster)) {
+				computeDistances(cluster);
+				rebuilt++;
+			}
+		}
+		return rebuilt;
+	}
+
+	/**
+	 * Replaces the transitions between two adjacent clusters from the edges now crossing their border.
+	 * Entrances are always picked from the side of the lower cluster, so rebuilds match a fresh build
+	 */
+	private void linkClusters(Cluster a, Cluster b) {
+		if(a.cx > b.cx || (a.cx == b.cx && a.cy > b.cy)) {
+			linkClusters(b, a);
+			return;
+		}
+		List<int[]> crossing = new ArrayList<>();
+		for(int from: a.cells) {
+			if(from == NONE) {
+				continue;
+			}
+			for(int e = 0; e < targets[from].length; e++) {
+				if(clusterOf(targets[from][e]) == b) {
+					crossing.add(new int[] {from, targets[from][e], weights[from][e]});
+				}
+			}
+		}
+		a.transitions.remove(key(b));
+		b.transitions.remove(key(a));
+		if(crossing.isEmpty()) {
+			return;
+		}
+		crossing.sort((x, y) -> x[0] != y[0] ? Long.compare(coordinates.packed(x[0]), coordinates.packed(y[0]))
+				: Long.compare(coordinates.packed(x[1]), coordinates.packed(y[1])));
+		List<int[]> chosen = new ArrayList<>();
+		int start = 0;
+		for(int i = 1; i <= crossing.size(); i++) {
+			if(i == crossing.size() || !adjacent(crossing.get(i - 1)[0], crossing.get(i)[0])) {
+				//entrance over crossing[start, i)
+				if(cellsSpanned(crossing, start, i) < ENTRANCE_SPLIT) {
+					chosen.add(crossing.get((start + i - 1) / 2));
+				}
+				else {
+					chosen.add(crossing.get(start));
+					chosen.add(crossing.get(i - 1));
+				}
+				start = i;
+			}
+		}
+		List<Integer> forward = new ArrayList<>();
+		List<Integer> backward = new ArrayList<>();
+		for(int[] edge: chosen) {
+			forward.addAll(Arrays.asList(edge[0], edge[1], edge[2]));
+			int back = weightOf(edge[1], edge[0]);
+			if(back != INF) {
+				backward.addAll(Arrays.asList(edge[1], edge[0], back));
+			}
+		}
+		a.transitions.put(key(b), toArray(forward));
+		if(!backward.isEmpty()) {
+			b.transitions.put(key(a), toArray(backward));
+		}
+	}
+
+	/**
+	 * @return number of distinct border cells the crossing edges in [start, end) leave from
+	 */
+	private static int cellsSpanned(List<int[]> crossing, int start, int end) {
+		int cells = 1;
+		for(int i = start + 1; i < end; i++) {
+			if(crossing.get(i)[0] != crossing.get(i - 1)[0]) {
+				cells++;
+			}
+		}
+		return cells;
+	}
+
+	private boolean adjacent(int u, int v) {
+		return chebyshev(u, v) <= 1;
+	}
+
+	private int chebyshev(int u, int v) {
+		return Math.max(Math.abs(coordinates.x(u) - coordinates.x(v)), Math.abs(coordinates.y(u) - coordinates.y(v)));
+	}
+
+	/**
+	 * Consistent lower bound on the distance between two vertices, from the cheapest edge weight per cell crossed.
+	 * Edge weights only ever lower the bound as they are loaded, so it stays a lower bound after cells change
+	 */
+	int lowerBound(int u, int v) {
+		if(minCostPerCell == Double.MAX_VALUE) {
+			return 0;
+		}
+		return (int) Math.min(INF - 1, Math.floor(minCostPerCell * chebyshev(u, v)));
+	}
+
+	/**
+	 * Recollects the entrances of the cluster from its transitions
+	 * @return true if the set of entrances changed
+	 */
+	private boolean refreshEntrances(Cluster cluster) {
+		Set<Integer> endpoints = new TreeSet<>();
+		for(int[] transitions: cluster.transitions.values()) {
+			for(int i = 0; i < transitions.length; i += 3) {
+				endpoints.add(transitions[i]);
+			}
+		}
+		int[] entrances = toArray(endpoints);
+		if(Arrays.equals(entrances, cluster.entrances)) {
+			return false;
+		}
+		cluster.entrances = entrances;
+		return true;
+	}
+
+	/**
+	 * Fills the intra cluster distance table with one search inside the cluster per entrance
+	 */
+	private void computeDistances(Cluster cluster) {
+		int count = cluster.entrances.length;
+		cluster.distances = new int[count][count];
+		for(int i = 0; i < count; i++) {
+			searchCluster(cluster, cluster.entrances[i]);
+			for(int j = 0; j < count; j++) {
+				cluster.distances[i][j] = localDistance(cluster.entrances[j]);
+			}
+		}
+	}
+
+	/**
+	 * Dijkstra from a vertex using only the edges inside its cluster, results read with localDistance and localPath
+	 * @param cluster - cluster of from
+	 * @param from - vertex id
+	 */
+	void searchCluster(Cluster cluster, int from) {
+		Arrays.fill(localDist, INF);
+		localQueue.clear();
+		searched = cluster;
+		int start = localOf(cluster, from);
+		localDist[start] = 0;
+		localParent[start] = NONE;
+		localQueue.insert(start, 0);
+		while(!localQueue.isEmpty()) {
+			int u = localQueue.pollMin();
+			int vertex = cluster.cells[u];
+			for(int e = 0; e < targets[vertex].length; e++) {
+				int target = targets[vertex][e];
+				if(clusterOf(target) != cluster) {
+					continue;
+				}
+				int v = localOf(cluster, target);
+				int newDist = localDist[u] + weights[vertex][e];
+				if(newDist < localDist[v]) {
+					localDist[v] = newDist;
+					localParent[v] = u;
+					localQueue.insertOrDecrease(v, newDist);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return distance to the vertex found by the last searchCluster, INF if it was not reached
+	 */
+	int localDistance(int vertex) {
+		if(clusterOf(vertex) != searched) {
+			return INF;
+		}
+		return localDist[localOf(searched, vertex)];
+	}
+
+	/**
+	 * Appends the path found by the last searchCluster to the vertex, excluding the search start
+	 */
+	void appendLocalPath(int vertex, List<String> path) {
+		int insertAt = path.size();
+		for(int local = localOf(searched, vertex); localParent[local] != NONE; local = localParent[local]) {
+			path.add(insertAt, index.labelOf(searched.cells[local]));
+		}
+	}
+
+	/**
+	 * @return id of a vertex currently in the graph, NONE otherwise
+	 */
+	int vertexOf(String label) {
+		int id = index.find(label);
+		return id == VertexIndex.NOT_FOUND || id >= targets.length || targets[id] == null ? NONE : id;
+	}
+
+	String labelOf(int vertex) {
+		return index.labelOf(vertex);
+	}
+
+	/**
+	 * @return cluster containing the vertex co-ordinates, null if no cluster has been created there
+	 */
+	Cluster clusterOf(int vertex) {
+		return clusters.get(GridCoordinateIndex.pack(Math.floorDiv(coordinates.x(vertex), clusterSize),
+				Math.floorDiv(coordinates.y(vertex), clusterSize)));
+	}
+
+	Collection<Cluster> clusters() {
+		return clusters.values();
+	}
+
+	public Graph<String> getGraph() {
+		return graph;
+	}
+
+	/**
+	 * @return number of cellChanged calls so far
+	 */
+	public int getChangeCount() {
+		return changeCount;
+	}
+
+	public int getClusterSize() {
+		return clusterSize;
+	}
+
+	public int clusterCount() {
+		return clusters.size();
+	}
+
+	/**
+	 * @return number of vertices of the abstract graph
+	 */
+	public int entranceCount() {
+		int count = 0;
+		for(Cluster cluster: clusters.values()) {
+			count += cluster.entrances.length;
+		}
+		return count;
+	}
+
+	private List<Cluster> neighbours(Cluster cluster) {
+		List<Cluster> neighbours = new ArrayList<>();
+		for(int dx = -1; dx <= 1; dx++) {
+			for(int dy = -1; dy <= 1; dy++) {
+				Cluster neighbour = clusters.get(GridCoordinateIndex.pack(cluster.cx + dx, cluster.cy + dy));
+				if((dx != 0 || dy != 0) && neighbour != null) {
+					neighbours.add(neighbour);
+				}
+			}
+		}
+		return neighbours;
+	}
+
+	private void load(int id, Map<String, Integer> edges) {
+		if(id >= targets.length) {
+			targets = Arrays.copyOf(targets, Math.max(id + 1, targets.length * 2));
+			weights = Arrays.copyOf(weights, targets.length);
+		}
+		if(edges == null) {
+			targets[id] = null;
+			weights[id] = null;
+			return;
+		}
+		targets[id] = new int[edges.size()];
+		weights[id] = new int[edges.size()];
+		int e = 0;
+		for(Map.Entry<String, Integer> edge: edges.entrySet()) {
+			targets[id][e] = index.idOf(edge.getKey());
+			weights[id][e] = edge.getValue();
+			int cells = chebyshev(id, targets[id][e]);
+			if(cells > 0) {
+				minCostPerCell = Math.min(minCostPerCell, (double) weights[id][e] / cells);
+			}
+			e++;
+		}
+	}
+
+	private void place(int id) {
+		int cx = Math.floorDiv(coordinates.x(id), clusterSize);
+		int cy = Math.floorDiv(coordinates.y(id), clusterSize);
+		Cluster cluster = clusters.computeIfAbsent(GridCoordinateIndex.pack(cx, cy), k -> new Cluster(cx, cy, clusterSize));
+		cluster.cells[localOf(cluster, id)] = id;
+	}
+
+	private int localOf(Cluster cluster, int vertex) {
+		return (coordinates.x(vertex) - cluster.cx * clusterSize) + (coordinates.y(vertex) - cluster.cy * clusterSize) * clusterSize;
+	}
+
+	private int weightOf(int from, int to) {
+		for(int e = 0; e < targets[from].length; e++) {
+			if(targets[from][e] == to) {
+				return weights[from][e];
+			}
+		}
+		return INF;
+	}
+
+	private static long key(Cluster cluster) {
+		return GridCoordinateIndex.pack(cluster.cx, cluster.cy);
+	}
+
+	private static int[] toArray(Collection<Integer> values) {
+		int[] array = new int[values.size()];
+		int i = 0;
+		for(int value: values) {
+			array[i++] = value;
+		}
+		return array;
+	}
+}
@@ -0,0 +1,213 @@
+package hierarchicalPathfinding;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import hierarchicalPathfinding.ClusterGraph.Cluster;
+import queues.IndexedDaryHeap;
+import searchAlgorithms.DijkstraSearch;
+import searchAlgorithms.SearchAlgorithm;
+
+/**
+ * Point to point queries on a ClusterGraph (HPA*).
+ * The source and target are joined to the entrances of their clusters by a search inside each cluster,
+ * then A* over the abstract graph finds the corridor of entrances to cross, and each step of the corridor
+ * inside a cluster is refined back into grid cells by another search inside that cluster.
+ * A query touches the abstract graph and the few clusters on the corridor instead of every cell between
+ * source and target. Paths are near optimal, since they must pass through the chosen entrances.
+ *
+ * searchWholeGraph is not sped up by the clusters and runs a DijkstraSearch over the original graph,
+ * refreshed first if cellChanged has run since its last search.
+ * This class is not threadsafe, and shares the cluster graph's search workspace.
+ * @author watso
+ */
+public class HierarchicalSearch implements SearchAlgorithm{
+	/**
+	 * RI:
+	 * 	corridor - abstract vertices of the last path found, source first, empty if no path
+	 * 	distance - length of that path, INF if no path
+	 */
+	private static final int INF = ClusterGraph.INF;
+	private static final int NONE = ClusterGraph.NONE;
+
+	private final ClusterGraph clusters;
+	private DijkstraSearch wholeGraphSearch;
+	private int wholeGraphChangeCount;	//cluster graph change count when wholeGraphSearch was last refreshed
+	private List<Integer> corridor;
+	private int distance;
+	private int abstractSettledCount;
+	private int target;	//target vertex of the running query
+
+	public HierarchicalSearch(ClusterGraph clusters) {
+		this.clusters = clusters;
+		this.corridor = new ArrayList<>();
+		this.distance = INF;
+	}
+
+	@Override
+	public boolean searchForTarget(String source, String target) {
+		corridor = new ArrayList<>();
+		distance = INF;
+		abstractSettledCount = 0;
+		int s = clusters.vertexOf(source);
+		int t = clusters.vertexOf(target);
+		if(s == NONE || t == NONE) {
+			return false;
+		}
+		Cluster sourceCluster = clusters.clusterOf(s);
+		Cluster targetCluster = clusters.clusterOf(t);
+		//temporary abstract edges joining the source and target to their clusters
+		Map<Integer, Integer> fromSource = new HashMap<>();
+		clusters.searchCluster(sourceCluster, s);
+		for(int entrance: sourceCluster.entrances) {
+			addIfReached(fromSource, entrance, clusters.localDistance(entrance));
+		}
+		addIfReached(fromSource, t, clusters.localDistance(t));
+		Map<Integer, Integer> toTarget = new HashMap<>();
+		clusters.searchCluster(targetCluster, t);	//undirected, so distances from the target are distances to it
+		for(int entrance: targetCluster.entrances) {
+			addIfReached(toTarget, entrance, clusters.localDistance(entrance));
+		}
+
+		//A* over abstract vertices, numbered densely as they are reached, with the cluster graph's lower bound as heuristic
+		Map<Integer, Integer> nodeIds = new HashMap<>();
+		List<Integer> vertices = new ArrayList<>();
+		List<Integer> dist = new ArrayList<>();
+		List<Integer> parent = new ArrayList<>();
+		IndexedDaryHeap queue = new IndexedDaryHeap(64);
+		this.target = t;
+		reach(s, 0, NONE, nodeIds, vertices, dist, parent, queue);
+		while(!queue.isEmpty()) {
+			int u = queue.pollMin();
+			abstractSettledCount++;
+			int vertex = vertices.get(u);
+			if(vertex == t) {
+				distance = dist.get(u);
+				for(int node = u; node != NONE; node = parent.get(node)) {
+					corridor.add(0, vertices.get(node));
+				}
+				return true;
+			}
+			Cluster cluster = clusters.clusterOf(vertex);
+			int position = cluster.entranceIndex(vertex);
+			if(vertex == s) {
+				for(Map.Entry<Integer, Integer> edge: fromSource.entrySet()) {
+					reach(edge.getKey(), dist.get(u) + edge.getValue(), u, nodeIds, vertices, dist, parent, queue);
+				}
+			}
+			else if(position != NONE) {
+				for(int j = 0; j < cluster.entrances.length; j++) {
+					if(cluster.distances[position][j] != INF) {
+						reach(cluster.entrances[j], dist.get(u) + cluster.distances[position][j], u, nodeIds, vertices, dist, parent, queue);
+					}
+				}
+			}
+			if(position != NONE) {
+				for(int[] transitions: cluster.transitions.values()) {
+					for(int i = 0; i < transitions.length; i += 3) {
+						if(transitions[i] == vertex) {
+							reach(transitions[i + 1], dist.get(u) + transitions[i + 2], u, nodeIds, vertices, dist, parent, queue);
+						}
+					}
+				}
+			}
+			Integer last = toTarget.get(vertex);
+			if(last != null) {
+				reach(t, dist.get(u) + last, u, nodeIds, vertices, dist, parent, queue);
+			}
+		}
+		return false;
+	}
+
+	private static void addIfReached(Map<Integer, Integer> edges, int vertex, int distance) {
+		if(distance != INF) {
+			edges.put(vertex, distance);
+		}
+	}
+
+	/**
+	 * Lowers the tentative distance of an abstract vertex, numbering it on first reach
+	 */
+	private void reach(int vertex, int newDist, int from, Map<Integer, Integer> nodeIds, List<Integer> vertices,
+			List<Integer> dist, List<Integer> parent, IndexedDaryHeap queue) {
+		Integer node = nodeIds.get(vertex);
+		if(node == null) {
+			node = vertices.size();
+			nodeIds.put(vertex, node);
+			vertices.add(vertex);
+			dist.add(INF);
+			parent.add(NONE);
+		}
+		if(newDist < dist.get(node)) {
+			dist.set(node, newDist);
+			parent.set(node, from);
+			queue.insertOrDecrease(node, (long) newDist + clusters.lowerBound(vertex, target));
+		}
+	}
+
+	/**
+	 * Returns the path from source to target, refined from the abstract corridor into grid cells
+	 * @return ordered list of vertex labels from source to target, empty if no path is found
+	 */
+	@Override
+	public List<String> findPathToTarget(String source, String target) {
+		List<String> path = new LinkedList<>();
+		if(!searchForTarget(source, target)) {
+			return path;
+		}
+		path.add(source);
+		for(int i = 0; i + 1 < corridor.size(); i++) {
+			int from = corridor.get(i);
+			int to = corridor.get(i + 1);
+			Cluster cluster = clusters.clusterOf(from);
+			if(cluster != clusters.clusterOf(to)) {
+				path.add(clusters.labelOf(to));	//transition edge
+			}
+			else {
+				clusters.searchCluster(cluster, from);
+				clusters.appendLocalPath(to, path);
+			}
+		}
+		return path;
+	}
+
+	/**
+	 * Returns the length of the path found to target from source, or 0 if target cannot be reached
+	 */
+	@Override
+	public Integer findDistanceToTarget(String source, String target) {
+		if(searchForTarget(source, target)) {
+			return distance;
+		}
+		return 0;
+	}
+
+	@Override
+	public void searchWholeGraph(String source) {
+		if(wholeGraphSearch == null) {
+			wholeGraphSearch = new DijkstraSearch(clusters.getGraph());
+		}
+		else if(wholeGraphChangeCount != clusters.getChangeCount()) {
+			wholeGraphSearch.refresh();
+		}
+		wholeGraphChangeCount = clusters.getChangeCount();
+		wholeGraphSearch.searchWholeGraph(source);
+	}
+
+	/**
+	 * @return search used by searchWholeGraph, for its distances, null before the first call
+	 */
+	public DijkstraSearch getWholeGraphSearch() {
+		return wholeGraphSearch;
+	}
+
+	/**
+	 * @return number of abstract vertices settled by the last query
+	 */
+	public int getAbstractSettledCount() {
+		return abstractSettledCount;
+	}
+}
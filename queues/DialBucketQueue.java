@@ -0,0 +1,228 @@
+package queues;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Dial's bucket queue: a circular array of buckets, one per integer priority, for monotone searches
+ * with small integer edge weights.
+ * All queued priorities must lie in a window narrower than the number of buckets, which holds for
+ * Dijkstra when there are more buckets than the maximum edge weight. Priority p lives in bucket
+ * p % bucketCount, so each bucket holds entries of a single priority, kept in an intrusive doubly linked
+ * list over int arrays so that decreases and removals are O(1).
+ *
+ * Complexity:
+ * insert, decrease, remove	- O(1)
+ * pollMin						- O(1) amortised over a monotone search (the cursor only scans forwards)
+ *
+ * The key capacity grows automatically when a key beyond the current capacity is inserted.
+ * This class is not threadsafe
+ * @author watso
+ */
+public class DialBucketQueue implements IndexedPriorityQueue{
+	/**
+	 * RI:
+	 * 	key is queued iff priorities[key] != ABSENT, then it is in the list starting at heads[priorities[key] % bucketCount]
+	 * 	next/prev link the keys of each bucket list, NONE at either end
+	 * 	if size > 0, every queued priority p has cursor <= p <= maxPriority, and maxPriority - cursor < bucketCount
+	 * AF:
+	 * 	Represents a min priority queue of (key, priority) entries, with a single entry per key
+	 */
+	public static final int MAX_BUCKETS = 1 << 16;	//larger weight ranges use a RadixHeap
+	private static final int NONE = -1;
+	private static final long ABSENT = -1;
+
+	private final int bucketCount;
+	private final int[] heads;
+	private int[] next;
+	private int[] prev;
+	private long[] priorities;
+	private int size;
+	private long cursor;
+	private long maxPriority;
+
+	/**
+	 * @param capacity - initial key capacity, >= 0
+	 * @param bucketCount - number of buckets, greater than the largest step between queued priorities
+	 */
+	public DialBucketQueue(int capacity, int bucketCount) {
+		if(capacity < 0 || bucketCount < 1 || bucketCount > MAX_BUCKETS) {
+			throw new IllegalArgumentException(String.format("Invalid queue capacity %d or bucket count %d", capacity, bucketCount));
+		}
+		this.bucketCount = bucketCount;
+		this.heads = new int[bucketCount];
+		Arrays.fill(heads, NONE);
+		this.next = new int[Math.max(capacity, 1)];
+		this.prev = new int[next.length];
+		this.priorities = new long[next.length];
+		Arrays.fill(priorities, ABSENT);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public boolean contains(int key) {
+		return key >= 0 && key < priorities.length && priorities[key] != ABSENT;
+	}
+
+	@Override
+	public long priority(int key) {
+		if(!contains(key)) {
+			throw new NoSuchElementException("Key not in queue: " + key);
+		}
+		return priorities[key];
+	}
+
+	@Override
+	public void insert(int key, long priority) {
+		if(contains(key)) {
+			throw new IllegalArgumentException("Key already in queue: " + key);
+		}
+		if(key < 0 || priority < 0) {
+			throw new IllegalArgumentException(String.format("Invalid key %d or priority %d", key, priority));
+		}
+		ensureCapacity(key + 1);
+		widenWindow(priority);
+		link(key, priority);
+	}
+
+	@Override
+	public boolean insertOrDecrease(int key, long priority) {
+		if(!contains(key)) {
+			insert(key, priority);
+			return true;
+		}
+		if(priority >= priorities[key]) {
+			return false;
+		}
+		unlink(key);
+		insert(key, priority);
+		return true;
+	}
+
+	@Override
+	public void update(int key, long priority) {
+		remove(key);
+		insert(key, priority);
+	}
+
+	@Override
+	public int peekMin() {
+		if(size == 0) {
+			throw new NoSuchElementException("Queue is empty");
+		}
+		while(heads[bucketOf(cursor)] == NONE) {
+			cursor++;
+		}
+		return heads[bucketOf(cursor)];
+	}
+
+	@Override
+	public long peekMinPriority() {
+		return priorities[peekMin()];
+	}
+
+	@Override
+	public int pollMin() {
+		int key = peekMin();
+		unlink(key);
+		return key;
+	}
+
+	@Override
+	public boolean remove(int key) {
+		if(!contains(key)) {
+			return false;
+		}
+		unlink(key);
+		return true;
+	}
+
+	/**
+	 * Empties the queue, visiting only the buckets of the current window
+	 */
+	@Override
+	public void clear() {
+		for(long p = cursor; size > 0 && p <= maxPriority; p++) {
+			int b = bucketOf(p);
+			for(int key = heads[b]; key != NONE; key = next[key]) {
+				priorities[key] = ABSENT;
+				size--;
+			}
+			heads[b] = NONE;
+		}
+		size = 0;
+	}
+
+	/**
+	 * Grows the key arrays to hold keys in [0, capacity)
+	 */
+	public void ensureCapacity(int capacity) {
+		if(capacity > next.length) {
+			int newLength = Math.max(capacity, next.length * 2);
+			next = Arrays.copyOf(next, newLength);
+			prev = Arrays.copyOf(prev, newLength);
+			int oldLength = priorities.length;
+			priorities = Arrays.copyOf(priorities, newLength);
+			Arrays.fill(priorities, oldLength, newLength, ABSENT);
+		}
+	}
+
+	/**
+	 * Extends the window of queued priorities to include priority
+	 * @throws IllegalArgumentException if the window would be wider than the buckets
+	 */
+	private void widenWindow(long priority) {
+		if(size == 0) {
+			cursor = priority;
+			maxPriority = priority;
+			return;
+		}
+		long low = Math.min(cursor, priority);
+		long high = Math.max(maxPriority, priority);
+		if(high - low >= bucketCount) {
+			throw new IllegalArgumentException(String.format("Priority %d outside the %d bucket window [%d, %d]",
+					priority, bucketCount, cursor, maxPriority));
+		}
+		cursor = low;
+		maxPriority = high;
+	}
+
+	private int bucketOf(long priority) {
+		return (int) (priority % bucketCount);
+	}
+
+	private void link(int key, long priority) {
+		int b = bucketOf(priority);
+		next[key] = heads[b];
+		prev[key] = NONE;
+		if(heads[b] != NONE) {
+			prev[heads[b]] = key;
+		}
+		heads[b] = key;
+		priorities[key] = priority;
+		size++;
+	}
+
+	private void unlink(int key) {
+		if(prev[key] != NONE) {
+			next[prev[key]] = next[key];
+		}
+		else {
+			heads[bucketOf(priorities[key])] = next[key];
+		}
+		if(next[key] != NONE) {
+			prev[next[key]] = prev[key];
+		}
+		priorities[key] = ABSENT;
+		size--;
+	}
+}
@@ -0,0 +1,319 @@
+package queues;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Indexed d-ary minimum heap of integer keys with long priorities.
+ * Keys are dense integer ids (e.g. vertex ids) in the range [0, capacity), each key can be
+ * present in the heap at most once. A position index is kept for every key so that
+ * contains, decreaseKey and remove run without scanning the heap.
+ *
+ * Complexity:
+ * insert, decreaseKey  - O(log_d n)
+ * pollMin, remove		- O(d log_d n)
+ * contains, priority	- O(1)
+ *
+ * The capacity grows automatically when a key beyond the current capacity is inserted.
+ * This class is not threadsafe
+ * @author watso
+ */
+public class IndexedDaryHeap implements IndexedPriorityQueue{
+	/**
+	 * RI:
+	 * 	heap[0..size-1] holds the keys currently in the heap, in heap order by priorities[key]
+	 * 	positions[key] == i iff heap[i] == key, positions[key] == ABSENT iff key not in heap
+	 * 	priorities[key] is only meaningful while the key is in the heap
+	 * 	arity >= 2
+	 * AF:
+	 * 	Represents a min priority queue of (key, priority) entries, with a single entry per key
+	 * Rep Safety:
+	 * 	All arrays are private and never returned, keys and priorities are primitives
+	 */
+	public static final int DEFAULT_ARITY = 4;
+	private static final int ABSENT = -1;
+
+	private final int arity;
+	private int[] heap;
+	private int[] positions;
+	private long[] priorities;
+	private int size;
+
+	/**
+	 * Creates a 4-ary heap able to hold keys in [0, capacity) without resizing
+	 * @param capacity - initial key capacity, >= 0
+	 */
+	public IndexedDaryHeap(int capacity) {
+		this(capacity, DEFAULT_ARITY);
+	}
+
+	/**
+	 * Creates a heap with the given number of children per node
+	 * @param capacity - initial key capacity, >= 0
+	 * @param arity - children per node, >= 2
+	 */
+	public IndexedDaryHeap(int capacity, int arity) {
+		if(capacity < 0 || arity < 2) {
+			throw new IllegalArgumentException(String.format("Invalid heap capacity %d or arity %d", capacity, arity));
+		}
+		this.arity = arity;
+		this.heap = new int[Math.max(capacity, 1)];
+		this.positions = new int[Math.max(capacity, 1)];
+		this.priorities = new long[Math.max(capacity, 1)];
+		Arrays.fill(positions, ABSENT);
+		this.size = 0;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * @param key
+	 * @return true if the key is currently held in the heap
+	 */
+	@Override
+	public boolean contains(int key) {
+		return key >= 0 && key < positions.length && positions[key] != ABSENT;
+	}
+
+	/**
+	 * @param key - key currently in the heap
+	 * @return current priority of the key
+	 */
+	@Override
+	public long priority(int key) {
+		checkContains(key);
+		return priorities[key];
+	}
+
+	/**
+	 * Adds a new key to the heap
+	 * @param key - key not currently in the heap, >= 0
+	 * @param priority
+	 */
+	@Override
+	public void insert(int key, long priority) {
+		if(key < 0) {
+			throw new IllegalArgumentException("Negative heap key: " + key);
+		}
+		ensureCapacity(key + 1);
+		if(positions[key] != ABSENT) {
+			throw new IllegalArgumentException("Key already in heap: " + key);
+		}
+		heap[size] = key;
+		positions[key] = size;
+		priorities[key] = priority;
+		size++;
+		siftUp(size - 1);
+	}
+
+	/**
+	 * Lowers the priority of a key already in the heap
+	 * @param key - key currently in the heap
+	 * @param priority - new priority, must not be greater than the current priority
+	 */
+	public void decreaseKey(int key, long priority) {
+		checkContains(key);
+		if(priority > priorities[key]) {
+			throw new IllegalArgumentException(String.format("New priority %d is greater than current priority %d", priority, priorities[key]));
+		}
+		priorities[key] = priority;
+		siftUp(positions[key]);
+	}
+
+	/**
+	 * Inserts the key if absent, or lowers its priority if the new priority is smaller
+	 * @param key
+	 * @param priority
+	 * @return true if the heap was changed
+	 */
+	@Override
+	public boolean insertOrDecrease(int key, long priority) {
+		if(!contains(key)) {
+			insert(key, priority);
+			return true;
+		}
+		if(priority < priorities[key]) {
+			priorities[key] = priority;
+			siftUp(positions[key]);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Sets the priority of a key in either direction, inserting it if absent
+	 * @param key
+	 * @param priority
+	 */
+	@Override
+	public void update(int key, long priority) {
+		if(!contains(key)) {
+			insert(key, priority);
+			return;
+		}
+		long old = priorities[key];
+		priorities[key] = priority;
+		if(priority < old) {
+			siftUp(positions[key]);
+		}
+		else {
+			siftDown(positions[key]);
+		}
+	}
+
+	/**
+	 * @return key with minimum priority, without removing it
+	 */
+	@Override
+	public int peekMin() {
+		checkNotEmpty();
+		return heap[0];
+	}
+
+	/**
+	 * @return the minimum priority currently in the heap
+	 */
+	@Override
+	public long peekMinPriority() {
+		checkNotEmpty();
+		return priorities[heap[0]];
+	}
+
+	/**
+	 * Removes and returns the key with minimum priority
+	 * @return key
+	 */
+	@Override
+	public int pollMin() {
+		checkNotEmpty();
+		int min = heap[0];
+		removeAt(0);
+		return min;
+	}
+
+	/**
+	 * Removes a key from the heap
+	 * @param key
+	 * @return true if the key was present
+	 */
+	@Override
+	public boolean remove(int key) {
+		if(!contains(key)) {
+			return false;
+		}
+		removeAt(positions[key]);
+		return true;
+	}
+
+	/**
+	 * Removes all keys, in O(size) rather than O(capacity)
+	 */
+	@Override
+	public void clear() {
+		for(int i = 0; i < size; i++) {
+			positions[heap[i]] = ABSENT;
+		}
+		size = 0;
+	}
+
+	/**
+	 * Grows the key capacity so keys in [0, capacity) can be inserted
+	 * @param capacity
+	 */
+	public void ensureCapacity(int capacity) {
+		if(capacity <= positions.length) {
+			return;
+		}
+		int newCapacity = Math.max(capacity, positions.length + (positions.length >> 1));
+		int oldCapacity = positions.length;
+		heap = Arrays.copyOf(heap, newCapacity);
+		priorities = Arrays.copyOf(priorities, newCapacity);
+		positions = Arrays.copyOf(positions, newCapacity);
+		Arrays.fill(positions, oldCapacity, newCapacity, ABSENT);
+	}
+
+	private void removeAt(int index) {
+		int removed = heap[index];
+		positions[removed] = ABSENT;
+		size--;
+		if(index == size) {
+			return;
+		}
+		int last = heap[size];
+		heap[index] = last;
+		positions[last] = index;
+		if(index > 0 && priorities[last] < priorities[heap[(index - 1) / arity]]) {
+			siftUp(index);
+		}
+		else {
+			siftDown(index);
+		}
+	}
+
+	private void siftUp(int index) {
+		int key = heap[index];
+		long priority = priorities[key];
+		while(index > 0) {
+			int parent = (index - 1) / arity;
+			int parentKey = heap[parent];
+			if(priorities[parentKey] <= priority) {
+				break;
+			}
+			heap[index] = parentKey;
+			positions[parentKey] = index;
+			index = parent;
+		}
+		heap[index] = key;
+		positions[key] = index;
+	}
+
+	private void siftDown(int index) {
+		int key = heap[index];
+		long priority = priorities[key];
+		while(true) {
+			int firstChild = index * arity + 1;
+			if(firstChild >= size) {
+				break;
+			}
+			int lastChild = Math.min(firstChild + arity, size);
+			int minChild = firstChild;
+			long minPriority = priorities[heap[firstChild]];
+			for(int child = firstChild + 1; child < lastChild; child++) {
+				long childPriority = priorities[heap[child]];
+				if(childPriority < minPriority) {
+					minChild = child;
+					minPriority = childPriority;
+				}
+			}
+			if(minPriority >= priority) {
+				break;
+			}
+			int childKey = heap[minChild];
+			heap[index] = childKey;
+			positions[childKey] = index;
+			index = minChild;
+		}
+		heap[index] = key;
+		positions[key] = index;
+	}
+
+	private void checkContains(int key) {
+		if(!contains(key)) {
+			throw new NoSuchElementException("Key not in heap: " + key);
+		}
+	}
+
+	private void checkNotEmpty() {
+		if(size == 0) {
+			throw new NoSuchElementException("Heap is empty");
+		}
+	}
+}
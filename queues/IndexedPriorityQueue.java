@@ -0,0 +1,90 @@
+package queues;
+
+/**
+ * Minimum priority queue of dense integer keys (e.g. vertex ids) with long priorities,
+ * holding at most one entry per key.
+ *
+ * Implementations:
+ * IndexedDaryHeap	- any priorities, in any order
+ * DialBucketQueue	- monotone, priorities in a window of small integer width, O(1) operations
+ * RadixHeap		- monotone, any non negative priorities, amortised O(log C) pollMin
+ * Monotone queues only accept priorities no lower than the last polled minimum, as in Dijkstra's algorithm
+ * with non negative weights, and throw IllegalArgumentException otherwise.
+ * @author watso
+ */
+public interface IndexedPriorityQueue {
+
+	public int size();
+
+	public boolean isEmpty();
+
+	/**
+	 * @param key
+	 * @return true if the key is in the queue
+	 */
+	public boolean contains(int key);
+
+	/**
+	 * @param key - key in the queue
+	 * @return current priority of the key
+	 */
+	public long priority(int key);
+
+	/**
+	 * Adds a key that is not already in the queue
+	 * @param key - >= 0
+	 * @param priority
+	 */
+	public void insert(int key, long priority);
+
+	/**
+	 * Inserts the key, or lowers its priority if it is queued with a higher one
+	 * @return true if the queue changed
+	 */
+	public boolean insertOrDecrease(int key, long priority);
+
+	/**
+	 * Sets the priority of the key in either direction, inserting it if absent
+	 */
+	public void update(int key, long priority);
+
+	/**
+	 * @return key with the minimum priority, without removing it
+	 */
+	public int peekMin();
+
+	/**
+	 * @return minimum priority in the queue
+	 */
+	public long peekMinPriority();
+
+	/**
+	 * Removes and returns the key with the minimum priority
+	 */
+	public int pollMin();
+
+	/**
+	 * @return true if the key was in the queue and has been removed
+	 */
+	public boolean remove(int key);
+
+	/**
+	 * Removes every entry
+	 */
+	public void clear();
+
+	/**
+	 * Picks the fastest monotone queue for searches whose priorities grow in steps of at most maxStep,
+	 * e.g. Dijkstra with maximum edge weight maxStep.
+	 * Dial's buckets are used for small steps, a radix heap for large or unbounded steps
+	 * @param capacity - initial key capacity
+	 * @param maxStep - largest edge weight, Long.MAX_VALUE if unbounded (e.g. Integer.MAX_VALUE placeholders are queued)
+	 * @return empty monotone queue
+	 */
+	public static IndexedPriorityQueue monotone(int capacity, long maxStep) {
+		if(maxStep >= 0 && maxStep < DialBucketQueue.MAX_BUCKETS) {
+			return new DialBucketQueue(capacity, (int) maxStep + 1);
+		}
+		return new RadixHeap(capacity);
+	}
+}
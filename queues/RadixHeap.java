@@ -0,0 +1,222 @@
+package queues;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Indexed radix heap for monotone searches with large or unbounded integer priorities.
+ * Entries are kept in buckets by the highest bit in which their priority differs from the last minimum
+ * polled (bucket 0 holds priorities equal to it). When bucket 0 is empty, the first non empty bucket is
+ * scanned for its minimum, which becomes the new last minimum, and its entries are redistributed into lower
+ * buckets. Each entry can only move down, so a search pays O(log C) amortised per entry for largest priority C.
+ * Buckets are intrusive doubly linked lists over int arrays, so decreases and removals are O(1).
+ *
+ * The key capacity grows automatically when a key beyond the current capacity is inserted.
+ * This class is not threadsafe
+ * @author watso
+ */
+public class RadixHeap implements IndexedPriorityQueue{
+	/**
+	 * RI:
+	 * 	key is queued iff bucketOf[key] != NONE, then it is in the list starting at heads[bucketOf[key]]
+	 * 	every queued priority p >= last and bucketOf[key] == bucketIndex(p)
+	 * 	next/prev link the keys of each bucket list, NONE at either end
+	 * AF:
+	 * 	Represents a min priority queue of (key, priority) entries, with a single entry per key
+	 */
+	private static final int BUCKETS = 65;
+	private static final int NONE = -1;
+
+	private final int[] heads;
+	private int[] next;
+	private int[] prev;
+	private int[] bucketOf;
+	private long[] priorities;
+	private int size;
+	private long last;
+
+	/**
+	 * @param capacity - initial key capacity, >= 0
+	 */
+	public RadixHeap(int capacity) {
+		if(capacity < 0) {
+			throw new IllegalArgumentException("Invalid heap capacity " + capacity);
+		}
+		this.heads = new int[BUCKETS];
+		Arrays.fill(heads, NONE);
+		this.next = new int[Math.max(capacity, 1)];
+		this.prev = new int[next.length];
+		this.bucketOf = new int[next.length];
+		Arrays.fill(bucketOf, NONE);
+		this.priorities = new long[next.length];
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public boolean contains(int key) {
+		return key >= 0 && key < bucketOf.length && bucketOf[key] != NONE;
+	}
+
+	@Override
+	public long priority(int key) {
+		if(!contains(key)) {
+			throw new NoSuchElementException("Key not in heap: " + key);
+		}
+		return priorities[key];
+	}
+
+	@Override
+	public void insert(int key, long priority) {
+		if(contains(key)) {
+			throw new IllegalArgumentException("Key already in heap: " + key);
+		}
+		if(key < 0 || priority < 0) {
+			throw new IllegalArgumentException(String.format("Invalid key %d or priority %d", key, priority));
+		}
+		if(priority < last && size == 0) {
+			last = priority;	//nothing queued relies on the old minimum
+		}
+		else if(priority < last) {
+			throw new IllegalArgumentException(String.format("Priority %d below last minimum %d", priority, last));
+		}
+		ensureCapacity(key + 1);
+		priorities[key] = priority;
+		link(key, bucketIndex(priority));
+	}
+
+	@Override
+	public boolean insertOrDecrease(int key, long priority) {
+		if(!contains(key)) {
+			insert(key, priority);
+			return true;
+		}
+		if(priority >= priorities[key]) {
+			return false;
+		}
+		unlink(key);
+		insert(key, priority);
+		return true;
+	}
+
+	@Override
+	public void update(int key, long priority) {
+		remove(key);
+		insert(key, priority);
+	}
+
+	@Override
+	public int peekMin() {
+		if(size == 0) {
+			throw new NoSuchElementException("Heap is empty");
+		}
+		if(heads[0] == NONE) {
+			int b = 1;
+			while(heads[b] == NONE) {
+				b++;
+			}
+			long min = Long.MAX_VALUE;
+			for(int key = heads[b]; key != NONE; key = next[key]) {
+				min = Math.min(min, priorities[key]);
+			}
+			last = min;
+			int key = heads[b];
+			heads[b] = NONE;
+			while(key != NONE) {
+				int following = next[key];
+				link(key, bucketIndex(priorities[key]));
+				size--;	//link counts the entry again
+				key = following;
+			}
+		}
+		return heads[0];
+	}
+
+	@Override
+	public long peekMinPriority() {
+		return priorities[peekMin()];
+	}
+
+	@Override
+	public int pollMin() {
+		int key = peekMin();
+		unlink(key);
+		return key;
+	}
+
+	@Override
+	public boolean remove(int key) {
+		if(!contains(key)) {
+			return false;
+		}
+		unlink(key);
+		return true;
+	}
+
+	@Override
+	public void clear() {
+		for(int b = 0; b < BUCKETS; b++) {
+			for(int key = heads[b]; key != NONE; key = next[key]) {
+				bucketOf[key] = NONE;
+			}
+			heads[b] = NONE;
+		}
+		size = 0;
+		last = 0;
+	}
+
+	/**
+	 * Grows the key arrays to hold keys in [0, capacity)
+	 */
+	public void ensureCapacity(int capacity) {
+		if(capacity > next.length) {
+			int newLength = Math.max(capacity, next.length * 2);
+			next = Arrays.copyOf(next, newLength);
+			prev = Arrays.copyOf(prev, newLength);
+			priorities = Arrays.copyOf(priorities, newLength);
+			int oldLength = bucketOf.length;
+			bucketOf = Arrays.copyOf(bucketOf, newLength);
+			Arrays.fill(bucketOf, oldLength, newLength, NONE);
+		}
+	}
+
+	/**
+	 * @return 0 if priority equals last, else 1 + the index of the highest bit where they differ
+	 */
+	private int bucketIndex(long priority) {
+		return priority == last ? 0 : 64 - Long.numberOfLeadingZeros(priority ^ last);
+	}
+
+	private void link(int key, int bucket) {
+		next[key] = heads[bucket];
+		prev[key] = NONE;
+		if(heads[bucket] != NONE) {
+			prev[heads[bucket]] = key;
+		}
+		heads[bucket] = key;
+		bucketOf[key] = bucket;
+		size++;
+	}
+
+	private void unlink(int key) {
+		if(prev[key] != NONE) {
+			next[prev[key]] = next[key];
+		}
+		else {
+			heads[bucketOf[key]] = next[key];
+		}
+		if(next[key] != NONE) {
+			prev[next[key]] = prev[key];
+		}
+		bucketOf[key] = NONE;
+		size--;
+	}
+}
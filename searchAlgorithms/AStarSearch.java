@@ -1,33 +1,31 @@
 package searchAlgorithms;
 
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
-import java.util.PriorityQueue;
-import java.util.Set;
 
 import graph.Graph;
 
 public class AStarSearch implements SearchAlgorithm{
-	private PriorityQueue<VertexDistancePair> pQ;
-	private Map<String, Integer> gScore;
-	private Map<String, Integer> fScore;
-	private Map<String, String> predecessors;
-	private Set<String> vertices;
+	private SearchWorkspace workspace;	//gScore, predecessors and open set by compiled vertex id, prioritised by fScore
+	private boolean workspaceShared;	//set through setWorkspace, kept over refresh()
 	private Graph<String> graph;
+	private CompiledGraph compiled;	//snapshot of graph searched, taken at construction or refresh()
+	private HeuristicProvider heuristic;	//null for the "x,y" grid heuristic hScore
+	private GridCoordinateIndex coordinates;	//parsed labels for hScore, built on first use
+	private int targetId;
+	private int furthest;	//expanded vertex with the largest gScore in the last search, the source if none other
 	
 	private List<String> pathToTarget;
 	
 	private String source;
 	private String target;
-	private Integer xt;
-	private Integer yt;
+	private int xt;
+	private int yt;
 	
-	private static Integer WEIGHTING;
+	private int weighting;	//per instance, so searches with different grid scales do not interfere
 	
-	private static final Integer INF = Integer.MAX_VALUE;
+	private static final int INF = SearchResultMaps.UNREACHED;
+	private static final int NONE = SearchResultMaps.NO_PREDECESSOR;
 
 	
 	
@@ -36,7 +34,7 @@ public class AStarSearch implements SearchAlgorithm{
 	 * This algorithm assumes that vertex labes are of the form:
 	 * "x,y" - where x and y are the respective cartesian co-ordinates of the vertex
 	 *
-	 * It should only be used for searches of cartesian grids.
+	 * It should only be used for searches of cartesian grids, unless constructed with a HeuristicProvider.
 	 * 
 	 *  HEURISTIC FUNCTION:
 	 * The Heuristic function for this algorithm is diagonal distance by cartesian co-ordinates.
@@ -51,8 +49,67 @@ public class AStarSearch implements SearchAlgorithm{
 	
 	
 	public AStarSearch(Graph<String> graph) {
+		this(CompiledGraph.compile(graph));
 		this.graph = graph;
-		WEIGHTING = 1;	//all other values initialised at search time
+	}
+	
+	/**
+	 * Creates a search over an already compiled graph
+	 * @param compiled
+	 */
+	public AStarSearch(CompiledGraph compiled) {
+		this.compiled = compiled;
+		this.weighting = 1;	//all other values initialised at search time
+	}
+	
+	/**
+	 * Creates a search over an already compiled graph using the given heuristic instead of grid co-ordinates,
+	 * e.g. a LandmarkHeuristic, so that labels can be of any form
+	 * @param compiled
+	 * @param heuristic - heuristic over the vertex ids of compiled
+	 */
+	public AStarSearch(CompiledGraph compiled, HeuristicProvider heuristic) {
+		this(compiled);
+		this.heuristic = heuristic;
+	}
+	
+	/**
+	 * Recompiles the graph snapshot, so that changes made to the graph since construction are searched
+	 */
+	public void refresh() {
+		if(graph != null) {
+			this.compiled = CompiledGraph.compile(graph);
+			this.coordinates = null;
+			if(!workspaceShared) {
+				this.workspace = null;
+			}
+		}
+	}
+	
+	/**
+	 * Shares a workspace with other searches run by the same thread over graphs with the same vertex ids,
+	 * e.g. a DijkstraSearch over the same snapshot. Reading a result after another search has used the
+	 * workspace gives that search's result instead.
+	 * Its queue must take priorities in any order, as the default IndexedDaryHeap does, since f scores are not monotone.
+	 * @param workspace - workspace of at least compiled vertex count capacity, null to go back to a private one
+	 */
+	public void setWorkspace(SearchWorkspace workspace) {
+		if(workspace != null && workspace.capacity() < compiled.vertexCount()) {
+			throw new IllegalArgumentException("Workspace is smaller than the graph: " + workspace.capacity());
+		}
+		this.workspace = workspace;
+		this.workspaceShared = workspace != null;
+	}
+	
+	/**
+	 * @return workspace searches run in, created on first use unless one has been shared in
+	 */
+	public SearchWorkspace getWorkspace() {
+		if(workspace == null || workspace.capacity() < compiled.vertexCount()) {
+			workspace = new SearchWorkspace(compiled.vertexCount());
+			workspaceShared = false;
+		}
+		return workspace;
 	}
 	
 	/**
@@ -63,38 +120,37 @@ public class AStarSearch implements SearchAlgorithm{
 	 * Call path to target getter method to find.
 	 */
 	public boolean searchForTarget(String source, String target) {
+		int s = compiled.idOf(source);
+		int t = compiled.idOf(target);
+		if(s == CompiledGraph.NOT_FOUND || t == CompiledGraph.NOT_FOUND) {
+			this.pathToTarget = new LinkedList<>();
+			return false;
+		}
 		initialise(source, target);
-		String current ="";
 		//main loop
-		while(!pQ.isEmpty()) {
-			current = pQ.poll().vertex;	//removes the lowest fScore vertex from the open set (pQ)
-			if(current.equals(target)) {
+		while(!workspace.queue().isEmpty()) {
+			int current = workspace.queue().pollMin();	//removes the lowest fScore vertex from the open set (pQ)
+			if(current == t) {
 				//finished, found source
-				/**
-				 * Do something
-				 */
-				this.pathToTarget = populatePathToTarget(source,target);
+				this.pathToTarget = pathTo(t);
 				return true;
 			}
-			System.out.println("Currently searching from: " + current);
-			Map<String, Integer> neighbourMap = graph.targets(current);	
-			//TODO Check if this needs to be neighbours
-			for(String neighbour:neighbourMap.keySet()) {
+			int currentG = workspace.distance(current);
+			if(currentG > workspace.distance(furthest)) {
+				furthest = current;	//every reached vertex is expanded before a search fails, so this finds the furthest
+			}
+			for(int e = compiled.firstEdge(current); e < compiled.endEdge(current); e++) {
 				//loop through all neighbours of current vertex
-				Integer newG =gScore.get(current) + neighbourMap.get(neighbour);//add or alter the VDP in the pQ for new values
-				if(newG<gScore.get(neighbour)) {
-					Integer newF = newG +hScore(neighbour);	//need to reset priority first
-					changePriority(neighbour,newF); //add or alter the VDP in the pQ for new values
-					gScore.put(neighbour, newG);	//set new distance value as tentative g
-					fScore.put(neighbour, newF); 	// F score value is new distance + heuristic
-					predecessors.put(neighbour, current); //update map of predecessors
-					if(current.equals("1,1")) {
-						System.out.println("puase_");}
+				int neighbour = compiled.edgeTarget(e);
+				int newG = currentG + compiled.edgeWeight(e);
+				if(newG<workspace.distance(neighbour)) {
+					//F score value is new distance + heuristic, sets new tentative g and predecessor
+					workspace.lower(neighbour, newG, current, (long) newG + estimate(neighbour));
 				}
 			}
 		}
 		
-		this.pathToTarget = populatePathToTarget(source, getFurthestTravelledVertex());	//not longest
+		this.pathToTarget = pathTo(furthest);	//not longest
 		return false; //target not found
 	}
 	
@@ -103,15 +159,7 @@ public class AStarSearch implements SearchAlgorithm{
 	 * correct path when no path is found
 	 */
 	protected String getFurthestTravelledVertex() {
-		Integer highestDistance = 0;
-		String furthestVertex  ="";
-		for(String vertex: gScore.keySet()) {
-			if(gScore.get(vertex)!= INF &&gScore.get(vertex)>highestDistance) {
-				highestDistance = gScore.get(vertex);
-				furthestVertex = vertex;
-			}
-		}
-		return furthestVertex;
+		return compiled.labelOf(furthest);
 	}
 	
 	/**
@@ -119,60 +167,80 @@ public class AStarSearch implements SearchAlgorithm{
 	 * @return
 	 */
 	protected List<String> populatePathToTarget(String source, String target){
-		String currVertex = target;
+		int t = compiled.idOf(target);
+		if(t == CompiledGraph.NOT_FOUND || workspace == null || workspace.distance(t) == INF) {
+			System.out.println(String.format("Vertex %s does not have a predeccessor, no path to target", target));
+			return new LinkedList<>();
+		}
+		return pathTo(t);
+	}
+	
+	/**
+	 * @return labels from the source of the last search to the reached vertex, walking the predecessors
+	 */
+	private List<String> pathTo(int vertex) {
 		List<String> tempList = new LinkedList<>();
-		
-		while(!currVertex.equals(source)) {
-			tempList.add(0,currVertex);
-			currVertex = predecessors.get(currVertex);
-			if(currVertex == null) {
-				System.out.println(String.format("Current vertex %s does not have a predeccessor, no path to target", tempList.get(0)));
-			}
+		for(int v = vertex; v != NONE; v = workspace.predecessor(v)) {
+			tempList.add(0, compiled.labelOf(v));
 		}
-		tempList.add(0,currVertex);
 		return tempList;
 	}
 	
 	private void initialise(String source, String target) {
-		this.pQ = new PriorityQueue<>();
-		this.fScore = new HashMap<>();
-		this.gScore = new HashMap<>();
-		this.predecessors = new HashMap<>();
-		this.vertices = graph.vertices();
-		for(String vertex: vertices) {
-			if(!vertex.equals(source)) {
-				gScore.put(vertex,INF); //initlialise max
-				fScore.put(vertex,INF);	// initialse max
-			}
-		}
+		workspace = getWorkspace();
+		workspace.reset();	//every gScore back to INF and predecessor to NONE in O(1)
 		this.source = source;
 		this.target = target;
-		yt = null;
-		xt = null;
+		this.targetId = compiled.idOf(target);
+		if(heuristic == null) {
+			xt = coordinates().x(targetId);
+			yt = coordinates().y(targetId);
+		}
 		
 		pathToTarget = new LinkedList<>();
 		
-		gScore.put(source, 0);	//Define the distance of the start node as 0
-		fScore.put(source,hScore(source)); //define h score of start as hscore only
-		
-		pQ.add(new VertexDistancePair(source, fScore.get(source)));	// add the starting node to the pQ
+		int s = compiled.idOf(source);
+		furthest = s;
+		//Define the distance of the start node as 0, f score of start is h score only
+		workspace.lower(s, 0, NONE, estimate(s));
 	}
+	
 	/**
-	 * Standard diagonal (euclidean?) distance calc
-	 * @param source
-	 * @param target
-	 * @return rounded integer of their distances
+	 * @param vertex - vertex id
+	 * @return heuristic estimate from vertex to the current target
+	 */
+	private int estimate(int vertex) {
+		if(heuristic != null) {
+			return heuristic.estimate(vertex, targetId);
+		}
+		return diagonal(coordinates().x(vertex), coordinates().y(vertex));
+	}
+	
+	private GridCoordinateIndex coordinates() {
+		if(coordinates == null) {
+			coordinates = GridCoordinateIndex.of(compiled);
+		}
+		return coordinates;
+	}
+	
+	/**
+	 * Standard diagonal (euclidean?) distance calc, using co-ordinates parsed once per graph
+	 * @param vertex
+	 * @return rounded integer of the distance from vertex to the target of the current search
 	 * 
 	 */
 	public Integer hScore(String vertex) {
-		Integer xs = Integer.parseInt(vertex.split(",")[0]);
-		Integer ys = Integer.parseInt(vertex.split(",")[1]);
-		//first time round define the target
-		if(yt ==null ||xt == null) {
-			xt = Integer.parseInt(target.split(",")[0]);
-			yt = Integer.parseInt(target.split(",")[1]);
-		}
-		double h = Math.sqrt((Math.pow(xt-xs, 2) + Math.pow(yt-ys, 2))*Math.pow(WEIGHTING, 2));
+		int v = compiled.idOf(vertex);
+		return diagonal(coordinates().x(v), coordinates().y(v));
+	}
+	
+	/**
+	 * @return diagonal distance from (xs, ys) to the target co-ordinates xt, yt
+	 */
+	private int diagonal(int xs, int ys) {
+		long dx = xt - xs;
+		long dy = yt - ys;
+		double h = Math.sqrt((double) (dx * dx + dy * dy) * weighting * weighting);
 		return (int) Math.round(h);
 	}
 	
@@ -185,19 +253,19 @@ public class AStarSearch implements SearchAlgorithm{
 			System.out.println(String.format("Invalid weight setting for AStarSearch heuristic: %s" ,weight.toString()));
 		}
 		else {
-			WEIGHTING = weight;
+			weighting = weight;
 		}
 		
 	}
 	
 	/**
 	 * Helper method to change priority of a given vertex in the priority queue
+	 * re-inserts the vertex if it has already been popped from the open set
 	 * @param vertex
 	 * @param new score to apply to the VDP
 	 */
 	public void changePriority(String vertex, Integer newScore) {
-		pQ.remove(new VertexDistancePair(vertex,fScore.get(vertex)));
-		pQ.add(new VertexDistancePair(vertex,newScore));
+		getWorkspace().queue().update(compiled.idOf(vertex), newScore);
 	}
 	
 	public List<String> getPathToTarget(){
@@ -0,0 +1,239 @@
+package searchAlgorithms;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import graph.Graph;
+import queues.IndexedDaryHeap;
+
+/**
+ * Bidirectional Dijkstra search for point to point queries.
+ * Runs a forward search from the source over the graph and a backward search from the target over
+ * the reversed graph, always expanding the side whose next vertex is closer. Every edge scanned that
+ * joins the two searches is a candidate path, and the search stops once the two queue minimums sum to at
+ * least the best candidate, since no unexplored path can then be shorter.
+ * On road like graphs each side only covers about half the radius a single search needs.
+ *
+ * Distances always match DijkstraSearch, paths match up to the choice between equally short paths.
+ * searchWholeGraph has no target to meet, so it runs the forward search alone.
+ * Author: Malcolm Watson
+ */
+public class BidirectionalDijkstraSearch implements SearchAlgorithm{
+	/**
+	 * RI:
+	 * 	forwardDist/forwardPred - tentative distance from source and predecessor per vertex id, on the forward graph
+	 * 	backwardDist/backwardNext - tentative distance to target and next vertex on the path to target per vertex id
+	 * 	bestDistance - length of the shortest source-target path found so far, INF if none
+	 * 	meeting - vertex on the best path where the two searches join, NONE if no path found
+	 * 	distances use INF = Integer.MAX_VALUE for unreached and NONE = -1 for no predecessor
+	 * Rep safety:
+	 * 	getDistances()/getPredecessors() return read-only views, the next search allocates new arrays once shared
+	 */
+	private static final int INF = SearchResultMaps.UNREACHED;
+	private static final int NONE = SearchResultMaps.NO_PREDECESSOR;
+
+	private Graph<String> graph;
+	private CompiledGraph forward;
+	private CompiledGraph backward;
+	private IndexedDaryHeap forwardQueue;
+	private IndexedDaryHeap backwardQueue;
+	private int[] forwardDist;
+	private int[] forwardPred;
+	private int[] backwardDist;
+	private int[] backwardNext;
+	private boolean resultShared;
+
+	private long bestDistance;
+	private int meeting;
+	private int settledCount;
+
+	/**
+	 * Creates a search over a snapshot of the graph, call refresh() after changing the graph
+	 * @param graph
+	 */
+	public BidirectionalDijkstraSearch(Graph<String> graph) {
+		this(CompiledGraph.compile(graph));
+		this.graph = graph;
+	}
+
+	/**
+	 * Creates a search over an already compiled graph
+	 * @param compiled
+	 */
+	public BidirectionalDijkstraSearch(CompiledGraph compiled) {
+		setGraph(compiled);
+	}
+
+	/**
+	 * Recompiles the graph snapshot, so that changes made to the graph since construction are searched
+	 */
+	public void refresh() {
+		if(graph != null) {
+			setGraph(CompiledGraph.compile(graph));
+		}
+	}
+
+	private void setGraph(CompiledGraph compiled) {
+		this.forward = compiled;
+		this.backward = compiled.reverse();
+		int vertexCount = compiled.vertexCount();
+		this.forwardQueue = new IndexedDaryHeap(vertexCount);
+		this.backwardQueue = new IndexedDaryHeap(vertexCount);
+		this.forwardDist = new int[vertexCount];
+		this.forwardPred = new int[vertexCount];
+		this.backwardDist = new int[vertexCount];
+		this.backwardNext = new int[vertexCount];
+		this.resultShared = false;
+		initialise();
+	}
+
+	/**
+	 * Resets both searches, reusing the arrays unless the forward results have been handed out
+	 */
+	private void initialise() {
+		if(resultShared) {
+			forwardDist = new int[forward.vertexCount()];
+			forwardPred = new int[forward.vertexCount()];
+			resultShared = false;
+		}
+		Arrays.fill(forwardDist, INF);
+		Arrays.fill(forwardPred, NONE);
+		Arrays.fill(backwardDist, INF);
+		Arrays.fill(backwardNext, NONE);
+		forwardQueue.clear();
+		backwardQueue.clear();
+		bestDistance = INF;
+		meeting = NONE;
+		settledCount = 0;
+	}
+
+	@Override
+	public boolean searchForTarget(String source, String target) {
+		initialise();
+		int s = forward.idOf(source);
+		int t = forward.idOf(target);
+		if(s == CompiledGraph.NOT_FOUND || t == CompiledGraph.NOT_FOUND) {
+			return false;
+		}
+		forwardDist[s] = 0;
+		forwardQueue.insert(s, 0);
+		backwardDist[t] = 0;
+		backwardQueue.insert(t, 0);
+		if(s == t) {
+			bestDistance = 0;
+			meeting = s;
+			return true;
+		}
+		while(!forwardQueue.isEmpty() && !backwardQueue.isEmpty()) {
+			long forwardTop = forwardQueue.peekMinPriority();
+			long backwardTop = backwardQueue.peekMinPriority();
+			if(forwardTop + backwardTop >= bestDistance) {
+				break;	//no path through unsettled vertices can beat the best found
+			}
+			settledCount++;
+			if(forwardTop <= backwardTop) {
+				expand(forward, forwardQueue, forwardDist, forwardPred, backwardDist);
+			}
+			else {
+				expand(backward, backwardQueue, backwardDist, backwardNext, forwardDist);
+			}
+		}
+		return meeting != NONE;
+	}
+
+	/**
+	 * Settles the next vertex of one side and relaxes its edges, recording any path joining the other side
+	 * @param graph - graph of this side, reversed for the backward search
+	 * @param queue - queue of this side
+	 * @param dist - distances of this side
+	 * @param parent - predecessor (forward) or next vertex (backward) of this side
+	 * @param otherDist - distances of the other side
+	 */
+	private void expand(CompiledGraph graph, IndexedDaryHeap queue, int[] dist, int[] parent, int[] otherDist) {
+		int u = queue.pollMin();
+		int uDist = dist[u];
+		for(int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+			int v = graph.edgeTarget(e);
+			int tentDist = uDist + graph.edgeWeight(e);
+			if(tentDist < dist[v]) {
+				dist[v] = tentDist;
+				parent[v] = u;
+				queue.insertOrDecrease(v, tentDist);
+			}
+			if(otherDist[v] != INF && (long) dist[v] + otherDist[v] < bestDistance) {
+				bestDistance = (long) dist[v] + otherDist[v];
+				meeting = v;
+			}
+		}
+	}
+
+	@Override
+	public void searchWholeGraph(String source) {
+		initialise();
+		int s = forward.idOf(source);
+		if(s == CompiledGraph.NOT_FOUND) {
+			return;
+		}
+		forwardDist[s] = 0;
+		forwardQueue.insert(s, 0);
+		while(!forwardQueue.isEmpty()) {
+			settledCount++;
+			expand(forward, forwardQueue, forwardDist, forwardPred, backwardDist);
+		}
+	}
+
+	/**
+	 * Returns the shortest path from source to target
+	 * @return ordered list of vertex labels from source to target, empty if no path is found
+	 */
+	@Override
+	public List<String> findPathToTarget(String source, String target) {
+		List<String> path = new LinkedList<>();
+		if(!searchForTarget(source, target)) {
+			return path;
+		}
+		for(int v = meeting; v != NONE; v = forwardPred[v]) {
+			path.add(0, forward.labelOf(v));
+		}
+		for(int v = backwardNext[meeting]; v != NONE; v = backwardNext[v]) {
+			path.add(forward.labelOf(v));
+		}
+		return path;
+	}
+
+	/**
+	 * Returns total distance to target from source, or 0 if target cannot be reached
+	 */
+	@Override
+	public Integer findDistanceToTarget(String source, String target) {
+		if(searchForTarget(source, target)) {
+			return (int) bestDistance;
+		}
+		return 0;
+	}
+
+	/**
+	 * @return number of vertices settled by both sides of the last search
+	 */
+	public int getSettledCount() {
+		return settledCount;
+	}
+
+	/**
+	 * @return read-only view of the forward search distances from the last search
+	 */
+	public Map<String, Integer> getDistances() {
+		resultShared = true;
+		return SearchResultMaps.distances(forward, forwardDist, false);
+	}
+
+	/**
+	 * @return read-only view of the forward search predecessors from the last search
+	 */
+	public Map<String, String> getPredecessors() {
+		resultShared = true;
+		return SearchResultMaps.predecessors(forward, forwardPred);
+	}
+}
@@ -0,0 +1,240 @@
+package searchAlgorithms;
+
+import java.util.Map;
+
+import graph.Graph;
+
+/**
+ * Immutable compressed sparse row (CSR) snapshot of a Graph<String>, used by the search engines
+ * so that the inner loops work on dense int vertex ids and primitive arrays rather than
+ * per call neighbour maps and String hashing.
+ *
+ * Vertices are numbered [0, vertexCount()), in the iteration order of graph.vertices() at compile time.
+ * The outgoing edges of vertex v are the edge indices [firstEdge(v), endEdge(v)), each with a target id and weight.
+ * Labels are only needed at the API boundary, through idOf and labelOf.
+ *
+ * The snapshot does not follow later changes to the source graph, compile again after changing it.
+ * Instances are threadsafe once compiled.
+ * @author watso
+ */
+public final class CompiledGraph {
+	/**
+	 * RI:
+	 * 	offsets.length == vertexCount + 1, offsets[0] == 0, offsets is non decreasing, offsets[vertexCount] == targets.length
+	 * 	targets.length == weights.length, every target in [0, vertexCount)
+	 * 	symbols holds exactly vertexCount labels
+	 * 	maxWeight == max(weights), or 0 if there are no edges
+	 * AF:
+	 * 	Represents the weighted directed graph with vertex i labelled symbols.labelOf(i) and an edge
+	 * 	i -> targets[e] of weight weights[e] for every e in [offsets[i], offsets[i+1])
+	 * Rep Safety:
+	 * 	All arrays and the symbol table are private, never returned, and never modified after construction
+	 */
+	public static final int NOT_FOUND = VertexIndex.NOT_FOUND;
+
+	private final VertexIndex symbols;
+	private final int[] offsets;
+	private final int[] targets;
+	private final int[] weights;
+	private final int maxWeight;
+	private volatile CompiledGraph reverse;
+
+	private CompiledGraph(VertexIndex symbols, int[] offsets, int[] targets, int[] weights) {
+		this.symbols = symbols;
+		this.offsets = offsets;
+		this.targets = targets;
+		this.weights = weights;
+		int max = 0;
+		for(int weight: weights) {
+			max = Math.max(max, weight);
+		}
+		this.maxWeight = max;
+	}
+
+	/**
+	 * Compiles a snapshot of the graph
+	 * @param graph - graph of String vertices with non negative integer edge weights
+	 * @return CSR snapshot of the graph as it is now
+	 */
+	public static CompiledGraph compile(Graph<String> graph) {
+		VertexIndex symbols = new VertexIndex();
+		for(String vertex: graph.vertices()) {
+			symbols.idOf(vertex);
+		}
+		int vertexCount = symbols.size();
+		int[] offsets = new int[vertexCount + 1];
+		int[][] rowTargets = new int[vertexCount][];
+		int[][] rowWeights = new int[vertexCount][];
+		for(int v = 0; v < vertexCount; v++) {
+			Map<String, Integer> neighbours = graph.targets(symbols.labelOf(v));
+			int[] rowT = new int[neighbours.size()];
+			int[] rowW = new int[neighbours.size()];
+			int i = 0;
+			for(Map.Entry<String, Integer> edge: neighbours.entrySet()) {
+				rowT[i] = symbols.idOf(edge.getKey());
+				rowW[i] = edge.getValue();
+				i++;
+			}
+			rowTargets[v] = rowT;
+			rowWeights[v] = rowW;
+			offsets[v + 1] = offsets[v] + i;
+		}
+		if(symbols.size() != vertexCount) {
+			throw new IllegalArgumentException("Graph has edges to vertices missing from its vertex set");
+		}
+		int[] targets = new int[offsets[vertexCount]];
+		int[] weights = new int[offsets[vertexCount]];
+		for(int v = 0; v < vertexCount; v++) {
+			System.arraycopy(rowTargets[v], 0, targets, offsets[v], rowTargets[v].length);
+			System.arraycopy(rowWeights[v], 0, weights, offsets[v], rowWeights[v].length);
+		}
+		return new CompiledGraph(symbols, offsets, targets, weights);
+	}
+
+	/**
+	 * @return number of vertices in the snapshot
+	 */
+	public int vertexCount() {
+		return offsets.length - 1;
+	}
+
+	/**
+	 * @return number of directed edges in the snapshot
+	 */
+	public int edgeCount() {
+		return targets.length;
+	}
+
+	/**
+	 * @param label
+	 * @return id of the vertex, or NOT_FOUND if the label is not in the snapshot
+	 */
+	public int idOf(String label) {
+		return symbols.find(label);
+	}
+
+	/**
+	 * @param id - vertex id in [0, vertexCount())
+	 * @return label of the vertex
+	 */
+	public String labelOf(int id) {
+		return symbols.labelOf(id);
+	}
+
+	/**
+	 * @param vertex - vertex id
+	 * @return index of the first outgoing edge of the vertex
+	 */
+	public int firstEdge(int vertex) {
+		return offsets[vertex];
+	}
+
+	/**
+	 * @param vertex - vertex id
+	 * @return index one past the last outgoing edge of the vertex
+	 */
+	public int endEdge(int vertex) {
+		return offsets[vertex + 1];
+	}
+
+	/**
+	 * @param edge - edge index
+	 * @return target vertex id of the edge
+	 */
+	public int edgeTarget(int edge) {
+		return targets[edge];
+	}
+
+	/**
+	 * @param edge - edge index
+	 * @return weight of the edge
+	 */
+	public int edgeWeight(int edge) {
+		return weights[edge];
+	}
+
+	/**
+	 * @param from - vertex id
+	 * @param to - vertex id
+	 * @return weight of edge from -> to, NOT_FOUND if there is no such edge
+	 */
+	public int weightOf(int from, int to) {
+		for(int e = offsets[from]; e < offsets[from + 1]; e++) {
+			if(targets[e] == to) {
+				return weights[e];
+			}
+		}
+		return NOT_FOUND;
+	}
+
+	/**
+	 * Builds a snapshot from per vertex rows of edges over the vertex ids of this one, for DynamicGraph
+	 * @param rowTargets - rowTargets[v][i] for i < degrees[v] is the target of the i'th edge of v
+	 * @param rowWeights - weights of the same edges
+	 * @param degrees - number of edges used in each row
+	 * @return snapshot of the rows
+	 */
+	CompiledGraph withRows(int[][] rowTargets, int[][] rowWeights, int[] degrees) {
+		int vertexCount = vertexCount();
+		int[] newOffsets = new int[vertexCount + 1];
+		for(int v = 0; v < vertexCount; v++) {
+			newOffsets[v + 1] = newOffsets[v] + degrees[v];
+		}
+		int[] newTargets = new int[newOffsets[vertexCount]];
+		int[] newWeights = new int[newOffsets[vertexCount]];
+		for(int v = 0; v < vertexCount; v++) {
+			System.arraycopy(rowTargets[v], 0, newTargets, newOffsets[v], degrees[v]);
+			System.arraycopy(rowWeights[v], 0, newWeights, newOffsets[v], degrees[v]);
+		}
+		return new CompiledGraph(symbols, newOffsets, newTargets, newWeights);
+	}
+
+	/**
+	 * @return largest edge weight in the snapshot, 0 if there are no edges
+	 */
+	public int maxWeight() {
+		return maxWeight;
+	}
+
+	/**
+	 * Returns the transpose of this snapshot (every edge u->v becomes v->u), sharing the same vertex ids.
+	 * Built on first call and kept, used by searches that need to walk edges backwards
+	 * @return reversed snapshot
+	 */
+	public CompiledGraph reverse() {
+		CompiledGraph result = reverse;
+		if(result == null) {
+			synchronized(this) {
+				if(reverse == null) {
+					reverse = transpose();
+					reverse.reverse = this;
+				}
+				result = reverse;
+			}
+		}
+		return result;
+	}
+
+	private CompiledGraph transpose() {
+		int vertexCount = vertexCount();
+		int[] reverseOffsets = new int[vertexCount + 1];
+		for(int e = 0; e < targets.length; e++) {
+			reverseOffsets[targets[e] + 1]++;
+		}
+		for(int v = 0; v < vertexCount; v++) {
+			reverseOffsets[v + 1] += reverseOffsets[v];
+		}
+		int[] next = new int[vertexCount];
+		System.arraycopy(reverseOffsets, 0, next, 0, vertexCount);
+		int[] reverseTargets = new int[targets.length];
+		int[] reverseWeights = new int[weights.length];
+		for(int u = 0; u < vertexCount; u++) {
+			for(int e = offsets[u]; e < offsets[u + 1]; e++) {
+				int slot = next[targets[e]]++;
+				reverseTargets[slot] = u;
+				reverseWeights[slot] = weights[e];
+			}
+		}
+		return new CompiledGraph(symbols, reverseOffsets, reverseTargets, reverseWeights);
+	}
+}
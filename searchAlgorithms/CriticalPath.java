@@ -0,0 +1,108 @@
+package searchAlgorithms;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Schedule of a weighted DAG read as a project network: every edge u -> v of weight w means v cannot start
+ * until w after u has started. Holds each vertex's earliest start, latest start and slack, the project length
+ * and the critical path, a longest path through the DAG along which every vertex has zero slack.
+ *
+ * Instances are immutable once constructed, the arrays passed in must not be written afterwards.
+ * @author watso
+ */
+public final class CriticalPath {
+	/**
+	 * RI:
+	 * 	earliest.length == latest.length == predecessors.length == graph.vertexCount()
+	 * 	0 <= earliest[v] <= latest[v] <= length for every v
+	 * 	path is a path of the graph with earliest[v] == latest[v] along it, ending at a vertex with earliest start length
+	 * AF:
+	 * 	Represents the earliest and latest start of every vertex, and the critical path, of the DAG graph
+	 * Rep Safety:
+	 * 	arrays are private and only exposed through read-only map views, path is copied out
+	 */
+	private final CompiledGraph graph;
+	private final int[] earliest;
+	private final int[] latest;
+	private final int[] predecessors;	//vertex giving each its earliest start, NO_PREDECESSOR for a vertex with no predecessors
+	private final int length;
+	private final int end;	//last vertex of the critical path, NO_PREDECESSOR for an empty graph
+
+	/**
+	 * @param graph - DAG the schedule was computed on
+	 * @param earliest - earliest start per vertex id
+	 * @param latest - latest start per vertex id that does not delay the project
+	 * @param predecessors - predecessor per vertex id on a longest path to it
+	 * @param end - vertex with the largest earliest start
+	 */
+	CriticalPath(CompiledGraph graph, int[] earliest, int[] latest, int[] predecessors, int end) {
+		this.graph = graph;
+		this.earliest = earliest;
+		this.latest = latest;
+		this.predecessors = predecessors;
+		this.end = end;
+		this.length = end == SearchResultMaps.NO_PREDECESSOR ? 0 : earliest[end];
+	}
+
+	/**
+	 * @return length of the longest path through the DAG, the project length
+	 */
+	public int length() {
+		return length;
+	}
+
+	/**
+	 * @return labels of the critical path in order, empty for an empty graph
+	 */
+	public List<String> path() {
+		List<String> path = new LinkedList<>();
+		for(int v = end; v != SearchResultMaps.NO_PREDECESSOR; v = predecessors[v]) {
+			path.add(0, graph.labelOf(v));
+		}
+		return path;
+	}
+
+	/**
+	 * @param vertex - vertex id
+	 * @return earliest start of the vertex
+	 */
+	public int earliestStart(int vertex) {
+		return earliest[vertex];
+	}
+
+	/**
+	 * @param vertex - vertex id
+	 * @return latest start of the vertex that does not lengthen the project
+	 */
+	public int latestStart(int vertex) {
+		return latest[vertex];
+	}
+
+	/**
+	 * @param vertex - vertex id
+	 * @return how long the vertex can be delayed without lengthening the project, 0 on the critical path
+	 */
+	public int slack(int vertex) {
+		return latest[vertex] - earliest[vertex];
+	}
+
+	/**
+	 * @return read-only view of the earliest start of every vertex
+	 */
+	public Map<String, Integer> getEarliestStarts() {
+		return SearchResultMaps.distances(graph, earliest, true);
+	}
+
+	/**
+	 * @return read-only view of the latest start of every vertex
+	 */
+	public Map<String, Integer> getLatestStarts() {
+		return SearchResultMaps.distances(graph, latest, true);
+	}
+
+	public CompiledGraph getGraph() {
+		return graph;
+	}
+}
@@ -1,63 +1,121 @@
 package searchAlgorithms;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
+import java.util.Arrays;
 
 import graph.Graph;
 
 
 public class DFSForTopologicalSortedDAGs {
 	
+	private static final int NONE = SearchResultMaps.NO_PREDECESSOR;
+	
 	/**
 	 * Returns the longest distance path from the top of a graph through it
-	 * Graph must be topologically sorted, directed and acyclic (DAG)
 	 * @param graph
-	 * Topological, DAG graph, with no negative weighted edges
+	 * Directed and acyclic (DAG) graph, with no negative weighted edges
 	 * @return
-	 * Integer value of longest path through the graph
+	 * Integer value of longest path through the graph, 0 if it has no edges
+	 * @throws IllegalArgumentException if the graph has a cycle
 	 */
 	public static int longestPath(Graph<String> graph){
-		//uses DFS to find longest path through graph
-		Set<String> visited = new HashSet<>();
-		Map<String, Integer> distance = new HashMap<>();
-		Map<String, List<String>> graphPathes = new HashMap<>();
-		//initialise maps
-		
-		Set<String> verts = graph.vertices();	//DEBUG REMOVE
+		return longestPath(CompiledGraph.compile(graph));
+	}
+	
+	/**
+	 * Longest path over an already compiled graph, in any vertex order
+	 * @param graph
+	 * Directed and acyclic (DAG) graph, with no negative weighted edges
+	 * @return
+	 * Integer value of longest path through the graph, 0 if it has no edges
+	 * @throws IllegalArgumentException if the graph has a cycle
+	 */
+	public static int longestPath(CompiledGraph graph){
+		return criticalPath(graph).length();
+	}
+	
+	/**
+	 * @see #criticalPath(CompiledGraph)
+	 */
+	public static CriticalPath criticalPath(Graph<String> graph){
+		return criticalPath(CompiledGraph.compile(graph));
+	}
+	
+	/**
+	 * Schedules the DAG in O(V+E): Kahn's algorithm gives a topological order, a forward pass over it
+	 * the earliest start of every vertex (the longest path to it) and a backward pass the latest start.
+	 * All state is in primitive arrays indexed by vertex id, the critical path is walked back from the
+	 * vertex that starts last rather than copied along the way
+	 * @param graph
+	 * Directed and acyclic (DAG) graph, with no negative weighted edges
+	 * @return schedule with earliest start, latest start and slack per vertex, and the critical path
+	 * @throws IllegalArgumentException if the graph has a cycle
+	 */
+	public static CriticalPath criticalPath(CompiledGraph graph){
+		int vertexCount = graph.vertexCount();
+		int[] order = topologicalOrder(graph);
 		
-		for(String v: graph.vertices()) {
-			graphPathes.put(v, new ArrayList<String>());
-			distance.put(v, Integer.MIN_VALUE);
+		int[] earliest = new int[vertexCount];
+		int[] predecessors = new int[vertexCount];
+		Arrays.fill(predecessors, NONE);
+		int end = NONE;
+		for(int u: order) {
+			if(end == NONE || earliest[u] > earliest[end]) {
+				end = u;
+			}
+			for(int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+				int v = graph.edgeTarget(e);
+				if(earliest[u] + graph.edgeWeight(e) > earliest[v]) {
+					//new path is longer
+					earliest[v] = earliest[u] + graph.edgeWeight(e);
+					predecessors[v] = u;
+				}
+			}
 		}
 		
-		int maxPathDist = 0;
-		String maxPathVertex = "";
-		for(String v:graph.vertices()) {
-			visited.add(v);
-			graphPathes.get(v).add(v);
-			for(String e: graph.targets(v).keySet()) {
-				//new target = e.getTarget
-				if(distance.get(e) < distance.get(v)+graph.targets(v).get(e)) {
-					//new path is longer
-					distance.put(e,distance.get(v)+graph.targets(v).get(e));
-					graphPathes.put(e, new ArrayList<>(graphPathes.get(v)));
-					if(distance.get(e)>maxPathDist) {
-						maxPathDist = distance.get(e);
-						maxPathVertex = e;
-					}
+		int length = end == NONE ? 0 : earliest[end];
+		int[] latest = new int[vertexCount];
+		for(int i = vertexCount - 1; i >= 0; i--) {
+			int u = order[i];
+			int latestStart = length;	//vertices with no successors can start as late as the project end
+			for(int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+				latestStart = Math.min(latestStart, latest[graph.edgeTarget(e)] - graph.edgeWeight(e));
+			}
+			latest[u] = latestStart;
+		}
+		return new CriticalPath(graph, earliest, latest, predecessors, end);
+	}
+	
+	/**
+	 * Kahn's algorithm: repeatedly takes a vertex with no remaining incoming edges
+	 * @param graph
+	 * @return vertex ids in topological order
+	 * @throws IllegalArgumentException if the graph has a cycle
+	 */
+	public static int[] topologicalOrder(CompiledGraph graph){
+		int vertexCount = graph.vertexCount();
+		int[] inDegree = new int[vertexCount];
+		for(int e = 0; e < graph.edgeCount(); e++) {
+			inDegree[graph.edgeTarget(e)]++;
+		}
+		int[] order = new int[vertexCount];	//doubles as the queue, vertices are appended once their in degree is 0
+		int tail = 0;
+		for(int v = 0; v < vertexCount; v++) {
+			if(inDegree[v] == 0) {
+				order[tail++] = v;
+			}
+		}
+		for(int head = 0; head < tail; head++) {
+			int u = order[head];
+			for(int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+				int v = graph.edgeTarget(e);
+				if(--inDegree[v] == 0) {
+					order[tail++] = v;
 				}
 			}
 		}
-		//
-		List<String> maxPath = graphPathes.get(maxPathVertex);
-		for(String vertex: maxPath) {
-			System.out.println(Integer.toString(distance.get(vertex)));
+		if(tail != vertexCount) {
+			throw new IllegalArgumentException(String.format("Graph has a cycle, %d vertices cannot be ordered", vertexCount - tail));
 		}
-		return Collections.max(distance.values());
+		return order;
 	}
 }
@@ -0,0 +1,372 @@
+package searchAlgorithms;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import graph.Graph;
+
+/**
+ * Parallel single source shortest paths by delta-stepping (Meyer and Sanders).
+ * Tentative distances are grouped into buckets of width delta. The lowest non empty bucket is emptied by
+ * repeatedly relaxing the light edges (weight <= delta) of its vertices in parallel, since those can
+ * put vertices back into the same bucket, after which the heavy edges of every vertex settled in the bucket
+ * are relaxed in parallel once.
+ *
+ * The distance and predecessor of each vertex are packed into one long, (distance << 32 | predecessor),
+ * and lowered with compare and set, so parallel relaxations never lose an update. Packing also breaks
+ * distance ties on the lowest predecessor id, so results do not depend on thread timing.
+ * Distances always match DijkstraSearch, predecessors match up to the choice between equally short paths.
+ *
+ * A small delta does little work per bucket but has many buckets, a large delta approaches Bellman-Ford.
+ * This class is not threadsafe, one search runs at a time over the pool.
+ * @author watso
+ */
+public class DeltaSteppingSearch implements SearchAlgorithm{
+	/**
+	 * RI:
+	 * 	state[v] packs the tentative distance and predecessor of v, UNSET if unreached
+	 * 	buckets.length > graph.maxWeight() / delta + 1, bucket b lives at buckets[b % buckets.length]
+	 * 	a bucket may hold stale or repeated vertices, a vertex belongs to bucket b iff distance / delta == b
+	 * 	distances/predecessors hold the unpacked result of the last search
+	 */
+	private static final int INF = SearchResultMaps.UNREACHED;
+	private static final int NONE = SearchResultMaps.NO_PREDECESSOR;
+	private static final long UNSET = pack(INF, NONE);
+	private static final int SEQUENTIAL_THRESHOLD = 512;	//frontier vertices relaxed by one task
+
+	private Graph<String> source;
+	private CompiledGraph graph;
+	private final ForkJoinPool pool;
+	private int delta;
+	private AtomicLongArray state;
+	private IntList[] buckets;
+	private int[] extracted;	//stamp of the last extraction that took each vertex
+	private int[] settledIn;	//stamp of the last bucket each vertex was settled in
+	private int stamp;
+	private int[] distances;
+	private int[] predecessors;
+
+	/**
+	 * Creates a search over a snapshot of the graph using the common pool and the default delta
+	 * @param graph
+	 */
+	public DeltaSteppingSearch(Graph<String> graph) {
+		this(CompiledGraph.compile(graph), ForkJoinPool.commonPool());
+		this.source = graph;
+	}
+
+	/**
+	 * Creates a search over an already compiled graph with the default delta
+	 * @param compiled
+	 * @param pool - pool the relaxations run on, its parallelism sets the number of threads used
+	 */
+	public DeltaSteppingSearch(CompiledGraph compiled, ForkJoinPool pool) {
+		this.pool = pool;
+		setGraph(compiled);
+		setDelta(defaultDelta(compiled));
+	}
+
+	/**
+	 * Recompiles the graph snapshot, so that changes made to the graph since construction are searched
+	 */
+	public void refresh() {
+		if(source != null) {
+			setGraph(CompiledGraph.compile(source));
+			setDelta(delta);
+		}
+	}
+
+	private void setGraph(CompiledGraph compiled) {
+		this.graph = compiled;
+		int vertexCount = compiled.vertexCount();
+		this.state = new AtomicLongArray(vertexCount);
+		this.extracted = new int[vertexCount];
+		this.settledIn = new int[vertexCount];
+		initialiseEmpty();
+	}
+
+	/**
+	 * The maximum weight divided by the average out degree, so a vertex has about one light edge per bucket width
+	 */
+	private static int defaultDelta(CompiledGraph compiled) {
+		if(compiled.edgeCount() == 0) {
+			return 1;
+		}
+		return Math.max(1, (int) ((long) compiled.maxWeight() * compiled.vertexCount() / compiled.edgeCount()));
+	}
+
+	/**
+	 * Sets the bucket width
+	 * @param delta - > 0
+	 */
+	public void setDelta(int delta) {
+		if(delta <= 0) {
+			throw new IllegalArgumentException("Delta must be positive: " + delta);
+		}
+		this.delta = delta;
+		this.buckets = new IntList[graph.maxWeight() / delta + 2];
+		for(int i = 0; i < buckets.length; i++) {
+			buckets[i] = new IntList();
+		}
+	}
+
+	public int getDelta() {
+		return delta;
+	}
+
+	@Override
+	public void searchWholeGraph(String source) {
+		int s = graph.idOf(source);
+		if(s == CompiledGraph.NOT_FOUND) {
+			initialiseEmpty();
+			return;
+		}
+		run(s, NONE);
+	}
+
+	/**
+	 * Searches from source until the bucket holding target has been emptied.
+	 * Only distances no greater than the target distance are final afterwards
+	 */
+	@Override
+	public boolean searchForTarget(String source, String target) {
+		int s = graph.idOf(source);
+		int t = graph.idOf(target);
+		if(s == CompiledGraph.NOT_FOUND || t == CompiledGraph.NOT_FOUND) {
+			initialiseEmpty();
+			return false;
+		}
+		run(s, t);
+		return distances[t] != INF;
+	}
+
+	/**
+	 * Runs delta-stepping from s, stopping early once t is settled if t is not NONE
+	 */
+	private void run(int s, int t) {
+		for(int v = 0; v < graph.vertexCount(); v++) {
+			state.set(v, UNSET);
+		}
+		for(IntList bucket: buckets) {
+			bucket.size = 0;
+		}
+		Arrays.fill(extracted, 0);
+		Arrays.fill(settledIn, 0);
+		stamp = 0;
+		state.set(s, pack(0, NONE));
+		buckets[0].add(s);
+		long pending = 1;	//entries in all buckets, including stale ones
+		IntList settled = new IntList();
+		for(long current = 0; pending > 0; current++) {
+			IntList bucket = buckets[(int) (current % buckets.length)];
+			if(bucket.size == 0) {
+				continue;
+			}
+			if(t != NONE && distance(state.get(t)) < current * delta) {
+				break;	//target settled in an earlier bucket
+			}
+			int bucketStamp = ++stamp;
+			settled.size = 0;
+			while(bucket.size > 0) {
+				pending -= bucket.size;
+				int[] frontier = extract(bucket, current);
+				for(int v: frontier) {
+					if(settledIn[v] != bucketStamp) {
+						settledIn[v] = bucketStamp;
+						settled.add(v);
+					}
+				}
+				pending += distribute(pool.invoke(new Relax(frontier, 0, frontier.length, true)));
+			}
+			int[] heavy = Arrays.copyOf(settled.values, settled.size);
+			pending += distribute(pool.invoke(new Relax(heavy, 0, heavy.length, false)));
+		}
+		unpack();
+	}
+
+	/**
+	 * Empties the bucket, keeping each vertex that still belongs to bucket index current once
+	 */
+	private int[] extract(IntList bucket, long current) {
+		int extractStamp = ++stamp;
+		int[] frontier = new int[bucket.size];
+		int count = 0;
+		for(int i = 0; i < bucket.size; i++) {
+			int v = bucket.values[i];
+			if(extracted[v] != extractStamp && distance(state.get(v)) / delta == current) {
+				extracted[v] = extractStamp;
+				frontier[count++] = v;
+			}
+		}
+		bucket.size = 0;
+		return Arrays.copyOf(frontier, count);
+	}
+
+	/**
+	 * Adds improved vertices to the buckets of their current distances
+	 * @return number of entries added
+	 */
+	private int distribute(IntList improved) {
+		for(int i = 0; i < improved.size; i++) {
+			int v = improved.values[i];
+			buckets[distance(state.get(v)) / delta % buckets.length].add(v);
+		}
+		return improved.size;
+	}
+
+	/**
+	 * Relaxes the light or heavy edges of a range of frontier vertices, splitting large ranges in half
+	 */
+	private class Relax extends RecursiveTask<IntList> {
+		private static final long serialVersionUID = 1L;
+		private final int[] frontier;
+		private final int from;
+		private final int to;
+		private final boolean light;
+
+		Relax(int[] frontier, int from, int to, boolean light) {
+			this.frontier = frontier;
+			this.from = from;
+			this.to = to;
+			this.light = light;
+		}
+
+		/**
+		 * @return vertices whose distance was lowered
+		 */
+		@Override
+		protected IntList compute() {
+			if(to - from > SEQUENTIAL_THRESHOLD) {
+				int middle = (from + to) >>> 1;
+				Relax right = new Relax(frontier, middle, to, light);
+				right.fork();
+				IntList improved = new Relax(frontier, from, middle, light).compute();
+				improved.addAll(right.join());
+				return improved;
+			}
+			IntList improved = new IntList();
+			for(int i = from; i < to; i++) {
+				int u = frontier[i];
+				long uDist = distance(state.get(u));
+				for(int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+					int weight = graph.edgeWeight(e);
+					if((weight <= delta) == light && lower(graph.edgeTarget(e), uDist + weight, u)) {
+						improved.add(graph.edgeTarget(e));
+					}
+				}
+			}
+			return improved;
+		}
+	}
+
+	/**
+	 * Lowers the packed state of v to (newDist, from) with compare and set
+	 * @return true if the distance of v went down, false if unchanged or only the predecessor tie broke lower
+	 */
+	private boolean lower(int v, long newDist, int from) {
+		long candidate = pack((int) newDist, from);
+		long current = state.get(v);
+		while(candidate < current) {
+			if(state.compareAndSet(v, current, candidate)) {
+				return newDist < distance(current);
+			}
+			current = state.get(v);
+		}
+		return false;
+	}
+
+	private static long pack(int distance, int predecessor) {
+		return ((long) distance << 32) | (predecessor & 0xffffffffL);
+	}
+
+	private static int distance(long packed) {
+		return (int) (packed >>> 32);
+	}
+
+	private void unpack() {
+		int vertexCount = graph.vertexCount();
+		distances = new int[vertexCount];
+		predecessors = new int[vertexCount];
+		for(int v = 0; v < vertexCount; v++) {
+			long packed = state.get(v);
+			distances[v] = distance(packed);
+			predecessors[v] = (int) packed;
+		}
+	}
+
+	private void initialiseEmpty() {
+		distances = new int[graph.vertexCount()];
+		predecessors = new int[graph.vertexCount()];
+		Arrays.fill(distances, INF);
+		Arrays.fill(predecessors, NONE);
+	}
+
+	/**
+	 * Returns the shortest path from source to target
+	 * @return ordered list of vertex labels from source to target, empty if no path is found
+	 */
+	@Override
+	public List<String> findPathToTarget(String source, String target) {
+		List<String> path = new LinkedList<>();
+		if(!searchForTarget(source, target)) {
+			return path;
+		}
+		for(int v = graph.idOf(target); v != NONE; v = predecessors[v]) {
+			path.add(0, graph.labelOf(v));
+		}
+		return path;
+	}
+
+	/**
+	 * Returns total distance to target from source, or 0 if target cannot be reached
+	 */
+	@Override
+	public Integer findDistanceToTarget(String source, String target) {
+		if(searchForTarget(source, target)) {
+			return distances[graph.idOf(target)];
+		}
+		return 0;
+	}
+
+	/**
+	 * @return read-only view of the distances from the last search
+	 */
+	public Map<String, Integer> getDistances() {
+		return SearchResultMaps.distances(graph, distances, false);
+	}
+
+	/**
+	 * @return read-only view of the predecessors from the last search
+	 */
+	public Map<String, String> getPredecessors() {
+		return SearchResultMaps.predecessors(graph, predecessors);
+	}
+
+	/**
+	 * Growable int array, used for buckets and relaxation results
+	 */
+	private static final class IntList {
+		private int[] values = new int[16];
+		private int size;
+
+		void add(int value) {
+			if(size == values.length) {
+				values = Arrays.copyOf(values, size * 2);
+			}
+			values[size++] = value;
+		}
+
+		void addAll(IntList other) {
+			if(size + other.size > values.length) {
+				values = Arrays.copyOf(values, Math.max(size + other.size, size * 2));
+			}
+			System.arraycopy(other.values, 0, values, size, other.size);
+			size += other.size;
+		}
+	}
+}
@@ -2,24 +2,35 @@ package searchAlgorithms;
 
 /**
  * Implementation of Dijkrstra's search algorithm using a minimum priority queue
- * uses nested class VertexDistancePair to contain both vertex label and tentative
- * distance to vertex in single object in queue. 
+ * uses an indexed monotone queue keyed by vertex id as the frontier, so the tentative distance
+ * of a queued vertex can be lowered in place (decrease-key) rather than by a linear remove.
+ * Dial's buckets are used when edge weights are small, a radix heap otherwise.
  * Author: Malcolm Watson
  * Date: 29.01.2019 
  */
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.PriorityQueue;
-import java.util.Set;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.ObjIntConsumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import graph.Graph;	//locally created graph 
-import graph.VertexDistancePair;
+import queues.IndexedDaryHeap;
+import queues.IndexedPriorityQueue;
 
-public class DijkstraSearch implements SearchAlgorithm{
+public class DijkstraSearch implements MultiTargetSearch{
 	
 	/***
 	 *	//TODO Complete java docs
@@ -28,44 +39,290 @@ public class DijkstraSearch implements SearchAlgorithm{
 	 * RI
 	 * 	Vertex labels stored as strings specifically
 	 * 	
-	 * 	distances	 - map of string vertices to integers representing tentative distances from source to the given vertex
+	 * 	distances	 - array indexed by compiled vertex id of tentative distances from source to the given vertex
 	 * 				 - Distance = Integer.MAX_VALUE represent non-existant path
-	 * 	predecessors - map of string to string, key representing vertex labels, value representing predecessor of that vertex
+	 * 				 - in lazy mode getDistances() only has entries for vertices reached by the search
+	 * 	predecessors - array indexed by compiled vertex id, value is the id of the predecessor of that vertex, -1 for none
+	 * 	resultShared - true if views over the current arrays have been handed out, the next search must then use new arrays
+	 * 	treeCache	 - completed trees of recent whole graph searches, null if caching is disabled
+	 * 	treeSource	 - source id if the arrays hold a complete whole graph search of compiled, NONE otherwise
+	 * 	workspace	 - generation stamped state of lazy target searches, so they start in O(1) instead of clearing the arrays
+	 * 	resultInWorkspace - true if the last search result is in workspace rather than the arrays,
+	 * 				   it is copied into the arrays when the distance or predecessor maps are asked for
+	 * 	pQ			 - queue of compiled vertex ids, priority is the tentative distance of that vertex.
+	 * 				   A monotone queue picked from the maximum edge weight, a heap for the mock search object
+	 * 	index		 - label ids for the mock search object only, searches use the compiled graph ids
 	 *  Graph - Graph implementation to be traverssed. Graph must be weighted and acyclic, with no negative edges
+	 *  compiled	 - CSR snapshot of graph taken at construction or last refresh(), which searches run on
+	 *  dynamic		 - edges of compiled with the changes of every applyEdgeChanges since, null before the first
+	 *  snapshotStale - true if compiled lacks changes held by dynamic, it is recompiled by the next search
+	 *  children	 - child lists of the tree in predecessors, kept by repairs, only meaningful if childIndexValid
 	 * 
 	 * Rep safety argument
+	 * 	getDistances() and getPredecessors() return read-only views over the arrays, the arrays are
+	 * 	never written again once shared since the next search allocates fresh ones
 	 */
 	
-	private PriorityQueue<VertexDistancePair> pQ;
-	private Map<String, Integer> distances;
-	private Map<String, String> predecessors;
-	private Set<String> vertices;
+	private IndexedPriorityQueue pQ;
+	private VertexIndex index;
+	private int[] distances;
+	private int[] predecessors;
+	private boolean resultShared;
+	private ShortestPathTreeCache treeCache;
+	private int settledCount;
+	private int treeSource = NONE;
+	private IndexedDaryHeap repairQueue;	//applyEdgeChanges only, its priorities are not monotone from 0
+	private DynamicGraph dynamic;
+	private boolean snapshotStale;
+	private TreeChildIndex children;
+	private boolean childIndexValid;
+	private boolean[] affected;	//applyEdgeChanges only, all false between repairs
+	private int[] affectedList;
+	private int repairWork;
+	private SearchWorkspace workspace;
+	private boolean workspaceShared;	//set through setWorkspace, kept over refresh() and edge changes
+	private boolean resultInWorkspace;
 	private Graph<String> graph;
+	private CompiledGraph compiled;
+	private boolean lazy;
 	
+	private static final int INF = SearchResultMaps.UNREACHED;
+	private static final int NONE = SearchResultMaps.NO_PREDECESSOR;
+	
+	/**
+	 * Creates a search over a snapshot of the graph, call refresh() after changing the graph
+	 * @param graph
+	 */
 	public DijkstraSearch(Graph<String> graph) {
-		this.vertices = graph.vertices();
+		this(CompiledGraph.compile(graph));
 		this.graph = graph;
 	}
 	
 	/**
-	 * Initialise the algorithm by creating the distance map and adding all the 
-	 * vertexDistancePairs to the queue, relative to the requested source
+	 * Creates a search over an already compiled graph
+	 * @param compiled
+	 */
+	public DijkstraSearch(CompiledGraph compiled) {
+		this.compiled = compiled;
+		this.lazy = true;
+		this.pQ = newQueue();
+		resetResult();
+	}
+	
+	/**
+	 * Recompiles the graph snapshot, so that changes made to the graph since construction are searched
+	 */
+	public void refresh() {
+		if(graph != null) {
+			this.compiled = CompiledGraph.compile(graph);
+			this.dynamic = null;
+			this.snapshotStale = false;
+			this.pQ = newQueue();
+			this.distances = null;
+			this.treeSource = NONE;
+			this.repairQueue = null;
+			this.children = null;
+			this.affected = null;
+			this.affectedList = null;
+			dropOwnWorkspace();
+			resetResult();
+			if(treeCache != null) {
+				treeCache.clear();
+			}
+		}
+	}
+	
+	/**
+	 * Shares a workspace with other searches run by the same thread over graphs with the same vertex ids,
+	 * such as AStarSearch over the same snapshot. Lazy target searches run in it, reading their result
+	 * after another search has used the workspace gives that search's result instead.
+	 * @param workspace - workspace of at least compiled vertex count capacity, null to go back to a private one
+	 */
+	public void setWorkspace(SearchWorkspace workspace) {
+		if(workspace != null && workspace.capacity() < compiled.vertexCount()) {
+			throw new IllegalArgumentException("Workspace is smaller than the graph: " + workspace.capacity());
+		}
+		materialiseWorkspace();
+		this.workspace = workspace;
+		this.workspaceShared = workspace != null;
+	}
+
+	/**
+	 * @return workspace of lazy target searches, created on first use unless one has been shared in
+	 */
+	public SearchWorkspace getWorkspace() {
+		if(workspace == null || workspace.capacity() < compiled.vertexCount()) {
+			workspace = new SearchWorkspace(compiled.vertexCount(), newQueue());
+			workspaceShared = false;
+		}
+		return workspace;
+	}
+
+	/**
+	 * Drops a private workspace whose queue may no longer suit the compiled snapshot, e.g. a larger maximum weight
+	 */
+	private void dropOwnWorkspace() {
+		resultInWorkspace = false;
+		if(!workspaceShared) {
+			workspace = null;
+		}
+	}
+
+	/**
+	 * Copies the result of the last workspace search into the arrays, once its full maps are asked for
+	 */
+	private void materialiseWorkspace() {
+		if(!resultInWorkspace) {
+			return;
+		}
+		resetResult();
+		for(int vertex = 0; vertex < compiled.vertexCount(); vertex++) {
+			if(workspace.isReached(vertex)) {
+				distances[vertex] = workspace.distance(vertex);
+				predecessors[vertex] = workspace.predecessor(vertex);
+			}
+		}
+	}
+
+	/**
+	 * Resets the workspace before a search that does not use it, so a settledOrder iteration still open ends
+	 */
+	private void endWorkspaceSearch() {
+		if(workspace != null) {
+			workspace.reset();
+		}
+	}
+
+	/**
+	 * Recompiles the snapshot from the changed edges if applyEdgeChanges has run since it was compiled,
+	 * once per batch of changes and only when a search other than a repair needs it
+	 */
+	private void syncSnapshot() {
+		if(snapshotStale) {
+			compiled = dynamic.compile();
+			snapshotStale = false;
+		}
+	}
+
+	private int distanceOf(int vertex) {
+		return resultInWorkspace ? workspace.distance(vertex) : distances[vertex];
+	}
+
+	private int predecessorOf(int vertex) {
+		return resultInWorkspace ? workspace.predecessor(vertex) : predecessors[vertex];
+	}
+
+	/**
+	 * Enables caching of completed shortest path trees for findPathToTarget and findDistanceToTarget.
+	 * With caching on, a query from an uncached source runs a whole graph search and keeps the tree,
+	 * so later queries from that source are a tree walk. Suited to many queries from few sources.
+	 * @param capacity - number of trees kept (least recently used evicted), 0 disables caching
+	 */
+	public void setTreeCacheCapacity(int capacity) {
+		this.treeCache = capacity > 0 ? new ShortestPathTreeCache(capacity) : null;
+	}
+	
+	/**
+	 * @return the tree cache, for its hit and miss counts, or null if caching is disabled
+	 */
+	public ShortestPathTreeCache getTreeCache() {
+		return treeCache;
+	}
+	
+	/**
+	 * Returns the cached tree for the source, running and caching a whole graph search on a miss
+	 * @param source
+	 * @return tree, or null if caching is disabled or the source is not in the graph
 	 */
-	private void initialise(String source) {
-		this.vertices = new HashSet<>(graph.vertices());
-		this.pQ = new PriorityQueue<>();
-		this.distances = new HashMap<>();
-		this.predecessors = new HashMap<>();
-		distances.put(source,0);
-		pQ.add(new VertexDistancePair(source, 0));
-		for(String vertex:vertices) {
-			if(!vertex.equals(source)) {
-				distances.put(vertex, Integer.MAX_VALUE);
-				pQ.add(new VertexDistancePair(vertex,distances.get(vertex)));
+	private ShortestPathTree cachedTree(String source) {
+		syncSnapshot();
+		int s = compiled.idOf(source);
+		if(treeCache == null || s == CompiledGraph.NOT_FOUND) {
+			return null;
+		}
+		ShortestPathTree tree = treeCache.get(compiled, s);
+		if(tree == null) {
+			sweep(s);
+			tree = cacheCurrentTree(s);
+		}
+		return tree;
+	}
+	
+	/**
+	 * Adds the completed tree held in the arrays to the cache, handing over the arrays rather than copying
+	 * @param source - source id of the sweep that filled the arrays
+	 * @return the cached tree
+	 */
+	private ShortestPathTree cacheCurrentTree(int source) {
+		ShortestPathTree tree = new ShortestPathTree(compiled, source, distances, predecessors);
+		treeCache.put(tree);
+		resultShared = true;
+		return tree;
+	}
+	
+	/**
+	 * Initialise the algorithm by resetting the distance arrays and adding the source to the queue.
+	 * In eager mode every other vertex is also queued at distance Integer.MAX_VALUE,
+	 * in lazy mode vertices are only added to the queue when first reached,
+	 * so the heap work of a search scales with the explored region rather than the graph size
+	 */
+	private void initialise(int source) {
+		endWorkspaceSearch();
+		resetResult();
+		treeSource = NONE;
+		settledCount = 0;
+		distances[source] = 0;
+		pQ.insert(source, 0);
+		if(!lazy) {
+			for(int vertex = 0; vertex < compiled.vertexCount(); vertex++) {
+				if(vertex != source) {
+					pQ.insert(vertex, INF);
+				}
 			}
 		}
 	}
 	
+	/**
+	 * Clears the queue and sets every distance to INF and predecessor to NONE.
+	 * Arrays are reused unless views over them have been handed out
+	 */
+	private void resetResult() {
+		pQ.clear();
+		resultInWorkspace = false;
+		childIndexValid = false;
+		int vertexCount = compiled.vertexCount();
+		if(distances == null || resultShared || distances.length != vertexCount) {
+			distances = new int[vertexCount];
+			predecessors = new int[vertexCount];
+			resultShared = false;
+		}
+		Arrays.fill(distances, INF);
+		Arrays.fill(predecessors, NONE);
+	}
+	
+	/**
+	 * Selects lazy (default) or eager initialisation of the distance map and queue.
+	 * Eager mode keeps an Integer.MAX_VALUE entry in getDistances() for unreachable vertices
+	 * @param lazy
+	 */
+	public void setLazyInitialisation(boolean lazy) {
+		this.lazy = lazy;
+		if(compiled != null) {
+			this.pQ = newQueue();
+		}
+	}
+	
+	/**
+	 * Dijkstra only ever queues distances at most the maximum edge weight above the last settled distance,
+	 * so Dial's buckets suit small weights. Eager mode also queues Integer.MAX_VALUE placeholders,
+	 * which need the unbounded radix heap
+	 * @return monotone queue for the compiled graph and initialisation mode
+	 */
+	private IndexedPriorityQueue newQueue() {
+		int maxWeight = dynamic != null ? dynamic.maxWeight() : compiled.maxWeight();
+		return IndexedPriorityQueue.monotone(compiled.vertexCount(), lazy ? maxWeight : Long.MAX_VALUE);
+	}
+	
 	/**
 	 * Returns a sorted set of vertices representing path from source to target
 	 * @param source: String, vertex source
@@ -74,16 +331,17 @@ public class DijkstraSearch implements SearchAlgorithm{
 	 */
 	@Override
 	public List<String> findPathToTarget(String source, String target){
-		//TODO memoization of search results to improve efficiency
+		ShortestPathTree tree = cachedTree(source);
+		if(tree != null) {
+			int t = compiled.idOf(target);
+			return t == CompiledGraph.NOT_FOUND ? new LinkedList<String>() : tree.pathTo(t);
+		}
 		if(searchForTarget(source,target)) {
 			List<String> path = new LinkedList<>();
-			path.add(0,target);
-			String tempVertex = target;
 			
-			//loop through entire path
-			while (tempVertex!=source){
-				path.add(0,predecessors.get(tempVertex));
-				tempVertex = predecessors.get(target);
+			//loop through entire path, back from the target
+			for(int vertex = compiled.idOf(target); vertex != NONE; vertex = predecessorOf(vertex)) {
+				path.add(0,compiled.labelOf(vertex));
 			}
 			return path;
 		}
@@ -99,8 +357,13 @@ public class DijkstraSearch implements SearchAlgorithm{
 	 * @return Integer: distance to target
 	 */
 	public Integer findDistanceToTarget(String source, String target) {
+		ShortestPathTree tree = cachedTree(source);
+		if(tree != null) {
+			int t = compiled.idOf(target);
+			return t == CompiledGraph.NOT_FOUND || !tree.isReachable(t) ? 0 : tree.distance(t);
+		}
 		if(searchForTarget(source,target)) {
-			return distances.get(target);
+			return distanceOf(compiled.idOf(target));
 		}
 		else return 0;
 	}
@@ -113,75 +376,533 @@ public class DijkstraSearch implements SearchAlgorithm{
 	 * Returns true if destination found, else false
 	 */
 	public boolean searchForTarget(String source, String target) {
-		initialise(source);
+		syncSnapshot();
+		int s = compiled.idOf(source);
+		int t = compiled.idOf(target);
+		if(s == CompiledGraph.NOT_FOUND || t == CompiledGraph.NOT_FOUND) {
+			initialiseEmpty();
+			return false;
+		}
+		if(lazy) {
+			return searchInWorkspace(s, t);
+		}
+		initialise(s);
 		while(!pQ.isEmpty()) {
-			String u = pQ.remove().vertex;	//get next highest vertex
-			vertices.remove(u);	//remove from vertex set -> this is probably not necessary, since queue is a set too
+			long uDist = pQ.peekMinPriority();
+			int u = pQ.pollMin();	//get next highest vertex, its distance is now final
+			settledCount++;
 
-			if(distances.get(u) == Integer.MAX_VALUE) {
+			if(uDist == Integer.MAX_VALUE) {
 				break;	//next highest priority vertex has no path to destination
 			}
 			
-			if(u.equals(target)) {
+			if(u == t) {
 				//have found destination, algorithm over, store result and return
 				//find the closest of neighbours -> already done since closest unvisited is always checked first
 				return true;
 			}
-			
-			Map<String, Integer> neighbours = graph.targets(u);
-			for(String v: neighbours.keySet()) {
-				if(vertices.contains(v)) {	//iff vertex is not yet visited
-					int tentDist = distances.get(u)+ neighbours.get(v);//calculat new path distancev
-					if(tentDist<distances.get(v)) {
-						changePriority(v,tentDist);
-						distances.put(v, tentDist); //new distance for that node is the tentative distance
-						predecessors.put(v,u);
+			relaxEdges(u, (int) uDist);
+		}
+		return false;
+	}
+	
+	/**
+	 * Lazy target search in the workspace, which only touches the vertices it reaches
+	 * @return true if the target is reached
+	 */
+	private boolean searchInWorkspace(int s, int t) {
+		SearchWorkspace w = getWorkspace();
+		w.reset();
+		resultInWorkspace = true;
+		treeSource = NONE;
+		settledCount = 0;
+		w.lower(s, 0);
+		while(!w.queue().isEmpty()) {
+			int u = w.queue().pollMin();	//its distance is now final
+			settledCount++;
+			if(u == t) {
+				return true;
+			}
+			int uDist = w.distance(u);
+			for(int e = compiled.firstEdge(u); e < compiled.endEdge(u); e++) {
+				int v = compiled.edgeTarget(e);
+				int tentDist = uDist + compiled.edgeWeight(e);
+				w.lower(v, tentDist, u, tentDist);
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * One search from the source in the workspace, stopping once k of the targets are settled.
+	 * Targets are looked up by binary search over their sorted ids, so the query allocates nothing graph sized
+	 */
+	@Override
+	public List<NearestTarget> findNearestTargets(String source, Collection<String> targets, int k, boolean withPaths) {
+		if(k <= 0) {
+			throw new IllegalArgumentException("Number of nearest targets must be positive: " + k);
+		}
+		List<NearestTarget> nearest = new ArrayList<>();
+		syncSnapshot();
+		int s = compiled.idOf(source);
+		if(s == CompiledGraph.NOT_FOUND) {
+			initialiseEmpty();
+			return nearest;
+		}
+		int[] targetIds = new int[targets.size()];
+		int targetCount = 0;
+		for(String target: targets) {
+			int t = compiled.idOf(target);
+			if(t != CompiledGraph.NOT_FOUND) {
+				targetIds[targetCount++] = t;
+			}
+		}
+		Arrays.sort(targetIds, 0, targetCount);
+
+		SearchWorkspace w = getWorkspace();
+		w.reset();
+		resultInWorkspace = true;
+		treeSource = NONE;
+		settledCount = 0;
+		w.lower(s, 0);
+		while(!w.queue().isEmpty()) {
+			int u = w.queue().pollMin();	//its distance is now final
+			settledCount++;
+			int uDist = w.distance(u);
+			if(Arrays.binarySearch(targetIds, 0, targetCount, u) >= 0) {
+				List<String> path = new LinkedList<>();
+				if(withPaths) {
+					for(int vertex = u; vertex != NONE; vertex = w.predecessor(vertex)) {
+						path.add(0, compiled.labelOf(vertex));
 					}
 				}
+				nearest.add(new NearestTarget(compiled.labelOf(u), uDist, path));
+				if(nearest.size() == k) {
+					break;
+				}
+			}
+			for(int e = compiled.firstEdge(u); e < compiled.endEdge(u); e++) {
+				int v = compiled.edgeTarget(e);
+				int tentDist = uDist + compiled.edgeWeight(e);
+				w.lower(v, tentDist, u, tentDist);
+			}
+		}
+		return nearest;
+	}
+
+	/**
+	 * Finds every vertex within the radius of the source (an isochrone), searching no further than the radius
+	 * @param source
+	 * @param radius - largest distance included, >= 0
+	 * @return distance of every vertex within the radius, in order of distance, empty if the source is not in the graph
+	 */
+	public Map<String, Integer> searchWithinRadius(String source, int radius) {
+		Map<String, Integer> within = new LinkedHashMap<>();
+		searchWithinRadius(source, radius, (vertex, distance) -> within.put(vertex, distance));
+		return within;
+	}
+
+	/**
+	 * Streams every vertex within the radius of the source to the visitor as it is settled, in order of distance.
+	 * The search runs in the workspace and never queues a vertex beyond the radius,
+	 * so its cost grows with the area covered rather than the graph. getDistances() afterwards holds the same vertices
+	 * @param source
+	 * @param radius - largest distance included, >= 0
+	 * @param visitor - called with each vertex label and its final distance
+	 * @return number of vertices visited
+	 */
+	public int searchWithinRadius(String source, int radius, ObjIntConsumer<String> visitor) {
+		if(radius < 0) {
+			throw new IllegalArgumentException("Negative search radius: " + radius);
+		}
+		syncSnapshot();
+		int s = compiled.idOf(source);
+		if(s == CompiledGraph.NOT_FOUND) {
+			initialiseEmpty();
+			return 0;
+		}
+		SearchWorkspace w = getWorkspace();
+		w.reset();
+		resultInWorkspace = true;
+		treeSource = NONE;
+		settledCount = 0;
+		w.lower(s, 0);
+		while(!w.queue().isEmpty()) {
+			int u = w.queue().pollMin();	//its distance is now final
+			settledCount++;
+			int uDist = w.distance(u);
+			visitor.accept(compiled.labelOf(u), uDist);
+			for(int e = compiled.firstEdge(u); e < compiled.endEdge(u); e++) {
+				long tentDist = (long) uDist + compiled.edgeWeight(e);
+				if(tentDist <= radius) {	//the frontier stops at the radius
+					w.lower(compiled.edgeTarget(e), (int) tentDist, u, tentDist);
+				}
 			}
+		}
+		return settledCount;
+	}
 
+	/**
+	 * Whole graph search from the source that runs only as far as it is pulled: each next() settles one more vertex,
+	 * in order of distance, so a consumer that stops early never pays for the rest of the graph.
+	 * The search runs in the workspace, and getDistances() reflects the vertices reached so far.
+	 * Starting any other search of this object, or of another sharing its workspace, ends the iteration
+	 * @param source
+	 * @return settled vertices in nondecreasing distance order, empty if the source is not in the graph
+	 * @throws ConcurrentModificationException from next() if another search has reused the workspace
+	 */
+	public Iterator<SettledVertex> settledOrder(String source) {
+		syncSnapshot();
+		int s = compiled.idOf(source);
+		if(s == CompiledGraph.NOT_FOUND) {
+			initialiseEmpty();
+			return new ArrayList<SettledVertex>().iterator();
 		}
-		return false;
+		SearchWorkspace w = getWorkspace();
+		w.reset();
+		resultInWorkspace = true;
+		treeSource = NONE;
+		settledCount = 0;
+		w.lower(s, 0);
+		return new SettledIterator(compiled, w);
 	}
-	
+
+	/**
+	 * @param source
+	 * @return settledOrder(source) as a sequential ordered stream
+	 */
+	public Stream<SettledVertex> streamSettled(String source) {
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(settledOrder(source),
+				Spliterator.ORDERED | Spliterator.NONNULL), false);
+	}
+
+	/**
+	 * Pulls a Dijkstra search forward one settled vertex per next()
+	 */
+	private class SettledIterator implements Iterator<SettledVertex> {
+		private final CompiledGraph graph;	//snapshot searched, kept if the search is refreshed meanwhile
+		private final SearchWorkspace w;
+		private final int generation;
+
+		SettledIterator(CompiledGraph graph, SearchWorkspace w) {
+			this.graph = graph;
+			this.w = w;
+			this.generation = w.getGeneration();
+		}
+
+		@Override
+		public boolean hasNext() {
+			checkGeneration();
+			return !w.queue().isEmpty();
+		}
+
+		@Override
+		public SettledVertex next() {
+			if(!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			int u = w.queue().pollMin();	//its distance is now final
+			settledCount++;
+			int uDist = w.distance(u);
+			for(int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+				int tentDist = uDist + graph.edgeWeight(e);
+				w.lower(graph.edgeTarget(e), tentDist, u, tentDist);
+			}
+			int p = w.predecessor(u);
+			return new SettledVertex(graph.labelOf(u), uDist, p == NONE ? null : graph.labelOf(p));
+		}
+
+		private void checkGeneration() {
+			if(w.getGeneration() != generation) {
+				throw new ConcurrentModificationException("Another search has reused the workspace");
+			}
+		}
+	}
+
 	/**
 	 * Main loop of algorithm, finds shortest distances from destination to each node
 	 * @return True if all nodes can be found found from source, false otherwise
 	 */
 	public void searchWholeGraph(String source) {
-		initialise(source);
+		syncSnapshot();
+		int s = compiled.idOf(source);
+		if(s == CompiledGraph.NOT_FOUND) {
+			initialiseEmpty();
+			return;
+		}
+		sweep(s);
+		if(treeCache != null) {
+			cacheCurrentTree(s);
+		}
+	}
+
+	/**
+	 * Searches the whole graph from the source and returns the result as a tree, served from the cache if enabled
+	 * @param source
+	 * @return shortest path tree of the source, null if the source is not in the graph
+	 */
+	public ShortestPathTree searchTree(String source) {
+		syncSnapshot();
+		int s = compiled.idOf(source);
+		if(s == CompiledGraph.NOT_FOUND) {
+			return null;
+		}
+		if(treeCache != null) {
+			return cachedTree(source);
+		}
+		sweep(s);
+		resultShared = true;
+		return new ShortestPathTree(compiled, s, distances, predecessors);
+	}
+
+	/**
+	 * Runs the search from the source until every reachable vertex is settled
+	 * @param s - source id
+	 */
+	private void sweep(int s) {
+		initialise(s);
 		while(!pQ.isEmpty()) {
-			String u = pQ.remove().vertex;	//get next highest vertex
-			vertices.remove(u);	//remove from vertex set -> this is probably not necessary, since queue is a set too
-			
-			Map<String, Integer> neighbours = graph.targets(u);
-			for(String v: neighbours.keySet()) {
-				if(vertices.contains(v)) {	//iff vertex is not yet visited
-					int tentDist = distances.get(u)+ neighbours.get(v);//calculat new path distancev
-					if(tentDist<distances.get(v)) {
-						changePriority(v,tentDist);
-						distances.put(v, tentDist); //new distance for that node is the tentative distance
-						predecessors.put(v,u);
+			long uDist = pQ.peekMinPriority();
+			int u = pQ.pollMin();	//get next highest vertex
+			settledCount++;
+			if(uDist == Integer.MAX_VALUE) {
+				break;	//remaining vertices are unreachable
+			}
+			relaxEdges(u, (int) uDist);
+		}
+		treeSource = s;
+	}
+
+	/**
+	 * Applies a batch of edge changes to the searched snapshot and, if the last search was a whole graph search,
+	 * repairs its distances in place rather than searching again (Ramalingam and Reps).
+	 * Vertices below an edge of the shortest path tree that got heavier or was removed lose their distance,
+	 * and take the best distance offered by an edge from outside that subtree. Together with the targets of edges
+	 * that got lighter or were inserted, they are then settled by a Dijkstra that only spreads while it improves
+	 * distances, so the work is in proportion to the part of the tree that changed.
+	 *
+	 * The changes patch an adjacency kept in both directions, with the tree's child lists, so a batch costs
+	 * the changed edges and the affected subtree rather than the graph. Only the first repair after a whole graph
+	 * search indexes the tree's children, and repairs after the result maps were handed out copy the arrays first.
+	 * The snapshot is recompiled from the patched edges by the next search that is not a repair.
+	 * The changes are made to the searched edges only, make the same changes to the graph so refresh() agrees.
+	 * getSettledCount() afterwards returns the vertices settled by the repair
+	 * @param changes - changes between vertices already in the graph, applied in order
+	 * @return number of vertices whose distance changed, 0 if there was no whole graph search to repair
+	 * @throws IllegalArgumentException if a change names a vertex missing from the snapshot
+	 */
+	public int applyEdgeChanges(List<EdgeChange> changes) {
+		int[] from = new int[changes.size()];
+		int[] to = new int[changes.size()];
+		for(int i = 0; i < changes.size(); i++) {
+			from[i] = compiled.idOf(changes.get(i).from);
+			to[i] = compiled.idOf(changes.get(i).to);
+			if(from[i] == CompiledGraph.NOT_FOUND || to[i] == CompiledGraph.NOT_FOUND) {
+				throw new IllegalArgumentException("Edge change between vertices missing from the snapshot: " + changes.get(i));
+			}
+		}
+		if(dynamic == null) {
+			dynamic = new DynamicGraph(compiled);
+		}
+		int maxWeight = dynamic.maxWeight();
+		boolean[] lengthens = new boolean[changes.size()];
+		for(int i = 0; i < changes.size(); i++) {
+			lengthens[i] = heavier(dynamic.set(from[i], to[i], changes.get(i).weight), dynamic.weightOf(from[i], to[i]));
+		}
+		repairWork = changes.size();
+		snapshotStale = true;
+		if(dynamic.maxWeight() > maxWeight) {
+			pQ = newQueue();	//the monotone queues only hold steps up to the weight they were built for
+			dropOwnWorkspace();
+		}
+		if(treeCache != null) {
+			treeCache.clear();
+		}
+		settledCount = 0;
+		if(treeSource == NONE) {
+			if(resultInWorkspace) {
+				endWorkspaceSearch();	//an empty workspace result, without touching the arrays
+			}
+			else {
+				resetResult();
+			}
+			return 0;
+		}
+		if(resultShared) {
+			distances = Arrays.copyOf(distances, distances.length);
+			predecessors = Arrays.copyOf(predecessors, predecessors.length);
+			resultShared = false;
+		}
+		int vertexCount = dynamic.vertexCount();
+		if(children == null || children.capacity() != vertexCount) {
+			children = new TreeChildIndex(vertexCount);
+			affected = new boolean[vertexCount];
+			affectedList = new int[vertexCount];
+			repairQueue = new IndexedDaryHeap(vertexCount);
+		}
+		if(!childIndexValid) {
+			children.rebuild(predecessors);
+			childIndexValid = true;
+			repairWork += vertexCount;
+		}
+		Map<Integer, Integer> previous = new HashMap<>();	//distance before the repair of every vertex it touched
+
+		//vertices whose tree path used an edge that got heavier or was removed
+		int affectedCount = 0;
+		for(int i = 0; i < changes.size(); i++) {
+			int v = to[i];
+			if(lengthens[i] && predecessors[v] == from[i] && !affected[v]) {
+				int stackStart = affectedCount;
+				affected[v] = true;
+				affectedList[affectedCount++] = v;
+				for(int j = stackStart; j < affectedCount; j++) {
+					for(int c = children.firstChild(affectedList[j]); c != NONE; c = children.nextSibling(c)) {
+						repairWork++;
+						if(!affected[c]) {
+							affected[c] = true;
+							affectedList[affectedCount++] = c;
+						}
 					}
 				}
 			}
 		}
+		for(int i = 0; i < affectedCount; i++) {
+			int v = affectedList[i];
+			previous.put(v, distances[v]);
+			distances[v] = INF;
+			setPredecessor(v, NONE);
+		}
+
+		repairQueue.clear();
+		for(int i = 0; i < affectedCount; i++) {
+			int v = affectedList[i];
+			for(int j = 0; j < dynamic.inDegree(v); j++) {
+				int u = dynamic.inSource(v, j);
+				int weight = dynamic.inWeight(v, j);
+				repairWork++;
+				if(!affected[u] && distances[u] != INF && distances[u] + weight < distances[v]) {
+					distances[v] = distances[u] + weight;
+					setPredecessor(v, u);
+				}
+			}
+			if(distances[v] != INF) {
+				repairQueue.insertOrDecrease(v, distances[v]);
+			}
+		}
+		for(int i = 0; i < affectedCount; i++) {
+			affected[affectedList[i]] = false;
+		}
+		for(int i = 0; i < changes.size(); i++) {
+			int u = from[i];
+			int v = to[i];
+			int weight = dynamic.weightOf(u, v);
+			if(weight != CompiledGraph.NOT_FOUND && distances[u] != INF && distances[u] + weight < distances[v]) {
+				previous.putIfAbsent(v, distances[v]);
+				distances[v] = distances[u] + weight;
+				setPredecessor(v, u);
+				repairQueue.insertOrDecrease(v, distances[v]);
+			}
+		}
+
+		while(!repairQueue.isEmpty()) {
+			int u = repairQueue.pollMin();
+			settledCount++;
+			for(int j = 0; j < dynamic.outDegree(u); j++) {
+				int v = dynamic.outTarget(u, j);
+				int tentDist = distances[u] + dynamic.outWeight(u, j);
+				repairWork++;
+				if(tentDist < distances[v]) {
+					previous.putIfAbsent(v, distances[v]);
+					distances[v] = tentDist;
+					setPredecessor(v, u);
+					repairQueue.insertOrDecrease(v, tentDist);
+				}
+			}
+		}
+		int changed = 0;
+		for(Map.Entry<Integer, Integer> entry: previous.entrySet()) {
+			if(distances[entry.getKey()] != entry.getValue()) {
+				changed++;
+			}
+		}
+		return changed;
+	}
+
+	/**
+	 * Moves a vertex to another parent in the repaired tree, keeping the child lists in step
+	 * @param predecessor - new parent, NONE to detach the vertex
+	 */
+	private void setPredecessor(int vertex, int predecessor) {
+		if(predecessors[vertex] != NONE) {
+			children.unlink(vertex, predecessors[vertex]);
+		}
+		predecessors[vertex] = predecessor;
+		if(predecessor != NONE) {
+			children.link(vertex, predecessor);
+		}
+	}
+
+	/**
+	 * @return number of changes, tree links and edges the last applyEdgeChanges examined, plus the vertex count
+	 * if it had to index the tree's children
+	 */
+	public int getRepairWork() {
+		return repairWork;
+	}
+
+	/**
+	 * @return true if an edge change from oldWeight to newWeight (NOT_FOUND for no edge) can lengthen paths
+	 */
+	private static boolean heavier(int oldWeight, int newWeight) {
+		return oldWeight != CompiledGraph.NOT_FOUND && (newWeight == CompiledGraph.NOT_FOUND || newWeight > oldWeight);
+	}
+	
+	/**
+	 * Relaxes the outgoing edges of a settled vertex.
+	 * A settled vertex can never be improved with non negative weights, so no visited check is needed
+	 * @param u - settled vertex id
+	 * @param uDist - final distance of u
+	 */
+	private void relaxEdges(int u, int uDist) {
+		for(int e = compiled.firstEdge(u); e < compiled.endEdge(u); e++) {
+			int v = compiled.edgeTarget(e);
+			int tentDist = uDist + compiled.edgeWeight(e);//calculat new path distancev
+			if(tentDist<distances[v]) {
+				pQ.insertOrDecrease(v, tentDist);
+				distances[v] = tentDist; //new distance for that node is the tentative distance
+				predecessors[v] = u;
+			}
+		}
+	}
+	
+	/**
+	 * Resets the search result when the source or target is not in the graph
+	 */
+	private void initialiseEmpty() {
+		endWorkspaceSearch();
+		resetResult();
+		treeSource = NONE;
 	}
 	
 	/**
 	 * getter for predecessors map
-	 * @return
+	 * @return read-only view of the predecessors from the last search, unaffected by later searches
 	 */
 	public Map<String,String> getPredecessors(){
-		return new HashMap<>(predecessors);
+		materialiseWorkspace();
+		resultShared = true;
+		return SearchResultMaps.predecessors(compiled, predecessors);
 	}
 	
 	/**
 	 * Getter for distance map
-	 * @return
+	 * @return read-only view of the distances from the last search, unaffected by later searches.
+	 * In lazy mode only the vertices it reached, in eager mode unreached vertices map to Integer.MAX_VALUE
 	 */
 	public Map<String,Integer> getDistances(){
-		return new HashMap<>(distances);
+		materialiseWorkspace();
+		resultShared = true;
+		return SearchResultMaps.distances(compiled, distances, !lazy);
 	}
 	
 	
@@ -190,14 +911,20 @@ public class DijkstraSearch implements SearchAlgorithm{
 	
 
 	/**
-	 * Helper method to change priority of a given vertex in the priority queue
+	 * @return number of vertices settled (popped from the queue) by the last search
+	 */
+	public int getSettledCount() {
+		return settledCount;
+	}
+	
+	/**
+	 * Helper method to change priority of a given vertex in the priority queue of the mock search object
+	 * O(log n) through the heap position index, inserts the vertex if not queued
 	 * @param vertex
 	 * @param newDistance
 	 */
 	public void changePriority(String vertex, Integer newDistance) {
-		pQ.remove(new VertexDistancePair(vertex,distances.get(vertex)));
-		pQ.add(new VertexDistancePair(vertex,newDistance));
-		distances.put(vertex, newDistance);
+		pQ.update(index.idOf(vertex), newDistance);
 	}
 	
 
@@ -210,14 +937,7 @@ public class DijkstraSearch implements SearchAlgorithm{
 	 * @param distance
 	 */
 	public void addVPToQueue(String vertex, Integer distance) {
-		if(!vertices.contains(vertex)) {
-			vertices.add(vertex);
-			distances.put(vertex,distance);
-		}
-		pQ.add(new VertexDistancePair(vertex, distance));
-		//TODO 1. change distances to be map of vertex label to VDP,
-		//2. change (if vertex is in unvisited vertex set) to (if VDP mapped from distance is in Q)
-		//3. vertex set now obsolete, replaced with hashmap
+		pQ.update(index.idOf(vertex), distance);
 	}
 	
 	/**
@@ -226,7 +946,7 @@ public class DijkstraSearch implements SearchAlgorithm{
 	 * Vertex string label
 	 */
 	public String nextVertexFromQueue() {
-		return pQ.remove().vertex;
+		return index.labelOf(pQ.pollMin());
 	}
 	
 	/**
@@ -234,7 +954,7 @@ public class DijkstraSearch implements SearchAlgorithm{
 	 * @return
 	 */
 	public String peekNextVertexFromQueue() {
-		return pQ.peek().vertex;
+		return index.labelOf(pQ.peekMin());
 	}
 	
 	/**
@@ -247,9 +967,9 @@ public class DijkstraSearch implements SearchAlgorithm{
 	
 	/** Mock constructor for testing**/
 	public DijkstraSearch() {
-		this.pQ = new PriorityQueue<>();
-		this.vertices = new HashSet<>();
-		this.distances = new HashMap<>();
+		this.pQ = new IndexedDaryHeap(0);
+		this.index = new VertexIndex();
+		this.lazy = true;
 	}
 	
 /***** TEST METHODS *******/
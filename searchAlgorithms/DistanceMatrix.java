@@ -0,0 +1,141 @@
+package searchAlgorithms;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import graph.Graph;
+
+/**
+ * Many to many shortest distances, one Dijkstra search per source.
+ * The per source searches are split over a fork join pool, each worker thread keeping its own
+ * SearchWorkspace between searches, and every search stops as soon as all targets are settled.
+ *
+ * Unreachable pairs, and pairs with a label that is not in the graph, have distance SearchResultMaps.UNREACHED.
+ * compute() is threadsafe, the graph snapshot is immutable and workspaces are never shared between threads.
+ * @author watso
+ */
+public class DistanceMatrix {
+	/**
+	 * RI:
+	 * 	every workspace is only used by the thread that created it
+	 */
+	private static final int INF = SearchResultMaps.UNREACHED;
+
+	private final CompiledGraph graph;
+	private final ForkJoinPool pool;
+	private final ThreadLocal<SearchWorkspace> workspaces;
+
+	/**
+	 * Creates a matrix calculator over a snapshot of the graph, using the common fork join pool
+	 * @param graph
+	 */
+	public DistanceMatrix(Graph<String> graph) {
+		this(CompiledGraph.compile(graph), ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * @param graph - compiled graph to search
+	 * @param pool - pool to run the per source searches on
+	 */
+	public DistanceMatrix(CompiledGraph graph, ForkJoinPool pool) {
+		this.graph = graph;
+		this.pool = pool;
+		this.workspaces = ThreadLocal.withInitial(() -> new SearchWorkspace(graph.vertexCount()));
+	}
+
+	/**
+	 * Computes the shortest distance from every source to every target
+	 * @param sources - source labels, rows of the result
+	 * @param targets - target labels, columns of the result
+	 * @return result[i][j] = distance from sources.get(i) to targets.get(j), UNREACHED if there is no path
+	 */
+	public int[][] compute(List<String> sources, List<String> targets) {
+		int[] sourceIds = idsOf(sources);
+		int[] targetIds = idsOf(targets);
+		//distinct target vertices, so each search knows when it can stop
+		boolean[] isTarget = new boolean[graph.vertexCount()];
+		int distinctTargets = 0;
+		for(int t: targetIds) {
+			if(t != CompiledGraph.NOT_FOUND && !isTarget[t]) {
+				isTarget[t] = true;
+				distinctTargets++;
+			}
+		}
+		int[][] result = new int[sourceIds.length][targetIds.length];
+		pool.invoke(new SourceRange(sourceIds, targetIds, isTarget, distinctTargets, result, 0, sourceIds.length));
+		return result;
+	}
+
+	private int[] idsOf(List<String> labels) {
+		int[] ids = new int[labels.size()];
+		int i = 0;
+		for(String label: labels) {
+			ids[i++] = graph.idOf(label);
+		}
+		return ids;
+	}
+
+	/**
+	 * Fills one row of the result with a search from the source, stopping once every target is settled
+	 */
+	private void searchRow(int source, int[] targetIds, boolean[] isTarget, int distinctTargets, int[] row) {
+		SearchWorkspace workspace = workspaces.get();
+		if(source != CompiledGraph.NOT_FOUND) {
+			workspace.lower(source, 0);
+			int remaining = distinctTargets;
+			while(remaining > 0 && !workspace.queue().isEmpty()) {
+				int u = workspace.queue().pollMin();
+				if(isTarget[u]) {
+					remaining--;
+				}
+				int uDist = workspace.distance(u);
+				for(int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+					workspace.lower(graph.edgeTarget(e), uDist + graph.edgeWeight(e));
+				}
+			}
+		}
+		for(int j = 0; j < targetIds.length; j++) {
+			int t = targetIds[j];
+			row[j] = (source == CompiledGraph.NOT_FOUND || t == CompiledGraph.NOT_FOUND) ? INF : workspace.distance(t);
+		}
+		workspace.reset();
+	}
+
+	/**
+	 * Searches a range of sources, splitting in half until a single source is left
+	 */
+	private class SourceRange extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final int[] sourceIds;
+		private final int[] targetIds;
+		private final boolean[] isTarget;
+		private final int distinctTargets;
+		private final int[][] result;
+		private final int from;
+		private final int to;
+
+		SourceRange(int[] sourceIds, int[] targetIds, boolean[] isTarget, int distinctTargets, int[][] result, int from, int to) {
+			this.sourceIds = sourceIds;
+			this.targetIds = targetIds;
+			this.isTarget = isTarget;
+			this.distinctTargets = distinctTargets;
+			this.result = result;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if(to - from <= 1) {
+				for(int i = from; i < to; i++) {
+					searchRow(sourceIds[i], targetIds, isTarget, distinctTargets, result[i]);
+				}
+				return;
+			}
+			int middle = (from + to) >>> 1;
+			invokeAll(new SourceRange(sourceIds, targetIds, isTarget, distinctTargets, result, from, middle),
+					new SourceRange(sourceIds, targetIds, isTarget, distinctTargets, result, middle, to));
+		}
+	}
+}
@@ -0,0 +1,175 @@
+package searchAlgorithms;
+
+import java.util.Arrays;
+
+/**
+ * Mutable adjacency over the vertex ids of a CompiledGraph, holding the edges of every vertex in both directions,
+ * for searches that repair their result after edge changes. A change costs the degree of its two endpoints
+ * rather than the copy of every edge a new snapshot takes, and compile() builds a snapshot once one is needed.
+ * This class is not threadsafe
+ * @author watso
+ */
+public final class DynamicGraph {
+	/**
+	 * RI:
+	 * 	outTargets[u][i], outWeights[u][i] for i < outDegree[u] are the edges u -> v in insertion order, each v at most once
+	 * 	inSources[v][i], inWeights[v][i] for i < inDegree[v] are the same edges seen from their target
+	 * 	maxWeight >= every edge weight, and never lowered
+	 */
+	private static final int NOT_FOUND = CompiledGraph.NOT_FOUND;
+
+	private final CompiledGraph base;
+	private final int[][] outTargets;
+	private final int[][] outWeights;
+	private final int[] outDegree;
+	private final int[][] inSources;
+	private final int[][] inWeights;
+	private final int[] inDegree;
+	private int maxWeight;
+
+	/**
+	 * @param base - snapshot whose edges and vertex ids the adjacency starts from
+	 */
+	public DynamicGraph(CompiledGraph base) {
+		int vertexCount = base.vertexCount();
+		this.base = base;
+		this.outTargets = new int[vertexCount][];
+		this.outWeights = new int[vertexCount][];
+		this.outDegree = new int[vertexCount];
+		this.inSources = new int[vertexCount][];
+		this.inWeights = new int[vertexCount][];
+		this.inDegree = new int[vertexCount];
+		this.maxWeight = base.maxWeight();
+		int[] incoming = new int[vertexCount];
+		for(int e = 0; e < base.edgeCount(); e++) {
+			incoming[base.edgeTarget(e)]++;
+		}
+		for(int v = 0; v < vertexCount; v++) {
+			int degree = base.endEdge(v) - base.firstEdge(v);
+			outTargets[v] = new int[degree];
+			outWeights[v] = new int[degree];
+			inSources[v] = new int[incoming[v]];
+			inWeights[v] = new int[incoming[v]];
+		}
+		for(int u = 0; u < vertexCount; u++) {
+			for(int e = base.firstEdge(u); e < base.endEdge(u); e++) {
+				int v = base.edgeTarget(e);
+				outTargets[u][outDegree[u]] = v;
+				outWeights[u][outDegree[u]++] = base.edgeWeight(e);
+				inSources[v][inDegree[v]] = u;
+				inWeights[v][inDegree[v]++] = base.edgeWeight(e);
+			}
+		}
+	}
+
+	public int vertexCount() {
+		return outDegree.length;
+	}
+
+	public int outDegree(int vertex) {
+		return outDegree[vertex];
+	}
+
+	/**
+	 * @return target of the i'th outgoing edge of the vertex
+	 */
+	public int outTarget(int vertex, int i) {
+		return outTargets[vertex][i];
+	}
+
+	public int outWeight(int vertex, int i) {
+		return outWeights[vertex][i];
+	}
+
+	public int inDegree(int vertex) {
+		return inDegree[vertex];
+	}
+
+	/**
+	 * @return source of the i'th incoming edge of the vertex
+	 */
+	public int inSource(int vertex, int i) {
+		return inSources[vertex][i];
+	}
+
+	public int inWeight(int vertex, int i) {
+		return inWeights[vertex][i];
+	}
+
+	/**
+	 * @return weight of edge from -> to, NOT_FOUND if there is no such edge
+	 */
+	public int weightOf(int from, int to) {
+		int i = indexOf(outTargets[from], outDegree[from], to);
+		return i < 0 ? NOT_FOUND : outWeights[from][i];
+	}
+
+	/**
+	 * Sets the weight of edge from -> to, appending it to both rows if new
+	 * @param weight - new weight, EdgeChange.REMOVED to delete the edge
+	 * @return previous weight of the edge, NOT_FOUND if there was none
+	 */
+	public int set(int from, int to, int weight) {
+		int i = indexOf(outTargets[from], outDegree[from], to);
+		int j = indexOf(inSources[to], inDegree[to], from);
+		int previous = i < 0 ? NOT_FOUND : outWeights[from][i];
+		if(weight == EdgeChange.REMOVED) {
+			if(i >= 0) {
+				removeAt(outTargets[from], outWeights[from], outDegree[from]--, i);
+				removeAt(inSources[to], inWeights[to], inDegree[to]--, j);
+			}
+			return previous;
+		}
+		if(i >= 0) {
+			outWeights[from][i] = weight;
+			inWeights[to][j] = weight;
+		}
+		else {
+			if(outDegree[from] == outTargets[from].length) {
+				outTargets[from] = Arrays.copyOf(outTargets[from], Math.max(4, outDegree[from] * 2));
+				outWeights[from] = Arrays.copyOf(outWeights[from], outTargets[from].length);
+			}
+			outTargets[from][outDegree[from]] = to;
+			outWeights[from][outDegree[from]++] = weight;
+			if(inDegree[to] == inSources[to].length) {
+				inSources[to] = Arrays.copyOf(inSources[to], Math.max(4, inDegree[to] * 2));
+				inWeights[to] = Arrays.copyOf(inWeights[to], inSources[to].length);
+			}
+			inSources[to][inDegree[to]] = from;
+			inWeights[to][inDegree[to]++] = weight;
+		}
+		maxWeight = Math.max(maxWeight, weight);
+		return previous;
+	}
+
+	/**
+	 * @return upper bound on the edge weights, the largest weight ever held
+	 */
+	public int maxWeight() {
+		return maxWeight;
+	}
+
+	/**
+	 * @return snapshot of the edges as they are now, with the vertex ids of the base snapshot
+	 */
+	public CompiledGraph compile() {
+		return base.withRows(outTargets, outWeights, outDegree);
+	}
+
+	private static int indexOf(int[] row, int length, int vertex) {
+		for(int i = 0; i < length; i++) {
+			if(row[i] == vertex) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Removes entry i of a row of the given length, keeping the order of the rest
+	 */
+	private static void removeAt(int[] vertices, int[] weights, int length, int i) {
+		System.arraycopy(vertices, i + 1, vertices, i, length - i - 1);
+		System.arraycopy(weights, i + 1, weights, i, length - i - 1);
+	}
+}
@@ -0,0 +1,34 @@
+package searchAlgorithms;
+
+/**
+ * Immutable change of one directed edge, from -> to, for dynamic searches.
+ * As with Graph.set, a weight of 0 removes the edge and any other weight inserts it or replaces its weight.
+ * An undirected edge changes with two EdgeChanges, one per direction.
+ * @author watso
+ */
+public class EdgeChange {
+	public static final int REMOVED = 0;
+
+	public final String from;
+	public final String to;
+	public final int weight;
+
+	/**
+	 * @param from - source vertex of the edge
+	 * @param to - target vertex of the edge
+	 * @param weight - new weight, >= 0, REMOVED to delete the edge
+	 */
+	public EdgeChange(String from, String to, int weight) {
+		if(from == null || to == null || weight < 0) {
+			throw new IllegalArgumentException(String.format("Invalid edge change %s -> %s weight %d", from, to, weight));
+		}
+		this.from = from;
+		this.to = to;
+		this.weight = weight;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s -> %s = %d", from, to, weight);
+	}
+}
@@ -0,0 +1,110 @@
+package searchAlgorithms;
+
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+/**
+ * Grid co-ordinates of "x,y" vertex labels by vertex id, so grid heuristics can use primitive math
+ * instead of splitting and parsing labels on every evaluation.
+ * Each label is parsed once, into a single long packing x in the high and y in the low 32 bits.
+ *
+ * Built eagerly for a compiled graph, or lazily over a VertexIndex whose ids are assigned as a search runs.
+ * This class is not threadsafe
+ * @author watso
+ */
+public class GridCoordinateIndex {
+	/**
+	 * RI:
+	 * 	packed.length == loaded.length
+	 * 	packed[id] == pack(x, y) of labels.apply(id) iff loaded[id], every packed value is a valid co-ordinate pair
+	 */
+	private final IntFunction<String> labels;
+	private long[] packed;
+	private boolean[] loaded;
+
+	private GridCoordinateIndex(IntFunction<String> labels, int capacity) {
+		this.labels = labels;
+		this.packed = new long[Math.max(capacity, 1)];
+		this.loaded = new boolean[packed.length];
+	}
+
+	/**
+	 * Parses the co-ordinates of every vertex of the graph
+	 * @param graph - graph with "x,y" labels
+	 * @return index by compiled vertex id
+	 * @throws IllegalArgumentException if a label is not of the form "x,y"
+	 */
+	public static GridCoordinateIndex of(CompiledGraph graph) {
+		GridCoordinateIndex index = new GridCoordinateIndex(graph::labelOf, graph.vertexCount());
+		for(int id = 0; id < graph.vertexCount(); id++) {
+			index.load(id);
+		}
+		return index;
+	}
+
+	/**
+	 * Creates an index that parses the label of each id of the vertex index on first use
+	 * @param index - vertex index with "x,y" labels
+	 * @return index by vertex index id
+	 */
+	public static GridCoordinateIndex over(VertexIndex index) {
+		return new GridCoordinateIndex(index::labelOf, index.size());
+	}
+
+	/**
+	 * @param id - vertex id
+	 * @return x co-ordinate of the vertex
+	 */
+	public int x(int id) {
+		return unpackX(packed(id));
+	}
+
+	/**
+	 * @param id - vertex id
+	 * @return y co-ordinate of the vertex
+	 */
+	public int y(int id) {
+		return unpackY(packed(id));
+	}
+
+	/**
+	 * @param id - vertex id
+	 * @return both co-ordinates of the vertex packed with pack(x, y)
+	 */
+	public long packed(int id) {
+		if(id >= packed.length) {
+			packed = Arrays.copyOf(packed, Math.max(id + 1, packed.length * 2));
+			loaded = Arrays.copyOf(loaded, packed.length);
+		}
+		return loaded[id] ? packed[id] : load(id);
+	}
+
+	private long load(int id) {
+		String label = labels.apply(id);
+		int comma = label.indexOf(',');
+		if(comma < 0) {
+			throw new IllegalArgumentException("Vertex label is not of the form x,y: " + label);
+		}
+		try {
+			long value = pack(Integer.parseInt(label.substring(0, comma).trim()), Integer.parseInt(label.substring(comma + 1).trim()));
+			packed[id] = value;
+			loaded[id] = true;
+			return value;
+		}
+		catch(NumberFormatException nfe) {
+			throw new IllegalArgumentException("Vertex label is not of the form x,y: " + label);
+		}
+	}
+
+	public static long pack(int x, int y) {
+		return ((long) x << 32) | (y & 0xffffffffL);
+	}
+
+	public static int unpackX(long packed) {
+		return (int) (packed >> 32);
+	}
+
+	public static int unpackY(long packed) {
+		return (int) packed;
+	}
+}
@@ -0,0 +1,18 @@
+package searchAlgorithms;
+
+/**
+ * Lower bound estimates of the remaining distance for A* searches over a compiled graph.
+ * Estimates must never exceed the true shortest distance (admissible), or A* may return a longer path.
+ *
+ * Implementations are not required to be threadsafe.
+ * @author watso
+ */
+public interface HeuristicProvider {
+
+	/**
+	 * @param vertex - vertex id in the compiled graph being searched
+	 * @param target - target vertex id in the same graph
+	 * @return non negative lower bound on the distance from vertex to target
+	 */
+	public int estimate(int vertex, int target);
+}
@@ -0,0 +1,228 @@
+package searchAlgorithms;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import graph.Graph;
+
+/**
+ * K shortest loopless paths between two vertices (Yen, with Lawler's saving on spur vertices).
+ * Every path after the first deviates from an accepted path at a spur vertex: the root of the accepted path
+ * up to the spur is kept, the root's other vertices and the edges out of the spur taken by accepted paths with
+ * the same root are blocked, and a spur search finds the shortest way on to the target.
+ * Spur vertices before the one a path itself deviated at were already tried from its parent, so are skipped.
+ *
+ * Spur searches are A* in one reused SearchWorkspace, guided by the exact distances to the target from a single
+ * Dijkstra over the reversed graph per query. Blocking only lengthens paths, so those distances stay admissible,
+ * and where nothing blocked is in the way a spur search walks straight down the reverse shortest path tree.
+ *
+ * The graph is a snapshot taken at construction. This class is not threadsafe.
+ * @author watso
+ */
+public class KShortestPaths {
+	/**
+	 * RI:
+	 * 	blocked[v] == blockStamp iff v is in the root of the running spur search
+	 */
+	private static final int INF = SearchResultMaps.UNREACHED;
+	private static final int NONE = SearchResultMaps.NO_PREDECESSOR;
+
+	private final CompiledGraph graph;
+	private final SearchWorkspace workspace;
+	private final int[] blocked;
+	private int blockStamp;
+	private int spurSearchCount;
+
+	public KShortestPaths(Graph<String> graph) {
+		this(CompiledGraph.compile(graph));
+	}
+
+	/**
+	 * @param graph - compiled graph to search
+	 */
+	public KShortestPaths(CompiledGraph graph) {
+		this.graph = graph;
+		this.workspace = new SearchWorkspace(graph.vertexCount());
+		this.blocked = new int[graph.vertexCount()];
+	}
+
+	/**
+	 * Candidate or accepted path, with the index of the vertex it deviated from its parent at
+	 */
+	private static class Candidate {
+		final int[] vertices;
+		final int distance;
+		final int deviation;
+
+		Candidate(int[] vertices, int distance, int deviation) {
+			this.vertices = vertices;
+			this.distance = distance;
+			this.deviation = deviation;
+		}
+	}
+
+	/**
+	 * Finds up to k loopless paths from source to target, shortest first
+	 * @param source
+	 * @param target
+	 * @param k - number of paths wanted, > 0
+	 * @return paths in order of distance, fewer than k if there are no more, empty if the target is unreachable
+	 * @throws IllegalArgumentException if k is not positive
+	 */
+	public List<WeightedPath> find(String source, String target, int k) {
+		if(k <= 0) {
+			throw new IllegalArgumentException("Number of paths must be positive: " + k);
+		}
+		List<WeightedPath> result = new ArrayList<>();
+		spurSearchCount = 0;
+		int s = graph.idOf(source);
+		int t = graph.idOf(target);
+		if(s == CompiledGraph.NOT_FOUND || t == CompiledGraph.NOT_FOUND) {
+			return result;
+		}
+		ShortestPathTree toTarget = new DijkstraSearch(graph.reverse()).searchTree(target);
+		if(!toTarget.isReachable(s)) {
+			return result;
+		}
+		List<Integer> first = new ArrayList<>();
+		for(int v = s; v != NONE; v = toTarget.predecessor(v)) {	//reverse tree predecessors lead to the target
+			first.add(v);
+		}
+		List<Candidate> accepted = new ArrayList<>();
+		accepted.add(new Candidate(toArray(first), toTarget.distance(s), 0));
+		result.add(toWeightedPath(accepted.get(0)));
+
+		PriorityQueue<Candidate> candidates = new PriorityQueue<>((a, b) -> a.distance != b.distance
+				? Integer.compare(a.distance, b.distance) : Integer.compare(a.vertices.length, b.vertices.length));
+		Set<List<Integer>> seen = new HashSet<>();
+		seen.add(first);
+		while(accepted.size() < k) {
+			Candidate last = accepted.get(accepted.size() - 1);
+			int[] path = last.vertices;
+			int rootDistance = 0;
+			for(int i = 0; i < last.deviation; i++) {
+				rootDistance += graph.weightOf(path[i], path[i + 1]);
+			}
+			for(int i = last.deviation; i + 1 < path.length; i++) {
+				int spur = path[i];
+				nextBlock();
+				for(int j = 0; j < i; j++) {
+					blocked[path[j]] = blockStamp;
+				}
+				int[] blockedNext = new int[accepted.size()];
+				int blockedCount = 0;
+				for(Candidate other: accepted) {
+					if(other.vertices.length > i + 1 && sharesRoot(other.vertices, path, i)) {
+						blockedNext[blockedCount++] = other.vertices[i + 1];
+					}
+				}
+				int spurDistance = spurSearch(spur, t, blockedNext, blockedCount, toTarget);
+				if(spurDistance != INF) {
+					List<Integer> candidate = new ArrayList<>();
+					for(int j = 0; j < i; j++) {
+						candidate.add(path[j]);
+					}
+					LinkedList<Integer> spurPath = new LinkedList<>();
+					for(int v = t; v != NONE; v = workspace.predecessor(v)) {
+						spurPath.addFirst(v);
+					}
+					candidate.addAll(spurPath);
+					if(seen.add(candidate)) {
+						candidates.add(new Candidate(toArray(candidate), rootDistance + spurDistance, i));
+					}
+				}
+				rootDistance += graph.weightOf(path[i], path[i + 1]);
+			}
+			Candidate best = candidates.poll();
+			if(best == null) {
+				break;	//no loopless paths left
+			}
+			accepted.add(best);
+			result.add(toWeightedPath(best));
+		}
+		return result;
+	}
+
+	/**
+	 * A* from the spur to the target, avoiding root vertices and the blocked edges out of the spur
+	 * @return distance from the spur to the target, INF if it cannot be reached
+	 */
+	private int spurSearch(int spur, int t, int[] blockedNext, int blockedCount, ShortestPathTree toTarget) {
+		spurSearchCount++;
+		workspace.reset();
+		workspace.lower(spur, 0, NONE, toTarget.distance(spur));
+		while(!workspace.queue().isEmpty()) {
+			int u = workspace.queue().pollMin();
+			int uDist = workspace.distance(u);
+			if(u == t) {
+				return uDist;
+			}
+			for(int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+				int v = graph.edgeTarget(e);
+				int h = toTarget.distance(v);
+				if(h == INF || blocked[v] == blockStamp || (u == spur && isBlocked(v, blockedNext, blockedCount))) {
+					continue;
+				}
+				int newDist = uDist + graph.edgeWeight(e);
+				workspace.lower(v, newDist, u, (long) newDist + h);
+			}
+		}
+		return INF;
+	}
+
+	private static boolean isBlocked(int vertex, int[] blockedNext, int blockedCount) {
+		for(int i = 0; i < blockedCount; i++) {
+			if(blockedNext[i] == vertex) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return true if both paths start with the same vertices up to and including index i
+	 */
+	private static boolean sharesRoot(int[] a, int[] b, int i) {
+		return Arrays.equals(a, 0, i + 1, b, 0, i + 1);
+	}
+
+	/**
+	 * Starts a new set of blocked root vertices, clearing the stamps if the counter wraps
+	 */
+	private void nextBlock() {
+		blockStamp++;
+		if(blockStamp == Integer.MAX_VALUE) {
+			Arrays.fill(blocked, 0);
+			blockStamp = 1;
+		}
+	}
+
+	private static int[] toArray(List<Integer> vertices) {
+		int[] array = new int[vertices.size()];
+		int i = 0;
+		for(int v: vertices) {
+			array[i++] = v;
+		}
+		return array;
+	}
+
+	private WeightedPath toWeightedPath(Candidate candidate) {
+		List<String> labels = new LinkedList<>();
+		for(int v: candidate.vertices) {
+			labels.add(graph.labelOf(v));
+		}
+		return new WeightedPath(candidate.distance, labels);
+	}
+
+	/**
+	 * @return number of spur searches run by the last find
+	 */
+	public int getSpurSearchCount() {
+		return spurSearchCount;
+	}
+}
@@ -0,0 +1,142 @@
+package searchAlgorithms;
+
+import java.util.Arrays;
+
+/**
+ * ALT (A*, Landmarks, Triangle inequality) heuristic, which works on any graph rather than only "x,y" grids.
+ * A few landmark vertices are chosen and whole graph searches record the distance from every landmark
+ * to every vertex, and from every vertex to every landmark (over the reversed graph).
+ * By the triangle inequality, for any landmark L:
+ * 	d(v, t) >= d(L, t) - d(L, v)
+ * 	d(v, t) >= d(v, L) - d(t, L)
+ * and the estimate is the largest of these bounds over all landmarks.
+ *
+ * Landmarks are chosen by farthest selection: each new landmark is the vertex farthest from all landmarks
+ * chosen so far, which places them around the edge of the graph where the bounds are tightest.
+ * The tables are a snapshot, build a new heuristic after changing the graph.
+ * Instances are immutable once constructed and threadsafe.
+ * @author watso
+ */
+public class LandmarkHeuristic implements HeuristicProvider{
+	/**
+	 * RI:
+	 * 	fromLandmark[i].getSource() == toLandmark[i].getSource() == landmarks[i]
+	 * 	fromLandmark[i] is over graph, toLandmark[i] is over graph.reverse()
+	 */
+	public static final int DEFAULT_LANDMARK_COUNT = 8;
+	private static final int INF = SearchResultMaps.UNREACHED;
+
+	private final CompiledGraph graph;
+	private final int[] landmarks;
+	private final ShortestPathTree[] fromLandmark;
+	private final ShortestPathTree[] toLandmark;
+
+	/**
+	 * Chooses DEFAULT_LANDMARK_COUNT landmarks and computes their distance tables
+	 * @param graph
+	 */
+	public LandmarkHeuristic(CompiledGraph graph) {
+		this(graph, DEFAULT_LANDMARK_COUNT);
+	}
+
+	/**
+	 * Chooses landmarks and computes their distance tables, 2 whole graph searches per landmark
+	 * @param graph
+	 * @param landmarkCount - > 0, fewer are used if the graph has fewer vertices
+	 */
+	public LandmarkHeuristic(CompiledGraph graph, int landmarkCount) {
+		if(landmarkCount <= 0) {
+			throw new IllegalArgumentException("Landmark count must be positive: " + landmarkCount);
+		}
+		this.graph = graph;
+		int count = Math.min(landmarkCount, graph.vertexCount());
+		this.landmarks = new int[count];
+		this.fromLandmark = new ShortestPathTree[count];
+		this.toLandmark = new ShortestPathTree[count];
+		if(count == 0) {
+			return;
+		}
+		DijkstraSearch forward = new DijkstraSearch(graph);
+		DijkstraSearch backward = new DijkstraSearch(graph.reverse());
+		//the first landmark is the vertex farthest from an arbitrary start, unreached vertices never chosen
+		ShortestPathTree start = forward.searchTree(graph.labelOf(0));
+		long[] nearest = new long[graph.vertexCount()];
+		for(int v = 0; v < nearest.length; v++) {
+			nearest[v] = start.isReachable(v) ? start.distance(v) : -1;
+		}
+		int next = farthest(nearest);
+		//from then on nearest is the distance to the closest landmark, unreached vertices are farthest
+		Arrays.fill(nearest, Long.MAX_VALUE);
+		for(int i = 0; i < count; i++) {
+			landmarks[i] = next;
+			fromLandmark[i] = forward.searchTree(graph.labelOf(next));
+			toLandmark[i] = backward.searchTree(graph.labelOf(next));
+			for(int v = 0; v < nearest.length; v++) {
+				if(fromLandmark[i].isReachable(v)) {
+					nearest[v] = Math.min(nearest[v], fromLandmark[i].distance(v));
+				}
+			}
+			next = farthest(nearest);
+		}
+	}
+
+	/**
+	 * @return index of the largest distance, lowest index on ties
+	 */
+	private static int farthest(long[] distances) {
+		int best = 0;
+		for(int v = 1; v < distances.length; v++) {
+			if(distances[v] > distances[best]) {
+				best = v;
+			}
+		}
+		return best;
+	}
+
+	@Override
+	public int estimate(int vertex, int target) {
+		int best = 0;
+		for(int i = 0; i < landmarks.length; i++) {
+			int toTarget = fromLandmark[i].distance(target);
+			int toVertex = fromLandmark[i].distance(vertex);
+			if(toTarget != INF && toVertex != INF) {
+				best = Math.max(best, toTarget - toVertex);
+			}
+			int vertexTo = toLandmark[i].distance(vertex);
+			int targetTo = toLandmark[i].distance(target);
+			if(vertexTo != INF && targetTo != INF) {
+				best = Math.max(best, vertexTo - targetTo);
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Label based estimate, for searches over the uncompiled graph
+	 * @param vertex
+	 * @param target
+	 * @return lower bound on the distance from vertex to target, 0 if either is not in the snapshot
+	 */
+	public int estimate(String vertex, String target) {
+		int v = graph.idOf(vertex);
+		int t = graph.idOf(target);
+		if(v == CompiledGraph.NOT_FOUND || t == CompiledGraph.NOT_FOUND) {
+			return 0;
+		}
+		return estimate(v, t);
+	}
+
+	/**
+	 * @return the graph snapshot whose vertex ids estimate(int, int) expects
+	 */
+	public CompiledGraph getGraph() {
+		return graph;
+	}
+
+	/**
+	 * @return ids of the chosen landmarks, in the order they were chosen
+	 */
+	public int[] getLandmarks() {
+		return landmarks.clone();
+	}
+}
@@ -0,0 +1,24 @@
+package searchAlgorithms;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A SearchAlgorithm that also answers "which of these targets are closest" with a single search,
+ * instead of one point to point search per candidate target.
+ * @author watso
+ */
+public interface MultiTargetSearch extends SearchAlgorithm {
+
+	/**
+	 * Searches outwards from the source and stops as soon as the k nearest of the targets are settled
+	 * @param source - source vertex
+	 * @param targets - candidate targets, labels missing from the graph are ignored
+	 * @param k - number of targets wanted, > 0
+	 * @param withPaths - true to also return the path to each target
+	 * @return up to k reachable targets in order of distance, fewer if fewer are reachable,
+	 * empty if the source is not in the graph
+	 * @throws IllegalArgumentException if k is not positive
+	 */
+	public List<NearestTarget> findNearestTargets(String source, Collection<String> targets, int k, boolean withPaths);
+}
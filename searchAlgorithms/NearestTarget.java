@@ -0,0 +1,38 @@
+package searchAlgorithms;
+
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Immutable result entry of a nearest targets query: a target, its distance from the source and,
+ * if paths were asked for, the shortest path to it.
+ * @author watso
+ */
+public class NearestTarget {
+	public final String target;
+	public final int distance;
+	private final List<String> path;	//source first, empty if paths were not asked for
+
+	/**
+	 * @param target - target label
+	 * @param distance - shortest distance from the source
+	 * @param path - shortest path from the source, source first, empty if not requested
+	 */
+	public NearestTarget(String target, int distance, List<String> path) {
+		this.target = target;
+		this.distance = distance;
+		this.path = path;
+	}
+
+	/**
+	 * @return copy of the path from the source to the target, empty if paths were not asked for
+	 */
+	public List<String> getPath() {
+		return new LinkedList<>(path);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s at %d", target, distance);
+	}
+}
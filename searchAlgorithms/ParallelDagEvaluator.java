@@ -0,0 +1,234 @@
+package searchAlgorithms;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+import graph.Graph;
+
+/**
+ * Longest and shortest paths over a weighted DAG, evaluated one topological level at a time across a fork join pool.
+ * A vertex's level is one more than the highest level of its predecessors, so the vertices of a level only depend
+ * on earlier levels and can be evaluated in any order, in parallel.
+ * Each vertex pulls its value from its incoming edges and writes only its own slots, so the workers of a level
+ * share no writes and need no locks or atomics. Levels narrower than the grain run on the calling thread.
+ *
+ * The levels are computed once at construction, with Kahn's algorithm. Results are the same as
+ * DFSForTopologicalSortedDAGs.criticalPath and Dijkstra, up to the choice between equally long predecessors.
+ * The graph snapshot and levels are immutable, so evaluations may run concurrently.
+ * @author watso
+ */
+public class ParallelDagEvaluator {
+	/**
+	 * RI:
+	 * 	levelVertices is a topological order of graph, grouped by level
+	 * 	level i holds levelVertices[levelOffsets[i], levelOffsets[i + 1]), levelOf[v] is the level holding v
+	 * 	every edge u -> v has levelOf[u] < levelOf[v]
+	 */
+	private static final int INF = SearchResultMaps.UNREACHED;
+	private static final int NONE = SearchResultMaps.NO_PREDECESSOR;
+	public static final int DEFAULT_GRAIN = 1024;
+
+	private final CompiledGraph graph;
+	private final CompiledGraph reverse;
+	private final ForkJoinPool pool;
+	private final int grain;
+	private final int[] levelVertices;
+	private final int[] levelOffsets;
+	private final int[] levelOf;
+
+	/**
+	 * Creates an evaluator over a snapshot of the graph, using the common fork join pool
+	 * @param graph - directed acyclic graph with no negative edge weights
+	 * @throws IllegalArgumentException if the graph has a cycle
+	 */
+	public ParallelDagEvaluator(Graph<String> graph) {
+		this(CompiledGraph.compile(graph), ForkJoinPool.commonPool(), DEFAULT_GRAIN);
+	}
+
+	/**
+	 * @param graph - compiled directed acyclic graph with no negative edge weights
+	 * @param pool - pool to evaluate the levels on
+	 * @param grain - number of vertices below which a level, or part of one, is evaluated by a single thread, > 0
+	 * @throws IllegalArgumentException if the graph has a cycle
+	 */
+	public ParallelDagEvaluator(CompiledGraph graph, ForkJoinPool pool, int grain) {
+		if(grain <= 0) {
+			throw new IllegalArgumentException("Grain must be positive: " + grain);
+		}
+		this.graph = graph;
+		this.reverse = graph.reverse();
+		this.pool = pool;
+		this.grain = grain;
+		int vertexCount = graph.vertexCount();
+		this.levelVertices = new int[vertexCount];
+		this.levelOf = new int[vertexCount];
+		int[] inDegree = new int[vertexCount];
+		for(int e = 0; e < graph.edgeCount(); e++) {
+			inDegree[graph.edgeTarget(e)]++;
+		}
+		int tail = 0;
+		for(int v = 0; v < vertexCount; v++) {
+			if(inDegree[v] == 0) {
+				levelVertices[tail++] = v;
+			}
+		}
+		int[] offsets = new int[vertexCount + 1];
+		int levels = 0;
+		int head = 0;
+		while(head < tail) {
+			int levelEnd = tail;	//vertices appended while this level is processed form the next one
+			offsets[levels++] = head;
+			for(; head < levelEnd; head++) {
+				int u = levelVertices[head];
+				levelOf[u] = levels - 1;
+				for(int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+					int v = graph.edgeTarget(e);
+					if(--inDegree[v] == 0) {
+						levelVertices[tail++] = v;
+					}
+				}
+			}
+		}
+		if(tail != vertexCount) {
+			throw new IllegalArgumentException(String.format("Graph has a cycle, %d vertices cannot be levelled", vertexCount - tail));
+		}
+		offsets[levels] = tail;
+		this.levelOffsets = Arrays.copyOf(offsets, levels + 1);
+	}
+
+	/**
+	 * @return number of topological levels, the most vertices on any path
+	 */
+	public int levelCount() {
+		return levelOffsets.length - 1;
+	}
+
+	/**
+	 * Earliest starts by a forward pass over the levels, pulling the longest path to each vertex over its
+	 * incoming edges, then latest starts by a backward pass pulling over outgoing edges
+	 * @return schedule of the DAG with the critical path
+	 */
+	public CriticalPath criticalPath() {
+		int vertexCount = graph.vertexCount();
+		int[] earliest = new int[vertexCount];
+		int[] predecessors = new int[vertexCount];
+		for(int level = 0; level < levelCount(); level++) {
+			evaluateLevel(level, v -> {
+				int best = 0;
+				int from = NONE;
+				for(int e = reverse.firstEdge(v); e < reverse.endEdge(v); e++) {
+					int u = reverse.edgeTarget(e);
+					if(earliest[u] + reverse.edgeWeight(e) > best) {
+						best = earliest[u] + reverse.edgeWeight(e);
+						from = u;
+					}
+				}
+				earliest[v] = best;
+				predecessors[v] = from;
+			});
+		}
+		int end = NONE;
+		for(int v = 0; v < vertexCount; v++) {
+			if(end == NONE || earliest[v] > earliest[end]) {
+				end = v;
+			}
+		}
+		int length = end == NONE ? 0 : earliest[end];
+		int[] latest = new int[vertexCount];
+		for(int level = levelCount() - 1; level >= 0; level--) {
+			evaluateLevel(level, u -> {
+				int latestStart = length;	//vertices with no successors can start as late as the project end
+				for(int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+					latestStart = Math.min(latestStart, latest[graph.edgeTarget(e)] - graph.edgeWeight(e));
+				}
+				latest[u] = latestStart;
+			});
+		}
+		return new CriticalPath(graph, earliest, latest, predecessors, end);
+	}
+
+	/**
+	 * Shortest paths from the source, evaluating only the levels after the source's,
+	 * since nothing at or before its level can be reached from it
+	 * @param source
+	 * @return shortest path tree of the source, null if the source is not in the graph
+	 */
+	public ShortestPathTree shortestPaths(String source) {
+		int s = graph.idOf(source);
+		if(s == CompiledGraph.NOT_FOUND) {
+			return null;
+		}
+		int vertexCount = graph.vertexCount();
+		int[] distances = new int[vertexCount];
+		int[] predecessors = new int[vertexCount];
+		Arrays.fill(distances, INF);
+		Arrays.fill(predecessors, NONE);
+		distances[s] = 0;
+		for(int level = levelOf[s] + 1; level < levelCount(); level++) {
+			evaluateLevel(level, v -> {
+				int best = INF;
+				int from = NONE;
+				for(int e = reverse.firstEdge(v); e < reverse.endEdge(v); e++) {
+					int u = reverse.edgeTarget(e);
+					if(distances[u] != INF && distances[u] + reverse.edgeWeight(e) < best) {
+						best = distances[u] + reverse.edgeWeight(e);
+						from = u;
+					}
+				}
+				distances[v] = best;
+				predecessors[v] = from;
+			});
+		}
+		return new ShortestPathTree(graph, s, distances, predecessors);
+	}
+
+	/**
+	 * Applies the evaluation to every vertex of the level, on the pool if the level is wider than the grain
+	 */
+	private void evaluateLevel(int level, IntConsumer evaluation) {
+		int from = levelOffsets[level];
+		int to = levelOffsets[level + 1];
+		if(to - from <= grain) {
+			for(int i = from; i < to; i++) {
+				evaluation.accept(levelVertices[i]);
+			}
+		}
+		else {
+			pool.invoke(new LevelRange(evaluation, from, to));
+		}
+	}
+
+	public CompiledGraph getGraph() {
+		return graph;
+	}
+
+	/**
+	 * Evaluates a range of a level, splitting in half until it is no wider than the grain
+	 */
+	private class LevelRange extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final IntConsumer evaluation;
+		private final int from;
+		private final int to;
+
+		LevelRange(IntConsumer evaluation, int from, int to) {
+			this.evaluation = evaluation;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if(to - from <= grain) {
+				for(int i = from; i < to; i++) {
+					evaluation.accept(levelVertices[i]);
+				}
+				return;
+			}
+			int middle = (from + to) >>> 1;
+			invokeAll(new LevelRange(evaluation, from, middle), new LevelRange(evaluation, middle, to));
+		}
+	}
+}
@@ -0,0 +1,149 @@
+package searchAlgorithms;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Read-only Map views over the int[] distance and predecessor arrays of a search,
+ * so getDistances() and getPredecessors() can hand results out without copying them into HashMaps.
+ * Labels are resolved through the compiled graph as entries are read.
+ *
+ * Views are backed by the arrays passed in, the search that owns the arrays must not write to them
+ * again once a view has been handed out.
+ * @author watso
+ */
+public final class SearchResultMaps {
+	public static final int UNREACHED = Integer.MAX_VALUE;
+	public static final int NO_PREDECESSOR = -1;
+
+	private SearchResultMaps() {
+	}
+
+	/**
+	 * @param graph - graph the distances were computed on
+	 * @param distances - distance per vertex id, UNREACHED if the vertex was not reached
+	 * @param includeUnreached - if true unreached vertices are present with value UNREACHED, else they are absent
+	 * @return unmodifiable map of vertex label to distance
+	 */
+	public static Map<String, Integer> distances(CompiledGraph graph, int[] distances, boolean includeUnreached) {
+		return new ArrayBackedMap<Integer>(graph, distances, !includeUnreached, UNREACHED) {
+			@Override
+			Integer value(int raw) {
+				return raw;
+			}
+		};
+	}
+
+	/**
+	 * @param graph - graph the predecessors were computed on
+	 * @param predecessors - predecessor id per vertex id, NO_PREDECESSOR for the source and unreached vertices
+	 * @return unmodifiable map of vertex label to predecessor label
+	 */
+	public static Map<String, String> predecessors(CompiledGraph graph, int[] predecessors) {
+		return new ArrayBackedMap<String>(graph, predecessors, true, NO_PREDECESSOR) {
+			@Override
+			String value(int raw) {
+				return graph.labelOf(raw);
+			}
+		};
+	}
+
+	/**
+	 * Map of label to a value derived from values[id], skipping ids whose raw value equals absent if skipAbsent is set.
+	 */
+	private abstract static class ArrayBackedMap<V> extends AbstractMap<String, V> {
+		final CompiledGraph graph;
+		private final int[] values;
+		private final boolean skipAbsent;
+		private final int absent;
+		private int size = -1;
+
+		ArrayBackedMap(CompiledGraph graph, int[] values, boolean skipAbsent, int absent) {
+			this.graph = graph;
+			this.values = values;
+			this.skipAbsent = skipAbsent;
+			this.absent = absent;
+		}
+
+		abstract V value(int raw);
+
+		private boolean present(int id) {
+			return !skipAbsent || values[id] != absent;
+		}
+
+		@Override
+		public V get(Object key) {
+			if(!(key instanceof String)) {
+				return null;
+			}
+			int id = graph.idOf((String) key);
+			if(id == CompiledGraph.NOT_FOUND || id >= values.length || !present(id)) {
+				return null;
+			}
+			return value(values[id]);
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return get(key) != null;
+		}
+
+		@Override
+		public int size() {
+			if(size == -1) {
+				int count = 0;
+				for(int id = 0; id < Math.min(values.length, graph.vertexCount()); id++) {
+					if(present(id)) {
+						count++;
+					}
+				}
+				size = count;
+			}
+			return size;
+		}
+
+		@Override
+		public Set<Map.Entry<String, V>> entrySet() {
+			return new AbstractSet<Map.Entry<String, V>>() {
+				@Override
+				public int size() {
+					return ArrayBackedMap.this.size();
+				}
+
+				@Override
+				public Iterator<Map.Entry<String, V>> iterator() {
+					return new Iterator<Map.Entry<String, V>>() {
+						private final int limit = Math.min(values.length, graph.vertexCount());
+						private int next = advance(0);
+
+						private int advance(int from) {
+							while(from < limit && !present(from)) {
+								from++;
+							}
+							return from;
+						}
+
+						@Override
+						public boolean hasNext() {
+							return next < limit;
+						}
+
+						@Override
+						public Map.Entry<String, V> next() {
+							if(!hasNext()) {
+								throw new NoSuchElementException();
+							}
+							int id = next;
+							next = advance(next + 1);
+							return new AbstractMap.SimpleImmutableEntry<>(graph.labelOf(id), value(values[id]));
+						}
+					};
+				}
+			};
+		}
+	}
+}
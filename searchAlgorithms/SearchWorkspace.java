@@ -0,0 +1,147 @@
+package searchAlgorithms;
+
+import java.util.Arrays;
+
+import queues.IndexedDaryHeap;
+import queues.IndexedPriorityQueue;
+
+/**
+ * Reusable state for repeated searches over graphs of up to capacity() vertices:
+ * tentative distances, predecessors and the queue.
+ * Every slot carries the generation it was last written in, and a slot from an older generation reads as unreached,
+ * so reset() clears the whole workspace in O(1) by starting a new generation instead of refilling the arrays.
+ * A search then only touches the vertices it reaches, however large the graph.
+ *
+ * One workspace can be shared by several searches (DijkstraSearch, AStarSearch) over graphs with the same vertex ids,
+ * but each reset discards the result of the previous search, so only the last search's result is readable.
+ * Not threadsafe, each thread needs its own workspace.
+ * @author watso
+ */
+public final class SearchWorkspace {
+	/**
+	 * RI:
+	 * 	generation > 0, every stamps[v] <= generation
+	 * 	v is reached iff stamps[v] == generation, distances[v] and predecessors[v] are only meaningful then
+	 * 	reachedCount == number of v with stamps[v] == generation
+	 */
+	private static final int INF = SearchResultMaps.UNREACHED;
+	private static final int NONE = SearchResultMaps.NO_PREDECESSOR;
+
+	private final int[] distances;
+	private final int[] predecessors;
+	private final int[] stamps;
+	private int generation;
+	private int reachedCount;
+	private final IndexedPriorityQueue queue;
+
+	/**
+	 * @param vertexCount - number of vertex ids the workspace holds
+	 */
+	public SearchWorkspace(int vertexCount) {
+		this(vertexCount, new IndexedDaryHeap(vertexCount));
+	}
+
+	/**
+	 * @param vertexCount - number of vertex ids the workspace holds
+	 * @param queue - empty queue for the searches, e.g. a monotone queue for Dijkstra
+	 */
+	public SearchWorkspace(int vertexCount, IndexedPriorityQueue queue) {
+		this.distances = new int[vertexCount];
+		this.predecessors = new int[vertexCount];
+		this.stamps = new int[vertexCount];
+		this.generation = 1;
+		this.queue = queue;
+	}
+
+	/**
+	 * @return number of vertex ids the workspace holds
+	 */
+	public int capacity() {
+		return stamps.length;
+	}
+
+	/**
+	 * @param vertex - vertex id
+	 * @return true if the current search has reached the vertex
+	 */
+	public boolean isReached(int vertex) {
+		return stamps[vertex] == generation;
+	}
+
+	/**
+	 * @param vertex - vertex id
+	 * @return tentative distance of the vertex in the current search, INF if not reached
+	 */
+	public int distance(int vertex) {
+		return stamps[vertex] == generation ? distances[vertex] : INF;
+	}
+
+	/**
+	 * @param vertex - vertex id
+	 * @return vertex before this one on the shortest path found so far, NONE for the source or if not reached
+	 */
+	public int predecessor(int vertex) {
+		return stamps[vertex] == generation ? predecessors[vertex] : NONE;
+	}
+
+	/**
+	 * @return generation of the current search, changed by every reset, so a reader can tell its search was replaced
+	 */
+	public int getGeneration() {
+		return generation;
+	}
+
+	/**
+	 * @return number of vertices reached since the last reset
+	 */
+	public int getReachedCount() {
+		return reachedCount;
+	}
+
+	/**
+	 * Lowers the tentative distance of the vertex and queues it, if the new distance is shorter
+	 * @return true if the distance was lowered
+	 */
+	public boolean lower(int vertex, int distance) {
+		return lower(vertex, distance, NONE, distance);
+	}
+
+	/**
+	 * Lowers the tentative distance of the vertex and queues it at the given priority, if the new distance is shorter
+	 * @param predecessor - vertex the new distance was reached from, NONE for a source
+	 * @param priority - queue priority, the distance for Dijkstra or the distance plus a consistent estimate for A*
+	 * @return true if the distance was lowered
+	 */
+	public boolean lower(int vertex, int distance, int predecessor, long priority) {
+		if(distance >= distance(vertex)) {
+			return false;
+		}
+		if(stamps[vertex] != generation) {
+			stamps[vertex] = generation;
+			reachedCount++;
+		}
+		distances[vertex] = distance;
+		predecessors[vertex] = predecessor;
+		queue.insertOrDecrease(vertex, priority);
+		return true;
+	}
+
+	public IndexedPriorityQueue queue() {
+		return queue;
+	}
+
+	/**
+	 * Forgets every vertex reached by the last search and empties the queue.
+	 * Costs the entries left in the queue, not the vertex count, except once every 2^31 resets
+	 * when the generation wraps around and the stamps are cleared
+	 */
+	public void reset() {
+		queue.clear();
+		reachedCount = 0;
+		generation++;
+		if(generation == Integer.MAX_VALUE) {
+			Arrays.fill(stamps, 0);
+			generation = 1;
+		}
+	}
+}
@@ -0,0 +1,23 @@
+package searchAlgorithms;
+
+/**
+ * Immutable record of a vertex settled by a search: its final distance from the source and the vertex before it
+ * on the shortest path.
+ * @author watso
+ */
+public class SettledVertex {
+	public final String vertex;
+	public final int distance;
+	public final String predecessor;	//null for the source
+
+	public SettledVertex(String vertex, int distance, String predecessor) {
+		this.vertex = vertex;
+		this.distance = distance;
+		this.predecessor = predecessor;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s at %d from %s", vertex, distance, predecessor);
+	}
+}
@@ -0,0 +1,206 @@
+package searchAlgorithms;
+
+import java.util.LinkedList;
+import java.util.List;
+
+import graph.Graph;
+
+/**
+ * Shortest path queries over one compiled graph that any number of threads can run at once.
+ * The engine only holds the immutable snapshot and heuristic. The queue, distances and predecessors
+ * of a query live in a SearchWorkspace pooled per thread and reset after each query, so one engine per graph
+ * serves concurrent requests without locks or a new engine, and without graph sized allocation per query.
+ *
+ * Searches are A* when constructed with a heuristic, Dijkstra otherwise.
+ * This class is threadsafe, if the heuristic is safe to call from several threads at once
+ * (LandmarkHeuristic and grid() are, as both only read tables built at construction).
+ * @author watso
+ */
+public class SharedSearchEngine implements SearchAlgorithm{
+	/**
+	 * RI:
+	 * 	every workspace and tree is only used by the thread that created it
+	 * 	workspaces are reset (no vertex reached) between queries
+	 */
+	private static final int INF = SearchResultMaps.UNREACHED;
+	private static final int NONE = SearchResultMaps.NO_PREDECESSOR;
+
+	private final CompiledGraph graph;
+	private final HeuristicProvider heuristic;	//null for Dijkstra
+	private final ThreadLocal<SearchWorkspace> workspaces;
+	private final ThreadLocal<ShortestPathTree> trees;	//each thread's last searchWholeGraph result
+
+	/**
+	 * Creates a Dijkstra engine over a snapshot of the graph
+	 * @param graph
+	 */
+	public SharedSearchEngine(Graph<String> graph) {
+		this(CompiledGraph.compile(graph), null);
+	}
+
+	/**
+	 * @param graph - compiled graph to search
+	 * @param heuristic - admissible estimate over the ids of graph, null for Dijkstra
+	 */
+	public SharedSearchEngine(CompiledGraph graph, HeuristicProvider heuristic) {
+		this.graph = graph;
+		this.heuristic = heuristic;
+		this.workspaces = ThreadLocal.withInitial(() -> new SearchWorkspace(graph.vertexCount()));
+		this.trees = new ThreadLocal<>();
+	}
+
+	/**
+	 * Creates an A* engine for a graph of "x,y" labels, with the straight line distance heuristic of AStarSearch
+	 * @param graph - compiled graph with "x,y" labels
+	 * @param weighting - lowest cost of a move of one unit, > 0
+	 * @return shared engine
+	 */
+	public static SharedSearchEngine grid(CompiledGraph graph, int weighting) {
+		if(weighting <= 0) {
+			throw new IllegalArgumentException("Invalid weighting for grid heuristic: " + weighting);
+		}
+		GridCoordinateIndex coordinates = GridCoordinateIndex.of(graph);	//fully loaded, so read only from here
+		return new SharedSearchEngine(graph, (vertex, target) -> {
+			long dx = coordinates.x(target) - coordinates.x(vertex);
+			long dy = coordinates.y(target) - coordinates.y(vertex);
+			return (int) Math.round(Math.sqrt((double) (dx * dx + dy * dy)) * weighting);
+		});
+	}
+
+	/**
+	 * Runs the search in the workspace until the target is settled
+	 * @return distance of the target, INF if unreachable
+	 */
+	private int search(int s, int t, SearchWorkspace workspace) {
+		workspace.lower(s, 0, NONE, estimate(s, t));
+		while(!workspace.queue().isEmpty()) {
+			int u = workspace.queue().pollMin();
+			int uDist = workspace.distance(u);
+			if(u == t) {
+				return uDist;
+			}
+			for(int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+				int v = graph.edgeTarget(e);
+				int newDist = uDist + graph.edgeWeight(e);
+				if(newDist < workspace.distance(v)) {
+					workspace.lower(v, newDist, u, (long) newDist + estimate(v, t));
+				}
+			}
+		}
+		return INF;
+	}
+
+	private int estimate(int vertex, int target) {
+		return heuristic == null ? 0 : heuristic.estimate(vertex, target);
+	}
+
+	@Override
+	public boolean searchForTarget(String source, String target) {
+		return findDistance(source, target) != INF;
+	}
+
+	/**
+	 * @return distance from source to target, INF if either is missing or the target is unreachable
+	 */
+	private int findDistance(String source, String target) {
+		int s = graph.idOf(source);
+		int t = graph.idOf(target);
+		if(s == CompiledGraph.NOT_FOUND || t == CompiledGraph.NOT_FOUND) {
+			return INF;
+		}
+		SearchWorkspace workspace = workspaces.get();
+		try {
+			return search(s, t, workspace);
+		}
+		finally {
+			workspace.reset();
+		}
+	}
+
+	/**
+	 * @return ordered list of vertex labels from source to target, empty if no path is found
+	 */
+	@Override
+	public List<String> findPathToTarget(String source, String target) {
+		List<String> path = new LinkedList<>();
+		int s = graph.idOf(source);
+		int t = graph.idOf(target);
+		if(s == CompiledGraph.NOT_FOUND || t == CompiledGraph.NOT_FOUND) {
+			return path;
+		}
+		SearchWorkspace workspace = workspaces.get();
+		try {
+			if(search(s, t, workspace) != INF) {
+				for(int v = t; v != NONE; v = workspace.predecessor(v)) {
+					path.add(0, graph.labelOf(v));
+				}
+			}
+			return path;
+		}
+		finally {
+			workspace.reset();
+		}
+	}
+
+	/**
+	 * Returns the length of the shortest path to target from source, or 0 if target cannot be reached
+	 */
+	@Override
+	public Integer findDistanceToTarget(String source, String target) {
+		int distance = findDistance(source, target);
+		return distance == INF ? 0 : distance;
+	}
+
+	/**
+	 * Searches the whole graph from the source, keeping the result for getTree() on the calling thread only
+	 */
+	@Override
+	public void searchWholeGraph(String source) {
+		trees.set(searchTree(source));
+	}
+
+	/**
+	 * Dijkstra search of the whole graph from the source, the heuristic is not used
+	 * @param source
+	 * @return shortest path tree of the source, null if the source is not in the graph
+	 */
+	public ShortestPathTree searchTree(String source) {
+		int s = graph.idOf(source);
+		if(s == CompiledGraph.NOT_FOUND) {
+			return null;
+		}
+		SearchWorkspace workspace = workspaces.get();
+		try {
+			workspace.lower(s, 0);
+			while(!workspace.queue().isEmpty()) {
+				int u = workspace.queue().pollMin();
+				int uDist = workspace.distance(u);
+				for(int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+					int v = graph.edgeTarget(e);
+					workspace.lower(v, uDist + graph.edgeWeight(e), u, (long) uDist + graph.edgeWeight(e));
+				}
+			}
+			int[] distances = new int[graph.vertexCount()];
+			int[] predecessors = new int[graph.vertexCount()];
+			for(int v = 0; v < distances.length; v++) {
+				distances[v] = workspace.distance(v);
+				predecessors[v] = workspace.predecessor(v);
+			}
+			return new ShortestPathTree(graph, s, distances, predecessors);
+		}
+		finally {
+			workspace.reset();
+		}
+	}
+
+	/**
+	 * @return tree of the calling thread's last searchWholeGraph, null if it has not called it
+	 */
+	public ShortestPathTree getTree() {
+		return trees.get();
+	}
+
+	public CompiledGraph getGraph() {
+		return graph;
+	}
+}
@@ -0,0 +1,107 @@
+package searchAlgorithms;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Completed shortest path tree from a single source over a compiled graph.
+ * Holds the final distance and predecessor of every vertex, so distance and path queries
+ * from the source are answered by walking the tree rather than searching again.
+ *
+ * Instances are immutable once constructed, the arrays passed in must not be written afterwards.
+ * @author watso
+ */
+public final class ShortestPathTree {
+	/**
+	 * RI:
+	 * 	distances.length == predecessors.length == graph.vertexCount()
+	 * 	distances[source] == 0, predecessors[source] == NO_PREDECESSOR
+	 * 	for every reached v != source, distances[v] == distances[p] + weight(p, v) where p == predecessors[v]
+	 * AF:
+	 * 	Represents the shortest paths from source to every vertex reachable from it
+	 * Rep Safety:
+	 * 	arrays are private and only exposed through read-only map views
+	 */
+	private final CompiledGraph graph;
+	private final int source;
+	private final int[] distances;
+	private final int[] predecessors;
+
+	/**
+	 * @param graph - graph the tree was computed on
+	 * @param source - source vertex id
+	 * @param distances - final distance per vertex id, SearchResultMaps.UNREACHED if unreachable
+	 * @param predecessors - predecessor per vertex id, SearchResultMaps.NO_PREDECESSOR for the source and unreachable vertices
+	 */
+	public ShortestPathTree(CompiledGraph graph, int source, int[] distances, int[] predecessors) {
+		this.graph = graph;
+		this.source = source;
+		this.distances = distances;
+		this.predecessors = predecessors;
+	}
+
+	public CompiledGraph getGraph() {
+		return graph;
+	}
+
+	/**
+	 * @return source vertex id
+	 */
+	public int getSource() {
+		return source;
+	}
+
+	/**
+	 * @param vertex - vertex id
+	 * @return shortest distance from the source, SearchResultMaps.UNREACHED if unreachable
+	 */
+	public int distance(int vertex) {
+		return distances[vertex];
+	}
+
+	/**
+	 * @param vertex - vertex id
+	 * @return predecessor id on the shortest path, SearchResultMaps.NO_PREDECESSOR for the source or unreachable vertices
+	 */
+	public int predecessor(int vertex) {
+		return predecessors[vertex];
+	}
+
+	/**
+	 * @param vertex - vertex id
+	 * @return true if the vertex can be reached from the source
+	 */
+	public boolean isReachable(int vertex) {
+		return distances[vertex] != SearchResultMaps.UNREACHED;
+	}
+
+	/**
+	 * @param vertex - vertex id
+	 * @return labels of the path from source to vertex inclusive, empty if the vertex is unreachable
+	 */
+	public List<String> pathTo(int vertex) {
+		List<String> path = new LinkedList<>();
+		if(!isReachable(vertex)) {
+			return path;
+		}
+		for(int v = vertex; v != SearchResultMaps.NO_PREDECESSOR; v = predecessors[v]) {
+			path.add(0, graph.labelOf(v));
+		}
+		return path;
+	}
+
+	/**
+	 * @return read-only view of the reached vertex distances
+	 */
+	public Map<String, Integer> getDistances() {
+		return SearchResultMaps.distances(graph, distances, false);
+	}
+
+	/**
+	 * @return read-only view of the predecessors of reached vertices
+	 */
+	public Map<String, String> getPredecessors() {
+		return SearchResultMaps.predecessors(graph, predecessors);
+	}
+}
@@ -0,0 +1,105 @@
+package searchAlgorithms;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded least recently used cache of completed shortest path trees, keyed by source vertex id.
+ * Trees are only valid for the compiled graph they were built on: a lookup against a different
+ * snapshot clears the cache, so a recompiled graph never serves stale trees.
+ *
+ * This class is not threadsafe
+ * @author watso
+ */
+public class ShortestPathTreeCache {
+	/**
+	 * RI:
+	 * 	trees.size() <= capacity
+	 * 	every tree in trees was computed on graph, and is keyed by its source
+	 * 	hits, misses >= 0
+	 * AF:
+	 * 	Represents the most recently used shortest path trees of one graph snapshot,
+	 * 	with counts of lookups that were and were not answered from the cache
+	 */
+	private final int capacity;
+	private final LinkedHashMap<Integer, ShortestPathTree> trees;
+	private CompiledGraph graph;
+	private long hits;
+	private long misses;
+
+	/**
+	 * @param capacity - maximum number of trees held, > 0
+	 */
+	public ShortestPathTreeCache(int capacity) {
+		if(capacity <= 0) {
+			throw new IllegalArgumentException("Tree cache capacity must be positive: " + capacity);
+		}
+		this.capacity = capacity;
+		//access ordered, so the eldest entry is the least recently used
+		this.trees = new LinkedHashMap<Integer, ShortestPathTree>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Integer, ShortestPathTree> eldest) {
+				return size() > ShortestPathTreeCache.this.capacity;
+			}
+		};
+	}
+
+	/**
+	 * Looks up the tree for a source, counting a hit or miss
+	 * @param graph - snapshot the caller is searching
+	 * @param source - source vertex id
+	 * @return cached tree, or null if not cached
+	 */
+	public ShortestPathTree get(CompiledGraph graph, int source) {
+		checkGraph(graph);
+		ShortestPathTree tree = trees.get(source);
+		if(tree == null) {
+			misses++;
+		}
+		else {
+			hits++;
+		}
+		return tree;
+	}
+
+	/**
+	 * Adds a completed tree, evicting the least recently used tree if full
+	 * @param tree
+	 */
+	public void put(ShortestPathTree tree) {
+		checkGraph(tree.getGraph());
+		trees.put(tree.getSource(), tree);
+	}
+
+	/**
+	 * Removes all trees, hit and miss counts are kept
+	 */
+	public void clear() {
+		trees.clear();
+	}
+
+	public int size() {
+		return trees.size();
+	}
+
+	public int capacity() {
+		return capacity;
+	}
+
+	public long hits() {
+		return hits;
+	}
+
+	public long misses() {
+		return misses;
+	}
+
+	private void checkGraph(CompiledGraph graph) {
+		if(this.graph != graph) {
+			trees.clear();
+			this.graph = graph;
+		}
+	}
+}
@@ -0,0 +1,92 @@
+package searchAlgorithms;
+
+import java.util.Arrays;
+
+/**
+ * Children of every vertex of a shortest path tree given by a predecessor array, as linked sibling lists,
+ * so a subtree can be walked in the time of its size and a vertex moved to another parent in O(1).
+ * This class is not threadsafe
+ * @author watso
+ */
+public final class TreeChildIndex {
+	/**
+	 * RI:
+	 * 	every vertex v with parent p != NONE is in exactly the list of p, which starts at firstChild[p]
+	 * 	and is linked by nextSibling, previousSibling[v] is the vertex before v in it, NONE if v is first
+	 */
+	private static final int NONE = SearchResultMaps.NO_PREDECESSOR;
+
+	private final int[] firstChild;
+	private final int[] nextSibling;
+	private final int[] previousSibling;
+
+	/**
+	 * @param vertexCount - number of vertex ids the index holds
+	 */
+	public TreeChildIndex(int vertexCount) {
+		this.firstChild = new int[vertexCount];
+		this.nextSibling = new int[vertexCount];
+		this.previousSibling = new int[vertexCount];
+	}
+
+	public int capacity() {
+		return firstChild.length;
+	}
+
+	/**
+	 * Indexes the tree of the predecessor array from scratch
+	 * @param predecessors - parent of each vertex, NONE for the root and unreached vertices
+	 */
+	public void rebuild(int[] predecessors) {
+		Arrays.fill(firstChild, NONE);
+		for(int v = predecessors.length - 1; v >= 0; v--) {	//backwards, so children are listed in id order
+			if(predecessors[v] != NONE) {
+				link(v, predecessors[v]);
+			}
+		}
+	}
+
+	/**
+	 * Adds a vertex that has no parent to the children of parent
+	 */
+	public void link(int vertex, int parent) {
+		int first = firstChild[parent];
+		previousSibling[vertex] = NONE;
+		nextSibling[vertex] = first;
+		if(first != NONE) {
+			previousSibling[first] = vertex;
+		}
+		firstChild[parent] = vertex;
+	}
+
+	/**
+	 * Removes a vertex from the children of its parent
+	 */
+	public void unlink(int vertex, int parent) {
+		int previous = previousSibling[vertex];
+		int next = nextSibling[vertex];
+		if(previous == NONE) {
+			firstChild[parent] = next;
+		}
+		else {
+			nextSibling[previous] = next;
+		}
+		if(next != NONE) {
+			previousSibling[next] = previous;
+		}
+	}
+
+	/**
+	 * @return first child of the vertex, NONE if it has none
+	 */
+	public int firstChild(int vertex) {
+		return firstChild[vertex];
+	}
+
+	/**
+	 * @return next child of the vertex's parent, NONE after the last
+	 */
+	public int nextSibling(int vertex) {
+		return nextSibling[vertex];
+	}
+}
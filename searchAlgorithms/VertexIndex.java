@@ -0,0 +1,74 @@
+package searchAlgorithms;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Symbol table between String vertex labels and dense integer ids [0, size).
+ * Ids are assigned in order of first request and are never reused or changed, so
+ * an index can be kept across searches of the same graph and used to address
+ * array based search state such as the IndexedDaryHeap frontier.
+ *
+ * This class is not threadsafe
+ * @author watso
+ */
+public class VertexIndex {
+	/**
+	 * RI:
+	 * 	labels.get(ids.get(label)) == label for every label in ids
+	 * 	ids.size() == labels.size()
+	 * AF:
+	 * 	Represents a bijection between the labels seen so far and [0, size)
+	 */
+	public static final int NOT_FOUND = -1;
+
+	private final Map<String, Integer> ids;
+	private final List<String> labels;
+
+	public VertexIndex() {
+		this.ids = new HashMap<>();
+		this.labels = new ArrayList<>();
+	}
+
+	/**
+	 * Returns the id of a label, assigning the next free id if the label is new
+	 * @param label
+	 * @return id of the label
+	 */
+	public int idOf(String label) {
+		Integer id = ids.get(label);
+		if(id == null) {
+			id = labels.size();
+			ids.put(label, id);
+			labels.add(label);
+		}
+		return id;
+	}
+
+	/**
+	 * Looks up a label without assigning a new id
+	 * @param label
+	 * @return id of the label, or NOT_FOUND if it has not been indexed
+	 */
+	public int find(String label) {
+		Integer id = ids.get(label);
+		return id == null ? NOT_FOUND : id;
+	}
+
+	/**
+	 * @param id - previously assigned id
+	 * @return label for that id
+	 */
+	public String labelOf(int id) {
+		return labels.get(id);
+	}
+
+	/**
+	 * @return number of labels indexed
+	 */
+	public int size() {
+		return labels.size();
+	}
+}
@@ -0,0 +1,34 @@
+package searchAlgorithms;
+
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Immutable path through a graph with its total weight, as returned by ranked path queries.
+ * @author watso
+ */
+public class WeightedPath {
+	public final int distance;
+	private final List<String> path;	//source first
+
+	/**
+	 * @param distance - sum of the edge weights along the path
+	 * @param path - vertex labels, source first
+	 */
+	public WeightedPath(int distance, List<String> path) {
+		this.distance = distance;
+		this.path = path;
+	}
+
+	/**
+	 * @return copy of the vertex labels of the path, source first
+	 */
+	public List<String> getPath() {
+		return new LinkedList<>(path);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%d: %s", distance, path);
+	}
+}
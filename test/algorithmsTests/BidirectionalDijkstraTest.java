@@ -0,0 +1,60 @@
+package algorithmsTests;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import graph.Graph;
+import searchAlgorithms.BidirectionalDijkstraSearch;
+import searchAlgorithms.DijkstraSearch;
+
+class BidirectionalDijkstraTest {
+
+	@Test
+	public void testPathsMatchDijkstra() {
+		Random random = new Random(23);
+		for(int size: new int[] {2, 15, 40}) {
+			Graph<String> grid = TestGraphs.grid(size, random, 1, 100000);	//wide weights, so shortest paths do not tie
+			DijkstraSearch dijkstra = new DijkstraSearch(grid);
+			BidirectionalDijkstraSearch bidirectional = new BidirectionalDijkstraSearch(grid);
+			for(int i = 0; i < 100; i++) {
+				String source = random.nextInt(size) + "," + random.nextInt(size);
+				String target = random.nextInt(size) + "," + random.nextInt(size);
+				List<String> expected = dijkstra.findPathToTarget(source, target);
+				assertTrue(bidirectional.findPathToTarget(source, target).equals(expected));
+				assertTrue(bidirectional.findDistanceToTarget(source, target).equals(dijkstra.findDistanceToTarget(source, target)));
+				assertTrue(bidirectional.getSettledCount() <= size * size);
+			}
+		}
+	}
+
+	@Test
+	public void testUnreachableSameAndMissingVertices() {
+		Graph<String> grid = TestGraphs.grid(10, new Random(24), 1, 20);
+		grid.add("island");
+		BidirectionalDijkstraSearch bidirectional = new BidirectionalDijkstraSearch(grid);
+		assertTrue(!bidirectional.searchForTarget("0,0", "island"));
+		assertTrue(bidirectional.findPathToTarget("0,0", "island").isEmpty());
+		assertTrue(bidirectional.findDistanceToTarget("island", "0,0") == 0);
+
+		assertTrue(bidirectional.searchForTarget("4,4", "4,4"));
+		assertTrue(bidirectional.findPathToTarget("4,4", "4,4").equals(List.of("4,4")));
+		assertTrue(bidirectional.findDistanceToTarget("4,4", "4,4") == 0);
+		assertTrue(bidirectional.findPathToTarget("island", "island").equals(List.of("island")));
+
+		assertTrue(!bidirectional.searchForTarget("0,0", "missing") && !bidirectional.searchForTarget("missing", "0,0"));
+		assertTrue(bidirectional.findPathToTarget("missing", "0,0").isEmpty());
+		assertTrue(bidirectional.findDistanceToTarget("0,0", "missing") == 0);
+
+		//a vertex added after construction is only searched after refresh
+		grid.set("island", "9,9", 5);
+		assertTrue(!bidirectional.searchForTarget("0,0", "island"));
+		bidirectional.refresh();
+		DijkstraSearch dijkstra = new DijkstraSearch(grid);
+		assertTrue(bidirectional.findPathToTarget("0,0", "island").equals(dijkstra.findPathToTarget("0,0", "island")));
+		assertTrue(bidirectional.findDistanceToTarget("0,0", "island").equals(dijkstra.findDistanceToTarget("0,0", "island")));
+	}
+}
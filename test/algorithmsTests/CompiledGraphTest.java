@@ -0,0 +1,67 @@
+package algorithmsTests;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import graph.Graph;
+import searchAlgorithms.CompiledGraph;
+import undirectedWeightedGraph.UndirectedWeightedGraph;
+
+class CompiledGraphTest {
+	String v1 = "v1";
+	String v2 = "v2";
+	String v3 = "v3";
+	String v4 = "v4";
+
+	@Test
+	public void testCompiledEdgesMatchGraph() {
+		Graph<String> gr1 = UndirectedWeightedGraph.empty();
+		gr1.add(v1);
+		gr1.add(v2);
+		gr1.add(v3);
+		gr1.add(v4);	//isolated vertex
+
+		gr1.set(v1, v2, 1);
+		gr1.set(v1, v3, 2);
+		gr1.set(v2, v3, 7);
+
+		CompiledGraph compiled = CompiledGraph.compile(gr1);
+		assertTrue(compiled.vertexCount() == 4);
+		assertTrue(compiled.edgeCount() == 6);
+		assertTrue(compiled.maxWeight() == 7);
+		assertTrue(compiled.idOf("missing") == CompiledGraph.NOT_FOUND);
+
+		for(String vertex: gr1.vertices()) {
+			int id = compiled.idOf(vertex);
+			assertTrue(compiled.labelOf(id).equals(vertex));
+			Map<String, Integer> edges = new HashMap<>();
+			for(int e = compiled.firstEdge(id); e < compiled.endEdge(id); e++) {
+				edges.put(compiled.labelOf(compiled.edgeTarget(e)), compiled.edgeWeight(e));
+			}
+			assertTrue(edges.equals(gr1.targets(vertex)));
+		}
+	}
+
+	@Test
+	public void testReverse() {
+		Graph<String> gr1 = Graph.empty();
+		gr1.add(v1);
+		gr1.add(v2);
+		gr1.add(v3);
+		gr1.set(v1, v2, 4);
+		gr1.set(v3, v2, 5);
+
+		CompiledGraph reverse = CompiledGraph.compile(gr1).reverse();
+		int id = reverse.idOf(v2);
+		Map<String, Integer> edges = new HashMap<>();
+		for(int e = reverse.firstEdge(id); e < reverse.endEdge(id); e++) {
+			edges.put(reverse.labelOf(reverse.edgeTarget(e)), reverse.edgeWeight(e));
+		}
+		assertTrue(edges.equals(gr1.sources(v2)));
+		assertTrue(reverse.firstEdge(reverse.idOf(v1)) == reverse.endEdge(reverse.idOf(v1)));
+	}
+}
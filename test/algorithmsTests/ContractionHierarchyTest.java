@@ -0,0 +1,88 @@
+package algorithmsTests;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import contractionHierarchies.ContractionHierarchy;
+import contractionHierarchies.ContractionHierarchyBuilder;
+import contractionHierarchies.ContractionHierarchySearch;
+import graph.Graph;
+import searchAlgorithms.DijkstraSearch;
+import undirectedWeightedGraph.UndirectedWeightedGraph;
+
+class ContractionHierarchyTest {
+	String v1 = "v1";
+	String v2 = "v2";
+	String v3 = "v3";
+	String v4 = "v4";
+	String v5 = "v5";
+
+	@Test
+	public void testFindPath() {
+		Graph<String> gr1 = UndirectedWeightedGraph.empty();
+		gr1.add(v1);
+		gr1.add(v2);
+		gr1.add(v3);
+		gr1.add(v4);
+		gr1.add(v5);
+		/**
+		 * v1--2--v2--3----------v3
+		 * 		--1--v4--1--v5--1^
+		 */
+		gr1.set(v1, v2, 2);
+		gr1.set(v2, v3, 3);
+		gr1.set(v1, v4, 1);
+		gr1.set(v4, v5, 1);
+		gr1.set(v5, v3, 1);
+
+		ContractionHierarchySearch chTest = new ContractionHierarchySearch(new ContractionHierarchyBuilder(gr1).build());
+		assertTrue(chTest.findPathToTarget(v1, v3).equals(Arrays.asList(v1,v4,v5,v3)));
+		assertTrue(chTest.findDistanceToTarget(v1, v3).equals(3));
+		assertTrue(chTest.findPathToTarget(v2, v2).equals(Arrays.asList(v2)));
+		assertTrue(chTest.findPathToTarget(v1, "missing").isEmpty());
+	}
+
+	@Test
+	public void testMatchesDijkstraOnRandomGraph() {
+		Random random = new Random(7);
+		Graph<String> gr1 = Graph.empty();	//directed
+		int vertexCount = 300;
+		for(int v = 0; v < vertexCount; v++) {
+			gr1.add("v" + v);
+		}
+		for(int i = 0; i < 1200; i++) {
+			int u = random.nextInt(vertexCount);
+			int v = random.nextInt(vertexCount);
+			if(u != v) {
+				gr1.set("v" + u, "v" + v, 1 + random.nextInt(50));
+			}
+		}
+		ContractionHierarchyBuilder builder = new ContractionHierarchyBuilder(gr1);
+		builder.setWitnessSettleLimit(20);
+		ContractionHierarchy hierarchy = builder.build();
+		ContractionHierarchySearch chTest = new ContractionHierarchySearch(hierarchy);
+		DijkstraSearch djTest = new DijkstraSearch(gr1);
+
+		for(int i = 0; i < 500; i++) {
+			String source = "v" + random.nextInt(vertexCount);
+			String target = "v" + random.nextInt(vertexCount);
+			boolean found = djTest.searchForTarget(source, target);
+			assertTrue(chTest.searchForTarget(source, target) == found);
+			assertTrue(chTest.findDistanceToTarget(source, target).equals(djTest.findDistanceToTarget(source, target)));
+			if(found) {
+				List<String> path = chTest.findPathToTarget(source, target);
+				int length = 0;
+				for(int j = 0; j + 1 < path.size(); j++) {
+					length += gr1.targets(path.get(j)).get(path.get(j + 1));
+				}
+				assertTrue(path.get(0).equals(source) && path.get(path.size() - 1).equals(target));
+				assertTrue(length == djTest.findDistanceToTarget(source, target));
+			}
+		}
+	}
+}
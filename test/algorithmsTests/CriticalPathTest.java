@@ -0,0 +1,86 @@
+package algorithmsTests;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import graph.Graph;
+import searchAlgorithms.CompiledGraph;
+import searchAlgorithms.CriticalPath;
+import searchAlgorithms.DFSForTopologicalSortedDAGs;
+
+class CriticalPathTest {
+
+	@Test
+	public void testSmallProject() {
+		Graph<String> graph = Graph.empty();
+		//added out of topological order on purpose
+		graph.add("end");
+		graph.add("b");
+		graph.add("a");
+		graph.add("start");
+		graph.set("start", "a", 3);
+		graph.set("start", "b", 2);
+		graph.set("a", "end", 4);
+		graph.set("b", "end", 1);
+		CriticalPath schedule = DFSForTopologicalSortedDAGs.criticalPath(graph);
+		CompiledGraph compiled = schedule.getGraph();
+		assertTrue(schedule.length() == 7 && DFSForTopologicalSortedDAGs.longestPath(graph) == 7);
+		assertTrue(schedule.path().equals(List.of("start", "a", "end")));
+		assertTrue(schedule.slack(compiled.idOf("b")) == 4);
+		assertTrue(schedule.earliestStart(compiled.idOf("b")) == 2 && schedule.latestStart(compiled.idOf("b")) == 6);
+		assertTrue(schedule.getEarliestStarts().get("end") == 7 && schedule.getLatestStarts().get("start") == 0);
+
+		graph.set("end", "start", 1);
+		try {
+			DFSForTopologicalSortedDAGs.criticalPath(graph);
+			assertTrue(false);
+		}
+		catch(IllegalArgumentException e) {
+			//expected, the graph now has a cycle
+		}
+	}
+
+	@Test
+	public void testRandomDagSchedule() {
+		Random random = new Random(24);
+		Graph<String> graph = Graph.empty();
+		int vertexCount = 300;
+		for(int v = vertexCount - 1; v >= 0; v--) {
+			graph.add("t" + v);
+		}
+		for(int i = 0; i < 1500; i++) {
+			int u = random.nextInt(vertexCount);
+			int v = random.nextInt(vertexCount);
+			if(u < v) {
+				graph.set("t" + u, "t" + v, 1 + random.nextInt(10));
+			}
+		}
+		CompiledGraph compiled = CompiledGraph.compile(graph);
+		int[] order = DFSForTopologicalSortedDAGs.topologicalOrder(compiled);
+		int[] position = new int[vertexCount];
+		for(int i = 0; i < order.length; i++) {
+			position[order[i]] = i;
+		}
+		CriticalPath schedule = DFSForTopologicalSortedDAGs.criticalPath(compiled);
+		for(int u = 0; u < vertexCount; u++) {
+			assertTrue(schedule.slack(u) >= 0 && schedule.latestStart(u) <= schedule.length());
+			for(int e = compiled.firstEdge(u); e < compiled.endEdge(u); e++) {
+				int v = compiled.edgeTarget(e);
+				assertTrue(position[u] < position[v]);
+				assertTrue(schedule.earliestStart(v) >= schedule.earliestStart(u) + compiled.edgeWeight(e));
+				assertTrue(schedule.latestStart(u) <= schedule.latestStart(v) - compiled.edgeWeight(e));
+			}
+		}
+		List<String> path = schedule.path();
+		int length = 0;
+		for(int i = 0; i + 1 < path.size(); i++) {
+			length += graph.targets(path.get(i)).get(path.get(i + 1));
+			assertTrue(schedule.slack(compiled.idOf(path.get(i))) == 0);
+		}
+		assertTrue(length == schedule.length());
+	}
+}
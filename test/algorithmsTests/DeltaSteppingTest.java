@@ -0,0 +1,62 @@
+package algorithmsTests;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import graph.Graph;
+import searchAlgorithms.CompiledGraph;
+import searchAlgorithms.DeltaSteppingSearch;
+import searchAlgorithms.DijkstraSearch;
+
+class DeltaSteppingTest {
+
+	@Test
+	public void testMatchesDijkstra() {
+		Random random = new Random(3);
+		Graph<String> gr1 = Graph.empty();	//directed
+		int vertexCount = 500;
+		for(int v = 0; v < vertexCount; v++) {
+			gr1.add("v" + v);
+		}
+		for(int i = 0; i < 2500; i++) {
+			int u = random.nextInt(vertexCount);
+			int v = random.nextInt(vertexCount);
+			if(u != v) {
+				gr1.set("v" + u, "v" + v, 1 + random.nextInt(40));
+			}
+		}
+		CompiledGraph compiled = CompiledGraph.compile(gr1);
+		DijkstraSearch djTest = new DijkstraSearch(compiled);
+		DeltaSteppingSearch dsTest = new DeltaSteppingSearch(compiled, new ForkJoinPool(4));
+
+		for(int delta: new int[] {1, 7, dsTest.getDelta(), 100}) {
+			dsTest.setDelta(delta);
+			for(int i = 0; i < 5; i++) {
+				String source = "v" + random.nextInt(vertexCount);
+				djTest.searchWholeGraph(source);
+				dsTest.searchWholeGraph(source);
+				Map<String, Integer> distances = dsTest.getDistances();
+				assertTrue(distances.equals(djTest.getDistances()));
+				//every predecessor is on a shortest path
+				for(Map.Entry<String, String> entry: dsTest.getPredecessors().entrySet()) {
+					int edge = gr1.targets(entry.getValue()).get(entry.getKey());
+					assertTrue(distances.get(entry.getValue()) + edge == distances.get(entry.getKey()));
+				}
+			}
+		}
+
+		String target = "v" + random.nextInt(vertexCount);
+		if(djTest.searchForTarget("v0", target)) {
+			List<String> path = dsTest.findPathToTarget("v0", target);
+			assertTrue(path.get(0).equals("v0") && path.get(path.size() - 1).equals(target));
+			assertTrue(dsTest.findDistanceToTarget("v0", target).equals(djTest.findDistanceToTarget("v0", target)));
+		}
+		assertTrue(!dsTest.searchForTarget("v0", "missing"));
+	}
+}
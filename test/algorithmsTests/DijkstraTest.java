@@ -173,4 +173,92 @@ class DijkstraTest {
 		assertTrue(djTest.findDistanceToTarget(v3, v5).equals(0));
 	}
 	
+	@Test
+	public void testLazyMatchesEager() {
+		Graph<String> gr1 = UndirectedWeightedGraph.empty();
+		String v6 = "v6";
+		gr1.add(v6);	//unreachable from the rest
+		/**
+		 * v1--2--v2--4----------v3
+		 * 		--1--v4--1--v5--1^
+		 * no two paths to a vertex tie, so both modes pick the same predecessors
+		 */
+		gr1.set(v1, v2, 2);
+		gr1.set(v2, v3, 4);
+		gr1.set(v1, v4, 1);
+		gr1.set(v4, v5, 1);
+		gr1.set(v5, v3, 1);
+		
+		DijkstraSearch lazy = new DijkstraSearch(gr1);	//lazy by default
+		DijkstraSearch eager = new DijkstraSearch(gr1);
+		eager.setLazyInitialisation(false);
+		for(String source: new String[] {v1, v2, v3, v4, v5}) {
+			lazy.searchWholeGraph(source);
+			eager.searchWholeGraph(source);
+			Map<String, Integer> lazyDistances = lazy.getDistances();
+			Map<String, Integer> eagerDistances = eager.getDistances();
+			
+			//eager keeps unreached vertices at MAX_VALUE, lazy leaves them out
+			assertTrue(eagerDistances.get(v6) == Integer.MAX_VALUE);
+			assertTrue(!lazyDistances.containsKey(v6));
+			assertTrue(lazyDistances.size() == 5 && eagerDistances.size() == 6);
+			for(String vertex: lazyDistances.keySet()) {
+				assertTrue(lazyDistances.get(vertex).equals(eagerDistances.get(vertex)));
+			}
+			assertTrue(lazy.getPredecessors().equals(eager.getPredecessors()));
+			
+			for(String target: new String[] {v1, v2, v3, v4, v5, v6}) {
+				assertTrue(lazy.findPathToTarget(source, target).equals(eager.findPathToTarget(source, target)));
+				assertTrue(lazy.findDistanceToTarget(source, target).equals(eager.findDistanceToTarget(source, target)));
+			}
+		}
+		assertTrue(lazy.findPathToTarget(v1, v3).equals(Arrays.asList(v1,v4,v5,v3)));
+		assertTrue(lazy.findPathToTarget(v1, v6).isEmpty());
+		
+		//a lazy target search only has the vertices it reached
+		assertTrue(lazy.searchForTarget(v4, v1));
+		assertTrue(!lazy.getDistances().containsKey(v6) && lazy.getDistances().get(v1) == 1);
+	}
+	
+	@Test
+	public void testTreeCache() {
+		Graph<String> gr1 = UndirectedWeightedGraph.empty();
+		gr1.add(v1);
+		gr1.add(v2);
+		gr1.add(v3);
+		gr1.add(v4);
+		gr1.add(v5);
+		/**
+		 * v1--2--v2--3----------v3
+		 * 		--1--v4--1--v5--1^
+		 */
+		gr1.set(v1, v2, 2);
+		gr1.set(v2, v3, 3);
+		gr1.set(v1, v4, 1);
+		gr1.set(v4, v5, 1);
+		gr1.set(v5, v3, 1);
+		
+		DijkstraSearch djTest = new DijkstraSearch(gr1);
+		djTest.setTreeCacheCapacity(1);
+		
+		assertTrue(djTest.findPathToTarget(v1, v3).equals(Arrays.asList(v1,v4,v5,v3)));
+		assertTrue(djTest.findDistanceToTarget(v1, v2).equals(2));
+		assertTrue(djTest.findDistanceToTarget(v1, v5).equals(2));
+		assertTrue(djTest.getTreeCache().misses() == 1);
+		assertTrue(djTest.getTreeCache().hits() == 2);
+		
+		//new source evicts the v1 tree
+		assertTrue(djTest.findDistanceToTarget(v3, v1).equals(3));
+		assertTrue(djTest.findDistanceToTarget(v1, v3).equals(3));
+		assertTrue(djTest.getTreeCache().misses() == 3);
+		assertTrue(djTest.getTreeCache().size() == 1);
+		
+		//graph change is picked up after refresh
+		gr1.set(v1, v3, 1);
+		djTest.refresh();
+		assertTrue(djTest.getTreeCache().size() == 0);
+		assertTrue(djTest.findDistanceToTarget(v1, v3).equals(1));
+		assertTrue(djTest.findPathToTarget(v1, v3).equals(Arrays.asList(v1,v3)));
+	}
+	
 }
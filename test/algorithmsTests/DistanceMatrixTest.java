@@ -0,0 +1,57 @@
+package algorithmsTests;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import graph.Graph;
+import searchAlgorithms.CompiledGraph;
+import searchAlgorithms.DijkstraSearch;
+import searchAlgorithms.DistanceMatrix;
+import searchAlgorithms.SearchResultMaps;
+
+class DistanceMatrixTest {
+
+	@Test
+	public void testMatchesDijkstra() {
+		Random random = new Random(5);
+		Graph<String> gr1 = Graph.empty();	//directed
+		int vertexCount = 200;
+		for(int v = 0; v < vertexCount; v++) {
+			gr1.add("v" + v);
+		}
+		for(int i = 0; i < 700; i++) {
+			int u = random.nextInt(vertexCount);
+			int v = random.nextInt(vertexCount);
+			if(u != v) {
+				gr1.set("v" + u, "v" + v, 1 + random.nextInt(20));
+			}
+		}
+		List<String> sources = new ArrayList<>();
+		List<String> targets = new ArrayList<>();
+		for(int i = 0; i < 30; i++) {
+			sources.add("v" + random.nextInt(vertexCount));
+			targets.add("v" + random.nextInt(vertexCount));
+		}
+		sources.add("missing");
+		targets.add("missing");
+
+		CompiledGraph compiled = CompiledGraph.compile(gr1);
+		int[][] matrix = new DistanceMatrix(compiled, new ForkJoinPool(4)).compute(sources, targets);
+		DijkstraSearch djTest = new DijkstraSearch(compiled);
+		assertTrue(matrix.length == sources.size());
+		for(int i = 0; i < sources.size(); i++) {
+			assertTrue(matrix[i].length == targets.size());
+			for(int j = 0; j < targets.size(); j++) {
+				int expected = djTest.searchForTarget(sources.get(i), targets.get(j))
+						? djTest.findDistanceToTarget(sources.get(i), targets.get(j)) : SearchResultMaps.UNREACHED;
+				assertTrue(matrix[i][j] == expected);
+			}
+		}
+	}
+}
@@ -0,0 +1,108 @@
+package algorithmsTests;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import graph.Graph;
+import searchAlgorithms.DijkstraSearch;
+import searchAlgorithms.EdgeChange;
+
+class DynamicDijkstraTest {
+
+	@Test
+	public void testRepairMatchesFreshSearch() {
+		Random random = new Random(16);
+		int size = 30;
+		Graph<String> grid = TestGraphs.grid(size, random, 1, 50);
+		DijkstraSearch search = new DijkstraSearch(grid);
+		search.searchWholeGraph("0,0");
+		for(int round = 0; round < 30; round++) {
+			Map<String, Integer> before = new HashMap<>(search.getDistances());
+			List<EdgeChange> changes = new ArrayList<>();
+			for(int i = 0; i < 4; i++) {
+				int x = random.nextInt(size);
+				int y = random.nextInt(size - 1);
+				String from = x + "," + y;
+				String to = random.nextBoolean() ? x + "," + (y + 1) : (x + 1) % size + "," + y;	//wraps round to insert edges
+				if(from.equals(to)) {
+					continue;
+				}
+				int weight = random.nextInt(5) == 0 ? EdgeChange.REMOVED : 1 + random.nextInt(80);
+				grid.set(from, to, weight);
+				changes.add(new EdgeChange(from, to, weight));	//undirected, so both directions change
+				changes.add(new EdgeChange(to, from, weight));
+			}
+			int changed = search.applyEdgeChanges(changes);
+			DijkstraSearch fresh = new DijkstraSearch(grid);
+			fresh.searchWholeGraph("0,0");
+			Map<String, Integer> expected = fresh.getDistances();
+			Map<String, Integer> repaired = search.getDistances();
+			assertTrue(repaired.equals(expected));
+			int differences = 0;
+			for(String vertex: grid.vertices()) {
+				Integer old = before.get(vertex);
+				if(old == null ? expected.containsKey(vertex) : !old.equals(expected.get(vertex))) {
+					differences++;
+				}
+			}
+			assertTrue(changed == differences);
+			assertTrue(search.getSettledCount() < size * size);
+		}
+	}
+
+	@Test
+	public void testRepairWorkScalesWithTheChange() {
+		Random random = new Random(26);
+		int size = 120;
+		Graph<String> grid = TestGraphs.grid(size, random, 1, 50);
+		DijkstraSearch search = new DijkstraSearch(grid);
+		search.searchWholeGraph("0,0");
+		grid.set("0,0", "1,0", 1);
+		search.applyEdgeChanges(List.of(new EdgeChange("0,0", "1,0", 1), new EdgeChange("1,0", "0,0", 1)));
+		assertTrue(search.getRepairWork() >= size * size);	//the first repair indexes the tree
+		long totalWork = 0;
+		for(int round = 0; round < 200; round++) {
+			int x = random.nextInt(size - 1);
+			int y = random.nextInt(size);
+			String from = x + "," + y;
+			String to = (x + 1) + "," + y;
+			int weight = 1 + random.nextInt(50);
+			grid.set(from, to, weight);
+			search.applyEdgeChanges(List.of(new EdgeChange(from, to, weight), new EdgeChange(to, from, weight)));
+			//every vertex a weight change touches is settled again, and each has at most 4 edges each way
+			assertTrue(search.getRepairWork() <= 2 + 9 * search.getSettledCount());
+			totalWork += search.getRepairWork();
+		}
+		assertTrue(totalWork / 200 < size * size / 20);
+		DijkstraSearch fresh = new DijkstraSearch(grid);
+		fresh.searchWholeGraph("0,0");
+		assertTrue(search.getDistances().equals(fresh.getDistances()));
+	}
+
+	@Test
+	public void testChangesWithoutWholeGraphSearch() {
+		Graph<String> grid = TestGraphs.grid(5, new Random(17), 1, 50);
+		DijkstraSearch search = new DijkstraSearch(grid);
+		List<EdgeChange> changes = new ArrayList<>();
+		changes.add(new EdgeChange("0,0", "1,0", EdgeChange.REMOVED));
+		changes.add(new EdgeChange("1,0", "0,0", EdgeChange.REMOVED));
+		changes.add(new EdgeChange("0,0", "0,1", EdgeChange.REMOVED));
+		changes.add(new EdgeChange("0,1", "0,0", EdgeChange.REMOVED));
+		assertTrue(search.applyEdgeChanges(changes) == 0);
+		assertTrue(search.findPathToTarget("0,0", "4,4").isEmpty());	//later searches see the changed snapshot
+		try {
+			search.applyEdgeChanges(List.of(new EdgeChange("0,0", "9,9", 1)));
+			assertTrue(false);
+		}
+		catch(IllegalArgumentException e) {
+			//expected, 9,9 is not in the snapshot
+		}
+	}
+}
@@ -0,0 +1,62 @@
+package algorithmsTests;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import graph.Graph;
+import searchAlgorithms.AStarSearch;
+import searchAlgorithms.CompiledGraph;
+import searchAlgorithms.DijkstraSearch;
+import searchAlgorithms.GridCoordinateIndex;
+import searchAlgorithms.VertexIndex;
+
+class GridCoordinateIndexTest {
+
+	@Test
+	public void testParsesLabels() {
+		VertexIndex index = new VertexIndex();
+		GridCoordinateIndex coordinates = GridCoordinateIndex.over(index);
+		int a = index.idOf("3,4");
+		int b = index.idOf("-12,700");
+		assertTrue(coordinates.x(a) == 3 && coordinates.y(a) == 4);
+		assertTrue(coordinates.x(b) == -12 && coordinates.y(b) == 700);
+		assertTrue(coordinates.packed(b) == GridCoordinateIndex.pack(-12, 700));
+		int c = index.idOf("v1");
+		assertThrows(IllegalArgumentException.class, () -> coordinates.x(c));
+
+		//packs to Long.MIN_VALUE, which must read as loaded like any other co-ordinate
+		int d = index.idOf(Integer.MIN_VALUE + ",0");
+		assertTrue(coordinates.packed(d) == Long.MIN_VALUE && coordinates.x(d) == Integer.MIN_VALUE && coordinates.y(d) == 0);
+		for(int i = 0; i < 40; i++) {
+			index.idOf(i + ",-" + i);	//grows the index past its first capacity
+		}
+		assertTrue(coordinates.x(index.idOf("39,-39")) == 39 && coordinates.x(d) == Integer.MIN_VALUE);
+	}
+
+	@Test
+	public void testAStarOnGridMatchesDijkstra() {
+		Random random = new Random(2);
+		int size = 30;
+		Graph<String> gr1 = TestGraphs.grid(size, random, 1, 5);
+		CompiledGraph compiled = CompiledGraph.compile(gr1);
+		AStarSearch aStarTest = new AStarSearch(compiled);
+		DijkstraSearch djTest = new DijkstraSearch(compiled);
+		for(int i = 0; i < 100; i++) {
+			String source = random.nextInt(size) + "," + random.nextInt(size);
+			String target = random.nextInt(size) + "," + random.nextInt(size);
+			assertTrue(aStarTest.searchForTarget(source, target));
+			List<String> path = aStarTest.getPathToTarget();
+			int length = 0;
+			for(int j = 0; j + 1 < path.size(); j++) {
+				length += gr1.targets(path.get(j)).get(path.get(j + 1));
+			}
+			assertTrue(path.get(0).equals(source) && path.get(path.size() - 1).equals(target));
+			assertTrue(length == djTest.findDistanceToTarget(source, target));
+		}
+	}
+}
@@ -0,0 +1,116 @@
+package algorithmsTests;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import graph.Graph;
+import hierarchicalPathfinding.ClusterGraph;
+import hierarchicalPathfinding.HierarchicalSearch;
+import searchAlgorithms.DijkstraSearch;
+import undirectedWeightedGraph.UndirectedWeightedGraph;
+
+class HierarchicalSearchTest {
+
+	@Test
+	public void testPathsAreValidAndNearOptimal() {
+		Random random = new Random(21);
+		Graph<String> grid = TestGraphs.obstacleGrid(60, 15, random);
+		ClusterGraph clusters = new ClusterGraph(grid, 8);
+		assertTrue(clusters.clusterCount() == 64);
+		HierarchicalSearch hpaTest = new HierarchicalSearch(clusters);
+		DijkstraSearch djTest = new DijkstraSearch(grid);
+		Object[] vertices = grid.vertices().toArray();
+		long found = 0;
+		long optimal = 0;
+		for(int i = 0; i < 200; i++) {
+			String source = (String) vertices[random.nextInt(vertices.length)];
+			String target = (String) vertices[random.nextInt(vertices.length)];
+			List<String> djPath = djTest.findPathToTarget(source, target);
+			List<String> path = hpaTest.findPathToTarget(source, target);
+			if(djPath.isEmpty()) {
+				assertTrue(path.isEmpty());
+				continue;
+			}
+			assertTrue(path.get(0).equals(source) && path.get(path.size() - 1).equals(target));
+			int length = 0;
+			for(int j = 0; j + 1 < path.size(); j++) {
+				length += grid.targets(path.get(j)).get(path.get(j + 1));
+			}
+			int shortest = djTest.findDistanceToTarget(source, target);
+			assertTrue(length == hpaTest.findDistanceToTarget(source, target));
+			assertTrue(length >= shortest);
+			found += length;
+			optimal += shortest;
+		}
+		assertTrue(found <= optimal * 1.1);
+	}
+
+	@Test
+	public void testCellChangedMatchesRebuild() {
+		Random random = new Random(8);
+		Graph<String> grid = TestGraphs.obstacleGrid(40, 10, random);
+		ClusterGraph clusters = new ClusterGraph(grid, 8);
+		HierarchicalSearch hpaTest = new HierarchicalSearch(clusters);
+		for(int i = 0; i < 30; i++) {
+			String cell = random.nextInt(40) + "," + random.nextInt(40);
+			if(grid.vertices().contains(cell)) {
+				grid.remove(cell);
+			}
+			else {
+				int x = Integer.parseInt(cell.split(",")[0]);
+				int y = Integer.parseInt(cell.split(",")[1]);
+				grid.add(cell);
+				for(int dx = -1; dx <= 1; dx++) {
+					String neighbour = (x + dx) + "," + y;
+					if(dx != 0 && grid.vertices().contains(neighbour)) {
+						grid.set(cell, neighbour, 100);
+					}
+					neighbour = x + "," + (y + dx);
+					if(dx != 0 && grid.vertices().contains(neighbour)) {
+						grid.set(cell, neighbour, 100);
+					}
+				}
+			}
+			assertTrue(clusters.cellChanged(cell) <= 16);	//at most the 4x4 block of clusters around a corner cell
+			HierarchicalSearch rebuilt = new HierarchicalSearch(new ClusterGraph(grid, 8));
+			Object[] vertices = grid.vertices().toArray();
+			for(int j = 0; j < 10; j++) {
+				String source = (String) vertices[random.nextInt(vertices.length)];
+				String target = (String) vertices[random.nextInt(vertices.length)];
+				assertTrue(hpaTest.findDistanceToTarget(source, target).equals(rebuilt.findDistanceToTarget(source, target)));
+			}
+		}
+	}
+
+	@Test
+	public void testWholeGraphSearchSeesBlockedCells() {
+		Graph<String> grid = TestGraphs.obstacleGrid(20, 0, new Random(9));
+		ClusterGraph clusters = new ClusterGraph(grid, 8);
+		HierarchicalSearch hpaTest = new HierarchicalSearch(clusters);
+		hpaTest.searchWholeGraph("0,0");
+		assertTrue(hpaTest.getWholeGraphSearch().getDistances().get("10,0") == 1000);
+		grid.remove("5,0");
+		grid.set("4,0", "5,1", 0);	//no cutting the blocked cell's corners
+		grid.set("5,1", "6,0", 0);
+		clusters.cellChanged("5,0");
+		hpaTest.searchWholeGraph("0,0");
+		DijkstraSearch djTest = new DijkstraSearch(grid);
+		djTest.searchWholeGraph("0,0");
+		assertTrue(hpaTest.getWholeGraphSearch().getDistances().equals(djTest.getDistances()));
+		assertTrue(!hpaTest.getWholeGraphSearch().getDistances().containsKey("5,0"));
+		assertTrue(hpaTest.getWholeGraphSearch().getDistances().get("10,0") > 1000);
+	}
+
+	@Test
+	public void testRejectsNonGridLabels() {
+		Graph<String> gr1 = UndirectedWeightedGraph.empty();
+		gr1.set("v1", "v2", 1);
+		assertThrows(IllegalArgumentException.class, () -> new ClusterGraph(gr1));
+		assertThrows(IllegalArgumentException.class, () -> new ClusterGraph(TestGraphs.obstacleGrid(4, 0, new Random(1)), 1));
+	}
+}
@@ -0,0 +1,86 @@
+package algorithmsTests;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import graph.Graph;
+import searchAlgorithms.KShortestPaths;
+import searchAlgorithms.WeightedPath;
+
+class KShortestPathsTest {
+
+	/**
+	 * Collects the length of every loopless path from vertex to target
+	 */
+	private static void allPaths(Graph<String> graph, String vertex, String target, Set<String> onPath, int length, List<Integer> lengths) {
+		if(vertex.equals(target)) {
+			lengths.add(length);
+			return;
+		}
+		onPath.add(vertex);
+		for(String next: graph.targets(vertex).keySet()) {
+			if(!onPath.contains(next)) {
+				allPaths(graph, next, target, onPath, length + graph.targets(vertex).get(next), lengths);
+			}
+		}
+		onPath.remove(vertex);
+	}
+
+	@Test
+	public void testMatchesExhaustiveSearch() {
+		Random random = new Random(21);
+		for(int round = 0; round < 20; round++) {
+			Graph<String> graph = Graph.empty();
+			int vertexCount = 9;
+			for(int v = 0; v < vertexCount; v++) {
+				graph.add("v" + v);
+			}
+			for(int i = 0; i < 25; i++) {
+				int u = random.nextInt(vertexCount);
+				int v = random.nextInt(vertexCount);
+				if(u != v) {
+					graph.set("v" + u, "v" + v, 1 + random.nextInt(10));
+				}
+			}
+			List<Integer> lengths = new ArrayList<>();
+			allPaths(graph, "v0", "v8", new HashSet<>(), 0, lengths);
+			Collections.sort(lengths);
+			KShortestPaths kShortest = new KShortestPaths(graph);
+			List<WeightedPath> paths = kShortest.find("v0", "v8", 15);
+			assertTrue(paths.size() == Math.min(15, lengths.size()));
+			Set<List<String>> distinct = new HashSet<>();
+			for(int i = 0; i < paths.size(); i++) {
+				List<String> path = paths.get(i).getPath();
+				assertTrue(paths.get(i).distance == lengths.get(i));
+				assertTrue(path.get(0).equals("v0") && path.get(path.size() - 1).equals("v8"));
+				assertTrue(new HashSet<>(path).size() == path.size());	//loopless
+				int length = 0;
+				for(int j = 0; j + 1 < path.size(); j++) {
+					length += graph.targets(path.get(j)).get(path.get(j + 1));
+				}
+				assertTrue(length == paths.get(i).distance);
+				assertTrue(distinct.add(path));
+			}
+		}
+	}
+
+	@Test
+	public void testUnreachableAndMissing() {
+		Graph<String> graph = Graph.empty();
+		graph.add("a");
+		graph.add("b");
+		graph.set("b", "a", 1);
+		KShortestPaths kShortest = new KShortestPaths(graph);
+		assertTrue(kShortest.find("a", "b", 3).isEmpty());
+		assertTrue(kShortest.find("a", "missing", 3).isEmpty());
+		assertTrue(kShortest.find("b", "a", 3).size() == 1);
+	}
+}
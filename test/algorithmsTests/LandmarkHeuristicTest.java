@@ -0,0 +1,57 @@
+package algorithmsTests;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import graph.Graph;
+import searchAlgorithms.AStarSearch;
+import searchAlgorithms.CompiledGraph;
+import searchAlgorithms.DijkstraSearch;
+import searchAlgorithms.LandmarkHeuristic;
+
+class LandmarkHeuristicTest {
+
+	@Test
+	public void testLandmarkAStarMatchesDijkstra() {
+		Random random = new Random(11);
+		Graph<String> gr1 = Graph.empty();	//directed, labels are not grid co-ordinates
+		int vertexCount = 200;
+		for(int v = 0; v < vertexCount; v++) {
+			gr1.add("v" + v);
+		}
+		for(int i = 0; i < 800; i++) {
+			int u = random.nextInt(vertexCount);
+			int v = random.nextInt(vertexCount);
+			if(u != v) {
+				gr1.set("v" + u, "v" + v, 1 + random.nextInt(30));
+			}
+		}
+		CompiledGraph compiled = CompiledGraph.compile(gr1);
+		LandmarkHeuristic landmarks = new LandmarkHeuristic(compiled, 4);
+		assertTrue(landmarks.getLandmarks().length == 4);
+		AStarSearch aStarTest = new AStarSearch(compiled, landmarks);
+		DijkstraSearch djTest = new DijkstraSearch(compiled);
+
+		for(int i = 0; i < 300; i++) {
+			String source = "v" + random.nextInt(vertexCount);
+			String target = "v" + random.nextInt(vertexCount);
+			if(!djTest.searchForTarget(source, target)) {
+				continue;
+			}
+			int distance = djTest.findDistanceToTarget(source, target);
+			//admissible: never more than the true distance
+			assertTrue(landmarks.estimate(source, target) <= distance);
+			assertTrue(aStarTest.searchForTarget(source, target));
+			List<String> path = aStarTest.getPathToTarget();
+			int length = 0;
+			for(int j = 0; j + 1 < path.size(); j++) {
+				length += gr1.targets(path.get(j)).get(path.get(j + 1));
+			}
+			assertTrue(length == distance);
+		}
+	}
+}
@@ -0,0 +1,57 @@
+package algorithmsTests;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import graph.Graph;
+import searchAlgorithms.DijkstraSearch;
+import searchAlgorithms.NearestTarget;
+
+class NearestTargetsTest {
+
+	@Test
+	public void testNearestMatchPointToPointSearches() {
+		Random random = new Random(20);
+		int size = 40;
+		Graph<String> grid = TestGraphs.grid(size, random, 1, 30);
+		grid.add("island");
+		List<String> depots = new ArrayList<>();
+		for(int i = 0; i < 25; i++) {
+			depots.add(random.nextInt(size) + "," + random.nextInt(size));
+		}
+		depots.add("island");
+		depots.add("missing");
+		DijkstraSearch search = new DijkstraSearch(grid);
+		DijkstraSearch pointToPoint = new DijkstraSearch(grid);
+		String source = "20,20";
+		List<NearestTarget> nearest = search.findNearestTargets(source, depots, 5, true);
+		int settled = search.getSettledCount();
+		assertTrue(nearest.size() == 5);
+		for(int i = 0; i < nearest.size(); i++) {
+			NearestTarget entry = nearest.get(i);
+			assertTrue(entry.distance == pointToPoint.findDistanceToTarget(source, entry.target)
+					|| (entry.distance == 0 && entry.target.equals(source)));
+			assertTrue(i == 0 || nearest.get(i - 1).distance <= entry.distance);
+			List<String> path = entry.getPath();
+			assertTrue(path.get(0).equals(source) && path.get(path.size() - 1).equals(entry.target));
+		}
+		//no other depot is closer than the fifth
+		for(String depot: depots) {
+			if(!depot.equals("island") && !depot.equals("missing") && !depot.equals(source)) {
+				boolean listed = nearest.stream().anyMatch(entry -> entry.target.equals(depot));
+				assertTrue(listed || pointToPoint.findDistanceToTarget(source, depot) >= nearest.get(4).distance);
+			}
+		}
+
+		//every depot, the unreachable island is left out
+		List<NearestTarget> all = search.findNearestTargets(source, depots, depots.size(), false);
+		assertTrue(all.size() <= 25 && all.stream().noneMatch(entry -> entry.target.equals("island")));
+		assertTrue(all.get(0).getPath().isEmpty() && search.getSettledCount() > settled);
+		assertTrue(search.findNearestTargets("missing", depots, 1, false).isEmpty());
+	}
+}
@@ -0,0 +1,83 @@
+package algorithmsTests;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import graph.Graph;
+import searchAlgorithms.CompiledGraph;
+import searchAlgorithms.CriticalPath;
+import searchAlgorithms.DFSForTopologicalSortedDAGs;
+import searchAlgorithms.DijkstraSearch;
+import searchAlgorithms.ParallelDagEvaluator;
+import searchAlgorithms.ShortestPathTree;
+
+class ParallelDagEvaluatorTest {
+
+	@Test
+	public void testMatchesSequentialEvaluation() {
+		Random random = new Random(25);
+		Graph<String> graph = Graph.empty();
+		int vertexCount = 2000;
+		for(int v = 0; v < vertexCount; v++) {
+			graph.add("t" + v);
+		}
+		for(int i = 0; i < 10000; i++) {
+			int u = random.nextInt(vertexCount);
+			int v = random.nextInt(vertexCount);
+			if(u < v) {
+				graph.set("t" + u, "t" + v, 1 + random.nextInt(50));
+			}
+		}
+		CompiledGraph compiled = CompiledGraph.compile(graph);
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			ParallelDagEvaluator evaluator = new ParallelDagEvaluator(compiled, pool, 8);
+			assertTrue(evaluator.levelCount() > 1 && evaluator.levelCount() <= vertexCount);
+			CriticalPath parallel = evaluator.criticalPath();
+			CriticalPath sequential = DFSForTopologicalSortedDAGs.criticalPath(compiled);
+			assertTrue(parallel.length() == sequential.length());
+			for(int v = 0; v < vertexCount; v++) {
+				assertTrue(parallel.earliestStart(v) == sequential.earliestStart(v));
+				assertTrue(parallel.latestStart(v) == sequential.latestStart(v));
+			}
+			List<String> path = parallel.path();
+			int length = 0;
+			for(int i = 0; i + 1 < path.size(); i++) {
+				length += graph.targets(path.get(i)).get(path.get(i + 1));
+			}
+			assertTrue(length == parallel.length());
+
+			DijkstraSearch dijkstra = new DijkstraSearch(compiled);
+			for(String source: new String[] {"t0", "t17", "t1500"}) {
+				ShortestPathTree tree = evaluator.shortestPaths(source);
+				dijkstra.searchWholeGraph(source);
+				assertTrue(tree.getDistances().equals(dijkstra.getDistances()));
+			}
+			assertTrue(evaluator.shortestPaths("missing") == null);
+		}
+		finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testRejectsCycles() {
+		Graph<String> graph = Graph.empty();
+		graph.add("a");
+		graph.add("b");
+		graph.set("a", "b", 1);
+		graph.set("b", "a", 1);
+		try {
+			new ParallelDagEvaluator(graph);
+			assertTrue(false);
+		}
+		catch(IllegalArgumentException e) {
+			//expected
+		}
+	}
+}
@@ -0,0 +1,47 @@
+package algorithmsTests;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import graph.Graph;
+import searchAlgorithms.DijkstraSearch;
+
+class RadiusSearchTest {
+
+	@Test
+	public void testRadiusMatchesFilteredWholeGraphSearch() {
+		Random random = new Random(22);
+		int size = 50;
+		Graph<String> grid = TestGraphs.grid(size, random, 1, 20);
+		DijkstraSearch whole = new DijkstraSearch(grid);
+		whole.searchWholeGraph("25,25");
+		Map<String, Integer> all = whole.getDistances();
+		DijkstraSearch search = new DijkstraSearch(grid);
+		for(int radius: new int[] {0, 15, 60, 150}) {
+			Map<String, Integer> within = search.searchWithinRadius("25,25", radius);
+			for(Map.Entry<String, Integer> entry: all.entrySet()) {
+				assertTrue((entry.getValue() <= radius) == within.containsKey(entry.getKey()));
+			}
+			for(Map.Entry<String, Integer> entry: within.entrySet()) {
+				assertTrue(entry.getValue().equals(all.get(entry.getKey())));
+			}
+			assertTrue(search.getDistances().equals(within));
+			assertTrue(search.getSettledCount() == within.size());
+		}
+		assertTrue(search.searchWithinRadius("25,25", 60).size() < size * size / 4);
+
+		List<Integer> streamed = new ArrayList<>();
+		int visited = search.searchWithinRadius("0,0", 40, (vertex, distance) -> streamed.add(distance));
+		assertTrue(visited == streamed.size() && streamed.get(0) == 0);
+		for(int i = 1; i < streamed.size(); i++) {
+			assertTrue(streamed.get(i - 1) <= streamed.get(i) && streamed.get(i) <= 40);
+		}
+		assertTrue(search.searchWithinRadius("missing", 40).isEmpty());
+	}
+}
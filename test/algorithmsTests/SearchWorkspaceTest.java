@@ -0,0 +1,91 @@
+package algorithmsTests;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import graph.Graph;
+import searchAlgorithms.AStarSearch;
+import searchAlgorithms.CompiledGraph;
+import searchAlgorithms.DijkstraSearch;
+import searchAlgorithms.SearchWorkspace;
+
+class SearchWorkspaceTest {
+
+	@Test
+	public void testResetForgetsPreviousSearch() {
+		SearchWorkspace workspace = new SearchWorkspace(10);
+		assertTrue(workspace.lower(3, 5) && workspace.lower(4, 7, 3, 7) && !workspace.lower(4, 9));
+		assertTrue(workspace.getReachedCount() == 2 && workspace.predecessor(4) == 3);
+		workspace.reset();
+		assertTrue(workspace.getReachedCount() == 0 && workspace.queue().isEmpty());
+		assertTrue(!workspace.isReached(3) && workspace.distance(4) == Integer.MAX_VALUE && workspace.predecessor(4) == -1);
+		assertTrue(workspace.lower(4, 9));
+	}
+
+	@Test
+	public void testSharedWorkspaceMatchesFreshSearches() {
+		int size = 60;
+		Random random = new Random(19);
+		Graph<String> grid = TestGraphs.grid(size, random, 1, 20);
+		CompiledGraph compiled = CompiledGraph.compile(grid);
+		SearchWorkspace workspace = new SearchWorkspace(compiled.vertexCount());
+		DijkstraSearch dijkstra = new DijkstraSearch(compiled);
+		dijkstra.setWorkspace(workspace);
+		AStarSearch aStar = new AStarSearch(compiled);
+		aStar.setWorkspace(workspace);
+		for(int i = 0; i < 100; i++) {
+			int x = random.nextInt(size - 3);
+			int y = random.nextInt(size - 3);
+			String source = x + "," + y;
+			String target = (x + random.nextInt(3)) + "," + (y + 1 + random.nextInt(3));	//local queries
+			int expected = new DijkstraSearch(grid).findDistanceToTarget(source, target);
+			assertTrue(dijkstra.findDistanceToTarget(source, target) == expected);
+			assertTrue(workspace.getReachedCount() < compiled.vertexCount() / 4);
+			List<String> dijkstraPath = dijkstra.findPathToTarget(source, target);
+			assertTrue(dijkstraPath.get(0).equals(source) && dijkstraPath.get(dijkstraPath.size() - 1).equals(target));
+			assertTrue(aStar.searchForTarget(source, target));
+			List<String> path = aStar.getPathToTarget();
+			int length = 0;
+			for(int j = 0; j + 1 < path.size(); j++) {
+				length += grid.targets(path.get(j)).get(path.get(j + 1));
+			}
+			assertTrue(length == expected);
+		}
+
+		//the maps of a workspace search are only built when asked for
+		assertTrue(dijkstra.searchForTarget("0,0", "2,2"));
+		Map<String, Integer> distances = dijkstra.getDistances();
+		Map<String, String> predecessors = dijkstra.getPredecessors();
+		assertTrue(distances.get("0,0") == 0 && !predecessors.containsKey("0,0"));
+		assertTrue(distances.size() == workspace.getReachedCount());
+		assertTrue(distances.get("2,2") == distances.get(predecessors.get("2,2"))
+				+ grid.targets(predecessors.get("2,2")).get("2,2"));
+		aStar.searchForTarget("5,5", "6,6");
+		assertTrue(dijkstra.getDistances().get("2,2").equals(distances.get("2,2")));	//already copied out
+	}
+
+	@Test
+	public void testFailedSearchEndsAtFurthestVertex() {
+		Graph<String> grid = TestGraphs.grid(20, new Random(20), 1, 20);
+		grid.set("40,40", "41,40", 1);	//not reachable from the grid
+		CompiledGraph compiled = CompiledGraph.compile(grid);
+		AStarSearch aStar = new AStarSearch(compiled);
+		DijkstraSearch dijkstra = new DijkstraSearch(grid);
+		dijkstra.searchWholeGraph("3,4");
+		int furthest = 0;
+		for(int distance: dijkstra.getDistances().values()) {
+			if(distance != Integer.MAX_VALUE) {
+				furthest = Math.max(furthest, distance);
+			}
+		}
+		assertTrue(!aStar.searchForTarget("3,4", "40,40"));
+		List<String> path = aStar.getPathToTarget();
+		assertTrue(path.get(0).equals("3,4") && dijkstra.getDistances().get(path.get(path.size() - 1)) == furthest);
+		assertTrue(aStar.getWorkspace().distance(compiled.idOf(path.get(path.size() - 1))) == furthest);
+	}
+}
@@ -0,0 +1,56 @@
+package algorithmsTests;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import graph.Graph;
+import searchAlgorithms.DijkstraSearch;
+import searchAlgorithms.SettledVertex;
+
+class SettledOrderTest {
+
+	@Test
+	public void testSettledOrderMatchesWholeGraphSearch() {
+		Random random = new Random(23);
+		int size = 40;
+		Graph<String> grid = TestGraphs.grid(size, random, 1, 20);
+		DijkstraSearch whole = new DijkstraSearch(grid);
+		whole.searchWholeGraph("10,10");
+		Map<String, Integer> expected = whole.getDistances();
+
+		DijkstraSearch search = new DijkstraSearch(grid);
+		List<SettledVertex> settled = search.streamSettled("10,10").collect(Collectors.toList());
+		assertTrue(settled.size() == expected.size() && settled.get(0).predecessor == null);
+		for(int i = 0; i < settled.size(); i++) {
+			SettledVertex entry = settled.get(i);
+			assertTrue(expected.get(entry.vertex) == entry.distance);
+			assertTrue(i == 0 || settled.get(i - 1).distance <= entry.distance);
+			assertTrue(i == 0 || entry.distance == expected.get(entry.predecessor) + grid.targets(entry.predecessor).get(entry.vertex));
+		}
+
+		//stopping early only settles what was pulled
+		List<SettledVertex> first = search.streamSettled("10,10").limit(20).collect(Collectors.toList());
+		assertTrue(first.size() == 20 && search.getSettledCount() == 20);
+		assertTrue(search.getDistances().size() < size * size / 4);
+
+		Iterator<SettledVertex> iterator = search.settledOrder("0,0");
+		iterator.next();
+		search.findDistanceToTarget("0,0", "5,5");
+		try {
+			iterator.next();
+			assertTrue(false);
+		}
+		catch(ConcurrentModificationException e) {
+			//expected, the workspace was reused
+		}
+		assertTrue(!search.settledOrder("missing").hasNext());
+	}
+}
@@ -0,0 +1,91 @@
+package algorithmsTests;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import graph.Graph;
+import searchAlgorithms.CompiledGraph;
+import searchAlgorithms.DijkstraSearch;
+import searchAlgorithms.LandmarkHeuristic;
+import searchAlgorithms.SharedSearchEngine;
+
+class SharedSearchEngineTest {
+
+	private static int length(Graph<String> grid, List<String> path) {
+		int length = 0;
+		for(int i = 0; i + 1 < path.size(); i++) {
+			length += grid.targets(path.get(i)).get(path.get(i + 1));
+		}
+		return length;
+	}
+
+	@Test
+	public void testConcurrentQueriesMatchDijkstra() throws Exception {
+		int size = 30;
+		Graph<String> grid = TestGraphs.grid(size, new Random(18), 10, 49);
+		CompiledGraph compiled = CompiledGraph.compile(grid);
+		List<SharedSearchEngine> engines = List.of(new SharedSearchEngine(grid),
+				SharedSearchEngine.grid(compiled, 10),
+				new SharedSearchEngine(compiled, new LandmarkHeuristic(compiled)));
+		Random random = new Random(19);
+		int queries = 200;
+		String[] sources = new String[queries];
+		String[] targets = new String[queries];
+		int[] expected = new int[queries];
+		DijkstraSearch dijkstra = new DijkstraSearch(grid);
+		for(int i = 0; i < queries; i++) {
+			sources[i] = random.nextInt(size) + "," + random.nextInt(size);
+			targets[i] = random.nextInt(size) + "," + random.nextInt(size);
+			expected[i] = sources[i].equals(targets[i]) ? 0 : dijkstra.findDistanceToTarget(sources[i], targets[i]);
+		}
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			for(SharedSearchEngine engine: engines) {
+				List<Future<Boolean>> results = new ArrayList<>();
+				for(int i = 0; i < queries; i++) {
+					int query = i;
+					results.add(pool.submit(() -> {
+						List<String> path = engine.findPathToTarget(sources[query], targets[query]);
+						return path.get(0).equals(sources[query]) && path.get(path.size() - 1).equals(targets[query])
+								&& length(grid, path) == expected[query]
+								&& engine.findDistanceToTarget(sources[query], targets[query]) == expected[query];
+					}));
+				}
+				for(Future<Boolean> result: results) {
+					assertTrue(result.get());
+				}
+			}
+		}
+		finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testWholeGraphAndMissingVertices() {
+		Graph<String> grid = TestGraphs.grid(10, new Random(20), 10, 49);
+		grid.add("island");
+		SharedSearchEngine engine = new SharedSearchEngine(grid);
+		assertTrue(engine.getTree() == null);
+		engine.searchWholeGraph("0,0");
+		DijkstraSearch dijkstra = new DijkstraSearch(grid);
+		dijkstra.searchWholeGraph("0,0");
+		CompiledGraph compiled = engine.getGraph();
+		for(String vertex: dijkstra.getDistances().keySet()) {
+			assertTrue(engine.getTree().distance(compiled.idOf(vertex)) == dijkstra.getDistances().get(vertex));
+		}
+		assertTrue(engine.getTree().distance(compiled.idOf("island")) == Integer.MAX_VALUE);
+		assertTrue(!engine.searchForTarget("0,0", "island"));
+		assertTrue(engine.findPathToTarget("0,0", "missing").isEmpty());
+		assertTrue(engine.findDistanceToTarget("0,0", "island") == 0);
+		assertTrue(engine.searchForTarget("0,0", "9,9"));
+	}
+}
@@ -0,0 +1,72 @@
+package algorithmsTests;
+
+import java.util.Random;
+
+import graph.Graph;
+import undirectedWeightedGraph.UndirectedWeightedGraph;
+
+/**
+ * Random grid graphs shared by the search tests, so each test only picks the size, seed and weights
+ * @author watso
+ */
+public class TestGraphs {
+
+	/**
+	 * 4-connected undirected grid of "x,y" cells, with edge weights drawn uniformly from [minWeight, maxWeight]
+	 * @param size - width and height of the grid in cells
+	 * @param random - source of the weights
+	 * @param minWeight - lightest edge weight, > 0
+	 * @param maxWeight - heaviest edge weight, >= minWeight
+	 */
+	public static Graph<String> grid(int size, Random random, int minWeight, int maxWeight) {
+		Graph<String> grid = UndirectedWeightedGraph.empty();
+		for(int x = 0; x < size; x++) {
+			for(int y = 0; y < size; y++) {
+				if(x + 1 < size) {
+					grid.set(x + "," + y, (x + 1) + "," + y, minWeight + random.nextInt(maxWeight - minWeight + 1));
+				}
+				if(y + 1 < size) {
+					grid.set(x + "," + y, x + "," + (y + 1), minWeight + random.nextInt(maxWeight - minWeight + 1));
+				}
+			}
+		}
+		return grid;
+	}
+
+	/**
+	 * 8-connected grid with SAV weights and no corner cutting, with the given share of cells blocked
+	 * @param size - width and height of the grid in cells
+	 * @param blockedPercent - chance in percent of each cell being blocked
+	 * @param random - source of the blocked cells
+	 */
+	public static Graph<String> obstacleGrid(int size, int blockedPercent, Random random) {
+		boolean[][] open = new boolean[size][size];
+		for(int x = 0; x < size; x++) {
+			for(int y = 0; y < size; y++) {
+				open[x][y] = random.nextInt(100) >= blockedPercent;
+			}
+		}
+		Graph<String> grid = UndirectedWeightedGraph.empty();
+		for(int x = 0; x < size; x++) {
+			for(int y = 0; y < size; y++) {
+				if(!open[x][y]) {
+					continue;
+				}
+				grid.add(x + "," + y);
+				if(x + 1 < size && open[x + 1][y]) {
+					grid.set(x + "," + y, (x + 1) + "," + y, 100);
+				}
+				if(y + 1 < size && open[x][y + 1]) {
+					grid.set(x + "," + y, x + "," + (y + 1), 100);
+				}
+				if(x + 1 < size && y + 1 < size && open[x + 1][y] && open[x][y + 1] && open[x + 1][y + 1]) {
+					grid.set(x + "," + y, (x + 1) + "," + (y + 1), 141);
+				}
+				if(x + 1 < size && y > 0 && open[x + 1][y] && open[x][y - 1] && open[x + 1][y - 1]) {
+					grid.set(x + "," + y, (x + 1) + "," + (y - 1), 141);
+				}
+			}
+		}
+		return grid;
+	}
+}
@@ -0,0 +1,54 @@
+package benchmarks;
+
+import java.util.Random;
+
+import algorithmsTests.TestGraphs;
+import searchAlgorithms.BidirectionalDijkstraSearch;
+import searchAlgorithms.CompiledGraph;
+import searchAlgorithms.DijkstraSearch;
+
+/**
+ * Compares settled vertex counts and query times of DijkstraSearch and BidirectionalDijkstraSearch
+ * on a road like grid graph with random edge weights.
+ * Usage: BidirectionalSearchBenchmark [gridSize] [queries]
+ */
+public class BidirectionalSearchBenchmark {
+
+	public static void main(String[] args) {
+		int size = args.length > 0 ? Integer.parseInt(args[0]) : 300;
+		int queries = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+		Random random = new Random(1);
+
+		CompiledGraph compiled = CompiledGraph.compile(TestGraphs.grid(size, random, 1, 10));
+		DijkstraSearch dijkstra = new DijkstraSearch(compiled);
+		BidirectionalDijkstraSearch bidirectional = new BidirectionalDijkstraSearch(compiled);
+
+		long dijkstraSettled = 0;
+		long bidirectionalSettled = 0;
+		long dijkstraNanos = 0;
+		long bidirectionalNanos = 0;
+		for(int i = 0; i < queries; i++) {
+			String source = random.nextInt(size) + "," + random.nextInt(size);
+			String target = random.nextInt(size) + "," + random.nextInt(size);
+
+			long start = System.nanoTime();
+			int expected = dijkstra.findDistanceToTarget(source, target);
+			dijkstraNanos += System.nanoTime() - start;
+			dijkstraSettled += dijkstra.getSettledCount();
+
+			start = System.nanoTime();
+			int actual = bidirectional.findDistanceToTarget(source, target);
+			bidirectionalNanos += System.nanoTime() - start;
+			bidirectionalSettled += bidirectional.getSettledCount();
+
+			if(expected != actual) {
+				throw new IllegalStateException(String.format("Distance mismatch %s -> %s: %d vs %d", source, target, expected, actual));
+			}
+		}
+		System.out.println(String.format("%dx%d grid, %d queries", size, size, queries));
+		System.out.println(String.format("Dijkstra:      %10.1f settled/query %8.3f ms/query",
+				(double) dijkstraSettled / queries, dijkstraNanos / 1e6 / queries));
+		System.out.println(String.format("Bidirectional: %10.1f settled/query %8.3f ms/query",
+				(double) bidirectionalSettled / queries, bidirectionalNanos / 1e6 / queries));
+	}
+}
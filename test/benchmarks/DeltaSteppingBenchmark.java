@@ -0,0 +1,58 @@
+package benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import algorithmsTests.TestGraphs;
+import searchAlgorithms.CompiledGraph;
+import searchAlgorithms.DeltaSteppingSearch;
+import searchAlgorithms.DijkstraSearch;
+
+/**
+ * Whole graph search times of DeltaSteppingSearch by thread count, against sequential DijkstraSearch,
+ * on a road like grid graph with random edge weights.
+ * Usage: DeltaSteppingBenchmark [gridSize] [maxThreads] [delta]
+ */
+public class DeltaSteppingBenchmark {
+	private static final int RUNS = 5;
+
+	public static void main(String[] args) {
+		int size = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+		int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+		Random random = new Random(1);
+
+		CompiledGraph compiled = CompiledGraph.compile(TestGraphs.grid(size, random, 1, 10));
+		String source = (size / 2) + "," + (size / 2);
+		System.out.println(String.format("%dx%d grid, %d edges, whole graph search from %s", size, size, compiled.edgeCount(), source));
+
+		DijkstraSearch dijkstra = new DijkstraSearch(compiled);
+		long start = 0;
+		for(int run = 0; run <= RUNS; run++) {
+			if(run == 1) {
+				start = System.nanoTime();	//first run is warm up
+			}
+			dijkstra.searchWholeGraph(source);
+		}
+		System.out.println(String.format("Dijkstra:               %8.1f ms", (System.nanoTime() - start) / 1e6 / RUNS));
+
+		for(int threads = 1; threads <= maxThreads; threads *= 2) {
+			ForkJoinPool pool = new ForkJoinPool(threads);
+			DeltaSteppingSearch deltaStepping = new DeltaSteppingSearch(compiled, pool);
+			if(args.length > 2) {
+				deltaStepping.setDelta(Integer.parseInt(args[2]));
+			}
+			for(int run = 0; run <= RUNS; run++) {
+				if(run == 1) {
+					start = System.nanoTime();
+				}
+				deltaStepping.searchWholeGraph(source);
+			}
+			double millis = (System.nanoTime() - start) / 1e6 / RUNS;
+			if(!deltaStepping.getDistances().equals(dijkstra.getDistances())) {
+				throw new IllegalStateException("Delta-stepping distances differ from Dijkstra with " + threads + " threads");
+			}
+			System.out.println(String.format("Delta-stepping %2d threads (delta %d): %8.1f ms", threads, deltaStepping.getDelta(), millis));
+			pool.shutdown();
+		}
+	}
+}
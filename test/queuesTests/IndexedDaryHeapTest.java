@@ -0,0 +1,86 @@
+package queuesTests;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import queues.IndexedDaryHeap;
+
+class IndexedDaryHeapTest {
+
+	@Test
+	public void testPollOrderAndDecreaseKey() {
+		IndexedDaryHeap heap = new IndexedDaryHeap(4);
+		heap.insert(0, 30);
+		heap.insert(1, 10);
+		heap.insert(2, 20);
+		heap.insert(7, 40);	//beyond initial capacity, heap should grow
+
+		assertTrue(heap.size() == 4);
+		assertTrue(heap.peekMin() == 1);
+
+		heap.decreaseKey(7, 5);
+		assertTrue(heap.peekMin() == 7);
+		assertTrue(heap.priority(7) == 5);
+
+		//no change for larger priority
+		assertTrue(!heap.insertOrDecrease(0, 50));
+		assertTrue(heap.insertOrDecrease(0, 15));
+
+		assertTrue(heap.pollMin() == 7);
+		assertTrue(heap.pollMin() == 1);
+		assertTrue(heap.pollMin() == 0);
+		assertTrue(heap.pollMin() == 2);
+		assertTrue(heap.isEmpty());
+		assertTrue(!heap.contains(7));
+	}
+
+	@Test
+	public void testRemoveAndUpdate() {
+		IndexedDaryHeap heap = new IndexedDaryHeap(10, 2);
+		for(int key = 0; key < 10; key++) {
+			heap.insert(key, key);
+		}
+		assertTrue(heap.remove(0));
+		assertTrue(!heap.remove(0));
+		heap.update(1, 100);	//increase
+		heap.update(9, -1);	//decrease
+		assertTrue(heap.pollMin() == 9);
+		assertTrue(heap.pollMin() == 2);
+
+		heap.clear();
+		assertTrue(heap.isEmpty());
+		assertTrue(!heap.contains(5));
+		heap.insert(5, 3);
+		assertTrue(heap.pollMin() == 5);
+	}
+
+	@Test
+	public void testRandomisedAgainstSort() {
+		Random random = new Random(42);
+		int n = 1000;
+		long[] best = new long[n];
+		IndexedDaryHeap heap = new IndexedDaryHeap(n);
+		for(int key = 0; key < n; key++) {
+			best[key] = random.nextInt(100000);
+			heap.insert(key, best[key]);
+		}
+		for(int i = 0; i < 3000; i++) {
+			int key = random.nextInt(n);
+			long priority = random.nextInt(100000);
+			if(heap.insertOrDecrease(key, priority)) {
+				best[key] = priority;
+			}
+		}
+		long previous = Long.MIN_VALUE;
+		while(!heap.isEmpty()) {
+			long priority = heap.peekMinPriority();
+			int key = heap.pollMin();
+			assertTrue(priority == best[key]);
+			assertTrue(priority >= previous);
+			previous = priority;
+		}
+	}
+}
@@ -0,0 +1,68 @@
+package queuesTests;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import queues.DialBucketQueue;
+import queues.IndexedDaryHeap;
+import queues.IndexedPriorityQueue;
+import queues.RadixHeap;
+
+class MonotoneQueueTest {
+
+	@Test
+	public void testMatchesHeapOnMonotoneWorkload() {
+		int maxStep = 20;
+		for(IndexedPriorityQueue queue: new IndexedPriorityQueue[] {new DialBucketQueue(8, maxStep + 1), new RadixHeap(8)}) {
+			Random random = new Random(9);
+			IndexedDaryHeap expected = new IndexedDaryHeap(8);
+			queue.insert(0, 0);
+			expected.insert(0, 0);
+			int nextKey = 1;
+			while(!expected.isEmpty()) {
+				assertTrue(queue.size() == expected.size());
+				long min = expected.peekMinPriority();
+				assertTrue(queue.peekMinPriority() == min);
+				int key = queue.pollMin();
+				assertTrue(expected.priority(key) == min);
+				expected.remove(key);
+				//queue new keys and lower existing ones, at most maxStep above the minimum like Dijkstra
+				for(int i = 0; i < 3 && nextKey < 2000; i++) {
+					long priority = min + random.nextInt(maxStep + 1);
+					int target = random.nextBoolean() ? nextKey++ : random.nextInt(nextKey);
+					assertTrue(queue.insertOrDecrease(target, priority) == expected.insertOrDecrease(target, priority));
+				}
+			}
+			assertTrue(queue.isEmpty());
+			queue.insert(5, 1000);	//empty queue accepts any priority
+			assertTrue(queue.pollMin() == 5);
+		}
+	}
+
+	@Test
+	public void testRejectsOutOfRange() {
+		DialBucketQueue dial = new DialBucketQueue(4, 10);
+		dial.insert(0, 5);
+		assertThrows(IllegalArgumentException.class, () -> dial.insert(1, 15));
+		dial.insert(1, 14);
+		dial.clear();
+		assertTrue(dial.isEmpty() && !dial.contains(1));
+
+		RadixHeap radix = new RadixHeap(4);
+		radix.insert(0, 100);
+		radix.insert(1, 200);
+		assertTrue(radix.pollMin() == 0);
+		assertThrows(IllegalArgumentException.class, () -> radix.insert(2, 50));
+		assertTrue(radix.pollMin() == 1);
+		radix.insert(2, 250);	//queue emptied, but the last minimum polled still bounds new priorities
+		radix.insert(3, 210);
+		assertTrue(radix.pollMin() == 3);
+
+		assertTrue(IndexedPriorityQueue.monotone(4, 100) instanceof DialBucketQueue);
+		assertTrue(IndexedPriorityQueue.monotone(4, Long.MAX_VALUE) instanceof RadixHeap);
+	}
+}
@@ -0,0 +1,77 @@
+package updatingSearchAlgorithmTests;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+
+import org.junit.jupiter.api.Test;
+
+import algorithmsTests.TestGraphs;
+import graph.Graph;
+import searchAlgorithms.DijkstraSearch;
+import updatingSearchAlgorithms.AStarSearchUpdatingVariableHeuristic;
+import updatingSearchAlgorithms.GraphUpdate;
+import updatingSearchAlgorithms.UpdatingSearchAlgorithm;
+
+class AnytimeAStarTest {
+
+	private static int length(Graph<String> grid, List<String> path) {
+		int length = 0;
+		for(int i = 0; i + 1 < path.size(); i++) {
+			length += grid.targets(path.get(i)).get(path.get(i + 1));
+		}
+		return length;
+	}
+
+	@Test
+	public void testPathsImproveToOptimal() {
+		Graph<String> grid = TestGraphs.grid(30, new Random(17), 100, 299);
+		AStarSearchUpdatingVariableHeuristic search = new AStarSearchUpdatingVariableHeuristic(grid,
+				AStarSearchUpdatingVariableHeuristic.MANHATTAN);
+		ArrayBlockingQueue<GraphUpdate> updateQueue = new ArrayBlockingQueue<>(1000000);
+		search.setUpdateQueue(updateQueue);
+		String target = "29,29";
+		assertTrue(search.searchAnytime("0,0", target, 3, 60000));
+		int optimal = new DijkstraSearch(grid).findDistanceToTarget("0,0", target);
+
+		List<Integer> lengths = new ArrayList<>();
+		for(GraphUpdate update: updateQueue) {
+			if(update.type == GraphUpdate.END) {
+				List<String> path = update.getPathToTarget();
+				assertTrue(path.get(0).equals(target) && path.get(path.size() - 1).equals("0,0"));
+				lengths.add(length(grid, path));
+			}
+		}
+		assertTrue(lengths.get(0) <= 3 * optimal);
+		for(int i = 1; i < lengths.size(); i++) {
+			assertTrue(lengths.get(i) < lengths.get(i - 1));
+		}
+		assertTrue(lengths.get(lengths.size() - 1) == optimal);
+		assertTrue(search.getSuboptimalityBound() == 1);
+		assertTrue(search.getExpandedCount() < 2 * grid.vertices().size());
+	}
+
+	@Test
+	public void testZeroBudgetStopsAfterFirstPath() {
+		Graph<String> grid = TestGraphs.grid(30, new Random(18), 100, 299);
+		UpdatingSearchAlgorithm search = UpdatingSearchAlgorithm.newSearch(grid, UpdatingSearchAlgorithm.ANYTIME_A_STAR);
+		AStarSearchUpdatingVariableHeuristic anytime = (AStarSearchUpdatingVariableHeuristic) search;
+		anytime.setAnytime(3, 0);
+		ArrayBlockingQueue<GraphUpdate> updateQueue = new ArrayBlockingQueue<>(1000000);
+		search.setUpdateQueue(updateQueue);
+		List<String> path = search.findPathToTarget("0,0", "29,29");
+		int optimal = new DijkstraSearch(grid).findDistanceToTarget("0,0", "29,29");
+		int ends = 0;
+		for(GraphUpdate update: updateQueue) {
+			if(update.type == GraphUpdate.END) {
+				ends++;
+			}
+		}
+		assertTrue(ends == 1);
+		assertTrue(length(grid, path) <= anytime.getSuboptimalityBound() * optimal);
+		assertTrue(anytime.getSuboptimalityBound() <= 3);
+	}
+}
@@ -0,0 +1,118 @@
+package updatingSearchAlgorithmTests;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+
+import org.junit.jupiter.api.Test;
+
+import algorithmsTests.TestGraphs;
+import graph.Graph;
+import searchAlgorithms.DijkstraSearch;
+import updatingSearchAlgorithms.DStarLiteSearch;
+import updatingSearchAlgorithms.GraphUpdate;
+import updatingSearchAlgorithms.UpdatingSearchAlgorithm;
+
+class DStarLiteTest {
+
+	/**
+	 * @return distance by a fresh search, PATH_NOT_FOUND if unreachable
+	 */
+	private static int expectedDistance(Graph<String> grid, String source, String target) {
+		if(source.equals(target)) {
+			return 0;
+		}
+		int distance = new DijkstraSearch(grid).findDistanceToTarget(source, target);
+		return distance == 0 ? UpdatingSearchAlgorithm.PATH_NOT_FOUND : distance;
+	}
+
+	@Test
+	public void testReplanningMatchesFreshSearch() {
+		Random random = new Random(5);
+		int size = 25;
+		Graph<String> grid = TestGraphs.grid(size, random, 100, 299);
+		DStarLiteSearch dStar = new DStarLiteSearch(grid, 100);
+		dStar.setUpdateQueue(new ArrayBlockingQueue<>(100000));
+		String start = "0,0";
+		String target = (size - 1) + "," + (size - 1);
+		assertTrue(dStar.findDistanceToTarget(start, target) == expectedDistance(grid, start, target));
+		int firstSearch = dStar.getRecomputedCount();
+		int repairs = 0;
+		for(int round = 0; round < 40 && !start.equals(target); round++) {
+			for(int i = 0; i < 5; i++) {
+				int x = random.nextInt(size - 1);
+				int y = random.nextInt(size);
+				String from = x + "," + y;
+				String to = (x + 1) + "," + y;
+				int weight = random.nextInt(4) == 0 ? 0 : 100 + random.nextInt(400);	//0 removes the edge
+				grid.set(from, to, weight);
+				dStar.edgeChanged(from, to);
+			}
+			List<String> path = dStar.findPathToTarget(start, target);
+			int expected = expectedDistance(grid, start, target);
+			if(expected == UpdatingSearchAlgorithm.PATH_NOT_FOUND) {
+				assertTrue(path.isEmpty());
+				continue;
+			}
+			int length = 0;
+			for(int j = 0; j + 1 < path.size(); j++) {
+				length += grid.targets(path.get(j)).get(path.get(j + 1));
+			}
+			assertTrue(path.get(0).equals(start) && length == expected);
+			assertTrue(dStar.findDistanceToTarget(start, target) == expected);
+			repairs += dStar.getRecomputedCount();
+			start = path.get(1);	//agent takes one step
+		}
+		assertTrue(repairs < firstSearch * 40);
+	}
+
+	@Test
+	public void testUpdatesOnlyShowRepair() throws InterruptedException {
+		Random random = new Random(6);
+		int size = 20;
+		Graph<String> grid = TestGraphs.grid(size, random, 100, 299);
+		UpdatingSearchAlgorithm search = UpdatingSearchAlgorithm.newSearch(grid, UpdatingSearchAlgorithm.D_STAR_LITE);
+		DStarLiteSearch dStar = (DStarLiteSearch) search;
+		ArrayBlockingQueue<GraphUpdate> updateQueue = new ArrayBlockingQueue<>(100000);
+		dStar.setUpdateQueue(updateQueue);
+		String target = (size - 1) + "," + (size - 1);
+		assertTrue(dStar.searchForTarget("0,0", target));
+		int firstUpdates = updateQueue.size();
+		updateQueue.clear();
+
+		//block the first step of the path
+		List<String> path = dStar.findPathToTarget("0,0", target);
+		grid.set(path.get(0), path.get(1), 0);
+		dStar.edgeChanged(path.get(0), path.get(1));
+		assertTrue(updateQueue.isEmpty());
+		assertTrue(dStar.replan());
+		assertTrue(updateQueue.take().type == GraphUpdate.START);
+		int repairUpdates = 0;
+		GraphUpdate update = updateQueue.take();
+		while(update.type == GraphUpdate.UPDATE) {
+			repairUpdates++;
+			update = updateQueue.take();
+		}
+		assertTrue(update.type == GraphUpdate.END && updateQueue.isEmpty());
+		assertTrue(repairUpdates == dStar.getRecomputedCount() && repairUpdates < firstUpdates);
+		List<String> newPath = update.getPathToTarget();
+		assertTrue(newPath.get(0).equals(target) && newPath.get(newPath.size() - 1).equals("0,0"));
+		assertTrue(!newPath.get(newPath.size() - 2).equals(path.get(1)));
+
+		//whole graph distances are repaired in place too
+		dStar.searchWholeGraph("0,0");
+		grid.remove("1,0");
+		dStar.edgeChanged("0,0", "1,0");
+		dStar.edgeChanged("1,0", "2,0");
+		dStar.edgeChanged("1,0", "1,1");
+		dStar.replan();
+		Map<String, Integer> distances = dStar.getDistances();
+		for(String vertex: grid.vertices()) {
+			assertTrue(distances.get(vertex) == expectedDistance(grid, vertex, "0,0"));
+		}
+		assertTrue(!distances.containsKey("1,0"));
+	}
+}
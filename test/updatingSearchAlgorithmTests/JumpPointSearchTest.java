@@ -0,0 +1,191 @@
+package updatingSearchAlgorithmTests;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+
+import org.junit.jupiter.api.Test;
+
+import algorithmsTests.TestGraphs;
+import graph.Graph;
+import searchAlgorithms.DijkstraSearch;
+import updatingSearchAlgorithms.AStarSearchUpdatingVariableHeuristic;
+import updatingSearchAlgorithms.GraphUpdate;
+import updatingSearchAlgorithms.JumpPointSearch;
+import updatingSearchAlgorithms.UpdatingSearchAlgorithm;
+
+class JumpPointSearchTest {
+
+	@Test
+	public void testDistancesMatchDijkstra() {
+		Random random = new Random(13);
+		int size = 40;
+		Graph<String> grid = TestGraphs.obstacleGrid(size, 25, random);
+		UpdatingSearchAlgorithm jps = UpdatingSearchAlgorithm.newSearch(grid, UpdatingSearchAlgorithm.JUMP_POINT);
+		DijkstraSearch djTest = new DijkstraSearch(grid);
+		Object[] vertices = grid.vertices().toArray();
+		for(int i = 0; i < 10; i++) {
+			String source = (String) vertices[random.nextInt(vertices.length)];
+			djTest.searchWholeGraph(source);
+			Map<String, Integer> expected = new HashMap<>(djTest.getDistances());
+			for(String vertex: grid.vertices()) {
+				expected.putIfAbsent(vertex, Integer.MAX_VALUE);	//unreached vertices may be left out
+			}
+			jps.setUpdateQueue(new ArrayBlockingQueue<>(size * size * 4));
+			jps.searchWholeGraph(source);
+			Map<String, Integer> actual = jps.getDistances();
+			for(String vertex: grid.vertices()) {
+				if(expected.get(vertex) == Integer.MAX_VALUE) {
+					assertTrue(!actual.containsKey(vertex));
+				}
+				else {
+					assertTrue(expected.get(vertex).equals(actual.get(vertex)));
+				}
+			}
+			for(int j = 0; j < 20; j++) {
+				String target = (String) vertices[random.nextInt(vertices.length)];
+				int distance = jps.findDistanceToTarget(source, target);
+				if(expected.get(target) == Integer.MAX_VALUE) {
+					assertTrue(distance == UpdatingSearchAlgorithm.PATH_NOT_FOUND);
+					continue;
+				}
+				assertTrue(distance == expected.get(target));
+				List<String> path = jps.findPathToTarget(source, target);
+				int length = 0;
+				for(int k = 0; k + 1 < path.size(); k++) {
+					length += grid.targets(path.get(k)).get(path.get(k + 1));
+				}
+				assertTrue(path.get(0).equals(source) && path.get(path.size() - 1).equals(target));
+				assertTrue(length == distance);
+			}
+		}
+	}
+
+	@Test
+	public void testQueueMessages() throws InterruptedException {
+		int size = 30;
+		Graph<String> grid = TestGraphs.obstacleGrid(size, 5, new Random(4));	//jump points pay off where open runs are long
+		UpdatingSearchAlgorithm jps = UpdatingSearchAlgorithm.newSearch(grid, UpdatingSearchAlgorithm.JUMP_POINT);
+		ArrayBlockingQueue<GraphUpdate> updateQueue = new ArrayBlockingQueue<>(10000);
+		jps.setUpdateQueue(updateQueue);
+		//the lowest open cell of the largest open area, and the cell furthest from it, whatever the set order
+		DijkstraSearch dijkstra = new DijkstraSearch(grid);
+		Set<String> seen = new HashSet<>();
+		String source = null;
+		String target = null;
+		int areaSize = 0;
+		for(int y = 0; y < size; y++) {
+			for(int x = 0; x < size; x++) {
+				String cell = x + "," + y;
+				if(!grid.vertices().contains(cell) || seen.contains(cell)) {
+					continue;
+				}
+				dijkstra.searchWholeGraph(cell);
+				Map<String, Integer> area = new HashMap<>(dijkstra.getDistances());
+				area.values().removeIf(distance -> distance == Integer.MAX_VALUE);
+				seen.addAll(area.keySet());
+				if(area.size() > areaSize) {
+					areaSize = area.size();
+					source = cell;
+					target = cell;
+					for(Map.Entry<String, Integer> entry: area.entrySet()) {
+						int furthest = area.get(target);
+						if(entry.getValue() > furthest || (entry.getValue() == furthest && entry.getKey().compareTo(target) < 0)) {
+							target = entry.getKey();
+						}
+					}
+				}
+			}
+		}
+		assertTrue(jps.findDistanceToTarget(source, target) > 0);
+		assertTrue(updateQueue.isEmpty());	//find methods do not push updates
+		assertTrue(jps.searchForTarget(source, target));
+		assertTrue(updateQueue.take().type == GraphUpdate.START);
+		int jumpPoints = 0;
+		GraphUpdate update = updateQueue.take();
+		while(update.type == GraphUpdate.UPDATE) {
+			jumpPoints++;
+			update = updateQueue.take();
+		}
+		assertTrue(update.type == GraphUpdate.END && updateQueue.isEmpty());
+		List<String> path = update.getPathToTarget();
+		assertTrue(path.get(0).equals(target) && path.get(path.size() - 1).equals(source));
+		//each update is a queue insertion or decrease, A* makes one for every cell it relaxes
+		AStarSearchUpdatingVariableHeuristic aStar = new AStarSearchUpdatingVariableHeuristic(grid, AStarSearchUpdatingVariableHeuristic.EUCLIDIAN);
+		aStar.setUpdateQueue(updateQueue);
+		assertTrue(aStar.searchForTarget(source, target));
+		int relaxed = 0;
+		for(GraphUpdate aStarUpdate: updateQueue) {
+			if(aStarUpdate.type == GraphUpdate.UPDATE) {
+				relaxed++;
+			}
+		}
+		assertTrue(jumpPoints < relaxed);
+	}
+
+	@Test
+	public void testRejectsGraphsOffTheGridModel() {
+		Graph<String> grid = TestGraphs.obstacleGrid(5, 25, new Random(1));
+		String source = null;
+		for(String vertex: grid.vertices()) {
+			if(source == null || grid.targets(vertex).size() > grid.targets(source).size()) {
+				source = vertex;
+			}
+		}
+		String neighbour = grid.targets(source).keySet().iterator().next();
+		int weight = grid.set(source, neighbour, 50);	//not uniform cost
+		JumpPointSearch jps = new JumpPointSearch(grid);
+		assertTrue(jps.findDistanceToTarget(source, neighbour) == UpdatingSearchAlgorithm.PATH_NOT_FOUND);
+		grid.set(source, neighbour, weight);
+		assertTrue(jps.findDistanceToTarget(source, neighbour) == UpdatingSearchAlgorithm.PATH_NOT_FOUND);	//not reloaded yet
+		assertTrue(jps.cellChanged(source) && jps.findDistanceToTarget(source, neighbour) != UpdatingSearchAlgorithm.PATH_NOT_FOUND);
+		grid.set(source, "9,9", 100);	//not between adjacent cells
+		assertTrue(!jps.cellChanged("9,9"));
+		assertTrue(jps.findDistanceToTarget(source, neighbour) == UpdatingSearchAlgorithm.PATH_NOT_FOUND);
+		grid.remove("9,9");
+		assertTrue(jps.refresh() && jps.findDistanceToTarget(source, neighbour) != UpdatingSearchAlgorithm.PATH_NOT_FOUND);
+	}
+
+	@Test
+	public void testCellChangedMatchesRebuiltSearch() {
+		Random random = new Random(21);
+		int size = 30;
+		Graph<String> grid = TestGraphs.obstacleGrid(size, 25, random);
+		JumpPointSearch jps = new JumpPointSearch(grid);
+		Object[] vertices = grid.vertices().toArray();
+		for(int i = 0; i < 20; i++) {
+			String blocked = (String) vertices[random.nextInt(vertices.length)];
+			if(!grid.vertices().contains(blocked)) {
+				continue;
+			}
+			int x = Integer.parseInt(blocked.substring(0, blocked.indexOf(',')));
+			int y = Integer.parseInt(blocked.substring(blocked.indexOf(',') + 1));
+			grid.remove(blocked);
+			for(int dx = -1; dx <= 1; dx += 2) {
+				for(int dy = -1; dy <= 1; dy += 2) {
+					String side = (x + dx) + "," + y;
+					String other = x + "," + (y + dy);
+					if(grid.vertices().contains(side) && grid.vertices().contains(other)) {
+						grid.set(side, other, 0);	//no cutting the blocked corner
+					}
+				}
+			}
+			assertTrue(jps.cellChanged(blocked));
+			String source = (String) vertices[random.nextInt(vertices.length)];
+			String target = (String) vertices[random.nextInt(vertices.length)];
+			if(!grid.vertices().contains(source) || !grid.vertices().contains(target)) {
+				continue;
+			}
+			int expected = new JumpPointSearch(grid).findDistanceToTarget(source, target);
+			assertTrue(jps.findDistanceToTarget(source, target) == expected);
+			assertTrue(expected == UpdatingSearchAlgorithm.PATH_NOT_FOUND
+					|| expected == new DijkstraSearch(grid).findDistanceToTarget(source, target));
+		}
+	}
+}
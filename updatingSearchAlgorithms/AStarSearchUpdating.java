@@ -5,17 +5,19 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.concurrent.ArrayBlockingQueue;
 
 import graph.Graph;
 import searchAlgorithms.AStarSearch;
-import graph.VertexDistancePair;
-import queues.MinDistanceQueue;
+import searchAlgorithms.GridCoordinateIndex;
+import searchAlgorithms.VertexIndex;
+import queues.IndexedDaryHeap;
 
 public class AStarSearchUpdating  implements UpdatingSearchAlgorithm {
-	private PriorityQueue<VertexDistancePair> pQ;
+	private IndexedDaryHeap pQ;	//vertex ids from index, prioritised by fScore
+	private VertexIndex index;
+	private GridCoordinateIndex coordinates;	//"x,y" labels parsed once per index id
 	private Map<String, Integer> gScore;
 	private Map<String, Integer> fScore;
 	private Map<String, String> predecessors;
@@ -56,12 +58,15 @@ public class AStarSearchUpdating  implements UpdatingSearchAlgorithm {
 	
 	public AStarSearchUpdating(Graph<String> graph) {
 		this.graph = graph;
+		this.index = new VertexIndex();
+		this.coordinates = GridCoordinateIndex.over(index);
+		this.pQ = new IndexedDaryHeap(0);
 		WEIGHTING = 100;	//all other values initialised at search time
 		//default weighting for SAV is 100
 	}
 	
 	private void initialise(String source, String target) {
-		this.pQ = new PriorityQueue<>();
+		this.pQ.clear();
 		this.fScore = new HashMap<>();
 		this.gScore = new HashMap<>();
 		this.predecessors = new HashMap<>();
@@ -82,7 +87,7 @@ public class AStarSearchUpdating  implements UpdatingSearchAlgorithm {
 		gScore.put(source, 0);	//Define the distance of the start node as 0
 		fScore.put(source,hScore(source)); //define h score of start as hscore only
 		
-		pQ.add(new VertexDistancePair(source, fScore.get(source)));	// add the starting node to the pQ
+		pQ.insert(index.idOf(source), fScore.get(source));	// add the starting node to the pQ
 		if(updateQueue == null) {
 			getUpdateQueue();
 		}
@@ -102,7 +107,7 @@ public class AStarSearchUpdating  implements UpdatingSearchAlgorithm {
 		String current ="";
 		//main loop
 		while(!pQ.isEmpty()) {
-			current = pQ.remove().vertex;	//removes the lowest fScore vertex from the open set (pQ)
+			current = index.labelOf(pQ.pollMin());	//removes the lowest fScore vertex from the open set (pQ)
 //			System.out.println(String.format("Selected vertex %S with f score %s", current, fScore.get(current)));
 			if(current.equals(target)) {
 				//finished, found source
@@ -148,15 +153,14 @@ public class AStarSearchUpdating  implements UpdatingSearchAlgorithm {
 	 * 
 	 */
 	public Integer hScore(String vertex) {
-		Integer xs = Integer.parseInt(vertex.split(",")[0]);
-		Integer ys = Integer.parseInt(vertex.split(",")[1]);
+		int id = index.idOf(vertex);
+		int xs = coordinates.x(id);
+		int ys = coordinates.y(id);
 		//first time round define the target
 		if(yt ==null ||xt == null) {
-			xt = Integer.parseInt(target.split(",")[0]);
-			yt = Integer.parseInt(target.split(",")[1]);
+			xt = coordinates.x(index.idOf(target));
+			yt = coordinates.y(index.idOf(target));
 		}
-		double h = Math.sqrt((Math.pow(xt-xs, 2) + Math.pow(yt-ys, 2))*Math.pow(WEIGHTING, 2));
-		//return (int) Math.ceil(h);
 		return(WEIGHTING*(Math.abs(xt-xs)+Math.abs(yt-ys)));
 		
 //		int dx = Math.abs(xt-xs);
@@ -169,12 +173,12 @@ public class AStarSearchUpdating  implements UpdatingSearchAlgorithm {
 	
 	/**
 	 * Helper method to change priority of a given vertex in the priority queue
+	 * re-inserts the vertex if it has already been popped from the open set
 	 * @param vertex
 	 * @param new score to apply to the VDP
 	 */
 	public void changePriority(String vertex, Integer newScore) {
-		pQ.remove(new VertexDistancePair(vertex,fScore.get(vertex)));
-		pQ.add(new VertexDistancePair(vertex,newScore));
+		pQ.update(index.idOf(vertex), newScore);
 		fScore.put(vertex, newScore);
 	}
 	/**
@@ -2,20 +2,25 @@ package updatingSearchAlgorithms;
 
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.concurrent.ArrayBlockingQueue;
 
 import graph.Graph;
 import searchAlgorithms.AStarSearch;
-import graph.VertexDistancePair;
-import queues.MinDistanceQueue;
+import searchAlgorithms.CompiledGraph;
+import searchAlgorithms.GridCoordinateIndex;
+import searchAlgorithms.LandmarkHeuristic;
+import searchAlgorithms.VertexIndex;
+import queues.IndexedDaryHeap;
 
 public class AStarSearchUpdatingVariableHeuristic  implements UpdatingSearchAlgorithm {
-	private PriorityQueue<VertexDistancePair> pQ;
+	private IndexedDaryHeap pQ;	//vertex ids from index, prioritised by fScore
+	private VertexIndex index;
+	private GridCoordinateIndex coordinates;	//"x,y" labels parsed once per index id, only for grid heuristics
 	private Map<String, Integer> gScore;
 	private Map<String, Integer> fScore;
 	private Map<String, String> predecessors;
@@ -35,10 +40,24 @@ public class AStarSearchUpdatingVariableHeuristic  implements UpdatingSearchAlgo
 	private ArrayBlockingQueue<GraphUpdate> updateQueue;
 	private Integer iteration;	//used only to inform updates of iteration number
 
+	//Anytime repairing A* (ARA*), see searchAnytime
+	public static final double INFLATION_STEP = 0.5;
+	public static final double DEFAULT_INFLATION = 3;
+	public static final long DEFAULT_BUDGET_MILLIS = 100;
+	private double anytimeInflation = 1;	//initial inflation for searchForTarget, 1 runs plain A*
+	private long anytimeBudgetMillis;
+	private double inflation;	//inflation of the running ARA* iteration
+	private double suboptimalityBound;	//bound on the last path published by searchAnytime
+	private Set<String> open;	//queued for the running iteration, so rekeying skips the rest of the graph
+	private Set<String> closed;	//expanded in the running iteration
+	private Set<String> inconsistent;	//improved after being expanded in the running iteration, reopened by the next
+	private int expandedCount;
+
 	//Heuristics
 	public static final int DIAGONAL = 1;
 	public static final int EUCLIDIAN = 2;
 	public static final int MANHATTAN = 3;
+	public static final int LANDMARK = 4;	//ALT bounds, works for any vertex labels
 	
 	public static final Map<Integer, String> HEURISTICS;
 	static {
@@ -46,10 +65,12 @@ public class AStarSearchUpdatingVariableHeuristic  implements UpdatingSearchAlgo
 		tempMap.put(DIAGONAL,"DIAGONAL");
 		tempMap.put(EUCLIDIAN,"EUCLIDIAN");
 		tempMap.put(MANHATTAN,"MANHATTAN");
+		tempMap.put(LANDMARK,"LANDMARK");
 		HEURISTICS = tempMap;
 	}
 
 	private final Integer heuristicType; 
+	private LandmarkHeuristic landmarks;	//LANDMARK tables, built on the first target search
 	/**
 	 * Usage:
 	 * This algorithm assumes that vertex labes are of the form:
@@ -69,6 +90,9 @@ public class AStarSearchUpdatingVariableHeuristic  implements UpdatingSearchAlgo
 	
 	public AStarSearchUpdatingVariableHeuristic(Graph<String> graph, Integer heuristic) {
 		this.graph = graph;
+		this.index = new VertexIndex();
+		this.coordinates = GridCoordinateIndex.over(index);
+		this.pQ = new IndexedDaryHeap(0);
 		WEIGHTING = 100;	//all other values initialised at search time
 		//default weighting for SAV is 100
 		if(!HEURISTICS.keySet().contains(heuristic)) {
@@ -84,7 +108,7 @@ public class AStarSearchUpdatingVariableHeuristic  implements UpdatingSearchAlgo
 	}
 	
 	private void initialise(String source, boolean searchForTarget) {
-		this.pQ = new PriorityQueue<>();
+		this.pQ.clear();
 		this.fScore = new HashMap<>();
 		this.gScore = new HashMap<>();
 		this.predecessors = new HashMap<>();
@@ -109,7 +133,7 @@ public class AStarSearchUpdatingVariableHeuristic  implements UpdatingSearchAlgo
 			fScore.put(source, gScore.get(source));
 		}
 		
-		pQ.add(new VertexDistancePair(source, fScore.get(source)));	// add the starting node to the pQ
+		pQ.insert(index.idOf(source), fScore.get(source));	// add the starting node to the pQ
 		if(updateQueue == null) {
 			getUpdateQueue();
 		}
@@ -125,7 +149,7 @@ public class AStarSearchUpdatingVariableHeuristic  implements UpdatingSearchAlgo
 		String current ="";
 		//main loop
 		while(!pQ.isEmpty()) {
-			current = pQ.remove().vertex;	//removes the lowest fScore vertex from the open set (pQ)
+			current = index.labelOf(pQ.pollMin());	//removes the lowest fScore vertex from the open set (pQ)
 //			System.out.println(String.format("Selected vertex %S with f score %s", current, fScore.get(current)));
 			System.out.println("Currently searching from: " + current);
 			Map<String, Integer> neighbourMap = graph.targets(current);	
@@ -150,13 +174,16 @@ public class AStarSearchUpdatingVariableHeuristic  implements UpdatingSearchAlgo
 
 	@Override
 	public boolean searchForTarget(String source, String target) {
+		if(anytimeInflation > 1) {
+			return searchAnytime(source, target, anytimeInflation, anytimeBudgetMillis);
+		}
 		initialise(source,target 
 				);
 		pushUpdatedDistances();
 		String current ="";
 		//main loop
 		while(!pQ.isEmpty()) {
-			current = pQ.remove().vertex;	//removes the lowest fScore vertex from the open set (pQ)
+			current = index.labelOf(pQ.pollMin());	//removes the lowest fScore vertex from the open set (pQ)
 //			System.out.println(String.format("Selected vertex %S with f score %s", current, fScore.get(current)));
 			if(current.equals(target)) {
 				//finished, found source
@@ -190,6 +217,149 @@ public class AStarSearchUpdatingVariableHeuristic  implements UpdatingSearchAlgo
 		return false; //target not found
 	}
 	
+	/**
+	 * Makes searchForTarget, and so findPathToTarget, run searchAnytime with these settings
+	 * @param initialInflation - inflation of the first path, 1 goes back to plain A*
+	 * @param budgetMillis - time allowed for improving on the first path
+	 */
+	public void setAnytime(double initialInflation, long budgetMillis) {
+		if(initialInflation < 1 || budgetMillis < 0) {
+			throw new IllegalArgumentException("Inflation must be at least 1 and the budget non negative");
+		}
+		this.anytimeInflation = initialInflation;
+		this.anytimeBudgetMillis = budgetMillis;
+	}
+
+	/**
+	 * Anytime repairing A* (Likhachev, Gordon and Thrun).
+	 * The first iteration is A* with the heuristic inflated by initialInflation, which expands few vertices
+	 * and finds a path at most initialInflation times longer than the shortest, if the heuristic is admissible.
+	 * Each later iteration lowers the inflation by INFLATION_STEP and carries on from the g scores,
+	 * predecessors and open set left by the one before, only reopening the vertices that improved after
+	 * being expanded, so no vertex is searched from scratch again.
+	 * Iterations stop once the path is proven optimal or the budget has run out, an iteration still running
+	 * at the deadline is abandoned and the last path published stands.
+	 *
+	 * Pushes a start message and distance updates as searchForTarget does, and an END message with the path,
+	 * [target..source], every time an iteration improves it. The last END message holds the best path found.
+	 * @param source
+	 * @param target
+	 * @param initialInflation - inflation of the first iteration, at least 1
+	 * @param budgetMillis - time allowed, after the first iteration completes, for improving the path
+	 * @return true if a path is found
+	 */
+	public boolean searchAnytime(String source, String target, double initialInflation, long budgetMillis) {
+		initialise(source, target);
+		pushUpdatedDistances();
+		open = new HashSet<>();
+		open.add(source);
+		closed = new HashSet<>();
+		inconsistent = new HashSet<>();
+		expandedCount = 0;
+		inflation = initialInflation;
+		improvePath(Long.MAX_VALUE);
+		if(gScore.get(target) == null || gScore.get(target).equals(INF)) {
+			suboptimalityBound = INF;
+			this.pathToTarget = populatePathToTarget(source, getFurthestTravelledVertex());	//not longest
+			pushEndMessage(false);
+			return false;
+		}
+		int published = gScore.get(target);
+		updateBound();
+		this.pathToTarget = populatePathToTarget(source, target);
+		pushEndMessage(true);
+		long deadline = System.nanoTime() + budgetMillis * 1000000;	//the budget starts once the first path is out
+		while(suboptimalityBound > 1 && System.nanoTime() < deadline) {
+			inflation = Math.max(1, inflation - INFLATION_STEP);
+			open.addAll(inconsistent);
+			for(String vertex: open) {
+				pQ.update(index.idOf(vertex), inflatedKey(vertex));
+			}
+			inconsistent.clear();
+			closed.clear();
+			if(!improvePath(deadline)) {
+				break;
+			}
+			updateBound();
+			if(gScore.get(target) < published) {
+				published = gScore.get(target);
+				this.pathToTarget = populatePathToTarget(source, target);
+				pushEndMessage(true);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Expands vertices in order of inflated f score until the target's g score is no larger than any of them.
+	 * Vertices improved after their expansion in this iteration go to the inconsistent set instead of the queue
+	 * @param deadline - System.nanoTime() at which to abandon the iteration
+	 * @return true if the iteration completed before the deadline
+	 */
+	private boolean improvePath(long deadline) {
+		while(!pQ.isEmpty() && gScore.get(target) > pQ.peekMinPriority()) {
+			if(System.nanoTime() > deadline) {
+				return false;
+			}
+			String current = index.labelOf(pQ.pollMin());
+			open.remove(current);
+			closed.add(current);
+			expandedCount++;
+			Map<String, Integer> neighbourMap = graph.targets(current);
+			for(String neighbour: neighbourMap.keySet()) {
+				Integer newG = gScore.get(current) + neighbourMap.get(neighbour);
+				if(newG < gScore.get(neighbour)) {
+					gScore.put(neighbour, newG);
+					predecessors.put(neighbour, current);
+					if(closed.contains(neighbour)) {
+						inconsistent.add(neighbour);
+					}
+					else {
+						pQ.update(index.idOf(neighbour), inflatedKey(neighbour));
+						open.add(neighbour);
+					}
+					pushUpdatedDistances(neighbour, newG);
+				}
+			}
+		}
+		return true;
+	}
+
+	private long inflatedKey(String vertex) {
+		long key = gScore.get(vertex) + (long) (inflation * hScore(vertex));
+		fScore.put(vertex, (int) Math.min(key, INF));
+		return key;
+	}
+
+	/**
+	 * The target's g score over the smallest uninflated f score still open or inconsistent bounds
+	 * how far the current path can be from the shortest
+	 */
+	private void updateBound() {
+		long lowest = INF;
+		for(String vertex: open) {
+			lowest = Math.min(lowest, (long) gScore.get(vertex) + hScore(vertex));
+		}
+		for(String vertex: inconsistent) {
+			lowest = Math.min(lowest, (long) gScore.get(vertex) + hScore(vertex));
+		}
+		suboptimalityBound = Math.max(1, Math.min(inflation, gScore.get(target) / (double) lowest));
+	}
+
+	/**
+	 * @return factor by which the last path of searchAnytime can exceed the shortest, 1 if it is the shortest
+	 */
+	public double getSuboptimalityBound() {
+		return suboptimalityBound;
+	}
+
+	/**
+	 * @return number of vertex expansions over every iteration of the last searchAnytime
+	 */
+	public int getExpandedCount() {
+		return expandedCount;
+	}
+
 	/**
 	 * Returns the hScore value for the respective heurstic type 
 	 * as defined by the heuristicType field
@@ -199,9 +369,12 @@ public class AStarSearchUpdatingVariableHeuristic  implements UpdatingSearchAlgo
 	 * 
 	 */
 	public Integer hScore(String vertex) {
+		if(heuristicType == LANDMARK) {
+			return hScoreLandmark(vertex);
+		}
 		if(yt ==null ||xt == null) {
-			xt = Integer.parseInt(target.split(",")[0]);
-			yt = Integer.parseInt(target.split(",")[1]);
+			xt = coordinates.x(index.idOf(target));
+			yt = coordinates.y(index.idOf(target));
 		}
 		switch(heuristicType){
 			case DIAGONAL:
@@ -215,9 +388,21 @@ public class AStarSearchUpdatingVariableHeuristic  implements UpdatingSearchAlgo
 		}
 	}
 	
+	/**
+	 * Landmark lower bound, not scaled by WEIGHTING since it is already in edge weight units.
+	 * The tables are a snapshot of the graph at the first target search
+	 */
+	public Integer hScoreLandmark(String vertex) {
+		if(landmarks == null) {
+			landmarks = new LandmarkHeuristic(CompiledGraph.compile(graph));
+		}
+		return landmarks.estimate(vertex, target);
+	}
+	
 	public Integer hScoreDiagonal(String vertex) {
-		Integer xs = Integer.parseInt(vertex.split(",")[0]);
-		Integer ys = Integer.parseInt(vertex.split(",")[1]);
+		int id = index.idOf(vertex);
+		int xs = coordinates.x(id);
+		int ys = coordinates.y(id);
 		int dx = Math.abs(xt-xs);
 		int dy = Math.abs(ys-yt);
 		double diag = WEIGHTING*Math.max(dx,dy) + (WEIGHTING*1.41)*Math.min(dx, dy);
@@ -226,26 +411,28 @@ public class AStarSearchUpdatingVariableHeuristic  implements UpdatingSearchAlgo
 	}
 	
 	public Integer hScoreEuc(String vertex) {
-		Integer xs = Integer.parseInt(vertex.split(",")[0]);
-		Integer ys = Integer.parseInt(vertex.split(",")[1]);
+		int id = index.idOf(vertex);
+		int xs = coordinates.x(id);
+		int ys = coordinates.y(id);
 		return(WEIGHTING*(Math.abs(xt-xs)+Math.abs(yt-ys)));
 	}
 	
 	public Integer hScoreManhattan(String vertex) {
-		Integer xs = Integer.parseInt(vertex.split(",")[0]);
-		Integer ys = Integer.parseInt(vertex.split(",")[1]);
+		int id = index.idOf(vertex);
+		int xs = coordinates.x(id);
+		int ys = coordinates.y(id);
 		return(WEIGHTING*(Math.abs(xt-xs) +Math.abs(yt-ys)));
 	}
 	
 	
 	/**
 	 * Helper method to change priority of a given vertex in the priority queue
+	 * re-inserts the vertex if it has already been popped from the open set
 	 * @param vertex
 	 * @param new score to apply to the VDP
 	 */
 	public void changePriority(String vertex, Integer newScore) {
-		pQ.remove(new VertexDistancePair(vertex,fScore.get(vertex)));
-		pQ.add(new VertexDistancePair(vertex,newScore));
+		pQ.update(index.idOf(vertex), newScore);
 		fScore.put(vertex, newScore);
 	}
 	/**
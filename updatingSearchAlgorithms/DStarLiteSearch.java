@@ -0,0 +1,483 @@
+package updatingSearchAlgorithms;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+
+import graph.Graph;
+import queues.IndexedDaryHeap;
+import searchAlgorithms.GridCoordinateIndex;
+import searchAlgorithms.VertexIndex;
+
+/**
+ * D* Lite (Koenig and Likhachev) incremental replanning for agents moving through a graph whose edge weights change.
+ * The search runs backwards from the target, so g is the distance from each vertex to the target, and keeps
+ * its g and rhs (one step lookahead) values between plans. After edgeChanged notifications and moveStart,
+ * replan only reprocesses the vertices made inconsistent (g != rhs) by the changes, rather than searching again.
+ * Updates are pushed only for vertices whose g value is recomputed, so the update stream of a replan
+ * shows the repair, and the end message carries the new path.
+ *
+ * searchForTarget reuses the previous search when the target is unchanged, moving the start to the new source,
+ * otherwise it starts a new search. searchWholeGraph plans from every vertex to the source (h = 0).
+ * The optional heuristic is costPerCell times the chebyshev distance between "x,y" labels, and is only admissible
+ * if every edge weighs at least costPerCell per cell it spans, e.g. 100 for SAV grids.
+ * This class is not threadsafe
+ * @author watso
+ */
+public class DStarLiteSearch implements UpdatingSearchAlgorithm {
+	/**
+	 * RI:
+	 * 	g[v], rhs[v] == INF for every id not reached since the last new search, rhs[goal] == 0
+	 * 	rhs[v] == min over edges v -> w of weight + g[w] for v != goal, once v has been updated
+	 * 	v is queued iff g[v] != rhs[v], with a priority packing key (k1, k2) as k1 << 32 | k2
+	 * 	km is the sum of heuristic distances the start has moved since the last new search
+	 * AF:
+	 * 	Represents shortest distances to goal, being repaired towards consistency with the current graph
+	 */
+	private static final int INF = Integer.MAX_VALUE;
+	private static final int NONE = -1;
+
+	private Graph<String> graph;
+	private VertexIndex index;
+	private GridCoordinateIndex coordinates;
+	private final int costPerCell;
+	private IndexedDaryHeap pQ;
+	private int[] g;
+	private int[] rhs;
+	private boolean[] removed;	//vertices found missing from the graph by edgeChanged
+	private boolean wholeGraph;
+	private int goal;
+	private int start;
+	private int km;
+
+	private ArrayBlockingQueue<GraphUpdate> updateQueue;
+	private Integer iteration;	//used only to inform updates of iteration number
+	private boolean publishing;	//find methods search without pushing updates
+	private List<String> pathToTarget;
+	private int recomputed;
+
+	/**
+	 * Creates a search without a heuristic, for any vertex labels
+	 * @param graph - graph with non-negative weights
+	 */
+	public DStarLiteSearch(Graph<String> graph) {
+		this(graph, 0);
+	}
+
+	/**
+	 * Creates a search guided by grid distance
+	 * @param graph - graph with "x,y" labels
+	 * @param costPerCell - lowest weight of an edge per cell of chebyshev distance it spans, 0 for no heuristic
+	 */
+	public DStarLiteSearch(Graph<String> graph, int costPerCell) {
+		if(costPerCell < 0) {
+			throw new IllegalArgumentException("Cost per cell cannot be negative: " + costPerCell);
+		}
+		this.graph = graph;
+		this.costPerCell = costPerCell;
+		this.index = new VertexIndex();
+		this.coordinates = GridCoordinateIndex.over(index);
+		this.pQ = new IndexedDaryHeap(0);
+		this.g = new int[0];
+		this.rhs = new int[0];
+		this.removed = new boolean[0];
+		this.goal = NONE;
+		this.start = NONE;
+		this.pathToTarget = new LinkedList<>();
+	}
+
+	@Override
+	public void searchWholeGraph(String source) {
+		publishing = true;
+		begin();
+		newSearch(source, null);
+		pushUpdatedDistances();
+		computeShortestPath();
+		pathToTarget = new LinkedList<>();
+		pathToTarget.add(source);
+		pushEndMessage(false);
+	}
+
+	@Override
+	public boolean searchForTarget(String source, String target) {
+		publishing = true;
+		begin();
+		return plan(source, target);
+	}
+
+	/**
+	 * Notifies the search that the weight of edge from -> to has changed, or that it was added or removed.
+	 * Both endpoints are rechecked, so a single call covers an undirected edge.
+	 * When a vertex is removed, every edge it had must be notified. The repair is deferred to the next replan
+	 */
+	public void edgeChanged(String from, String to) {
+		if(goal == NONE) {
+			return;
+		}
+		Set<String> vertices = graph.vertices();
+		for(String label: new String[] {from, to}) {
+			int u = index.idOf(label);
+			ensureCapacity();
+			removed[u] = !vertices.contains(label);
+			updateVertex(u);
+		}
+	}
+
+	/**
+	 * Moves the start of the plan, e.g. as the agent follows the path
+	 * @param source - new start vertex
+	 */
+	public void moveStart(String source) {
+		int next = index.idOf(source);
+		ensureCapacity();
+		if(start != NONE) {
+			km = (int) Math.min(INF, (long) km + h(start, next));
+		}
+		start = next;
+	}
+
+	/**
+	 * Repairs the plan after edge changes or start moves, pushing a start message,
+	 * updates for the vertices recomputed, and an end message with the new path
+	 * @return true if the target can still be reached from the start
+	 */
+	public boolean replan() {
+		if(goal == NONE) {
+			System.out.println("No plan to repair, search for a target first");
+			return false;
+		}
+		publishing = true;
+		begin();
+		return repair();
+	}
+
+	/**
+	 * @return number of vertices whose g value was recomputed by the last search or replan
+	 */
+	public int getRecomputedCount() {
+		return recomputed;
+	}
+
+	private boolean plan(String source, String target) {
+		if(goal != NONE && target.equals(index.labelOf(goal))) {
+			moveStart(source);
+			wholeGraph = false;
+		}
+		else {
+			newSearch(source, target);
+			if(publishing) {
+				pushUpdatedDistances();
+			}
+		}
+		return repair();
+	}
+
+	private boolean repair() {
+		recomputed = 0;
+		computeShortestPath();
+		boolean found = rhs[start] != INF;	//the start itself may be left overconsistent, its successors are not
+		pathToTarget = found ? walkPath() : new LinkedList<>();
+		pushEndMessage(found);
+		return found;
+	}
+
+	private void begin() {
+		if(updateQueue == null) {
+			getUpdateQueue();
+		}
+		pushStartMessage();
+	}
+
+	/**
+	 * Discards the previous plan and sets up a search backwards from target, or from source if target is null
+	 */
+	private void newSearch(String source, String target) {
+		pQ.clear();
+		Arrays.fill(g, INF);
+		Arrays.fill(rhs, INF);
+		km = 0;
+		start = index.idOf(source);
+		goal = target == null ? start : index.idOf(target);
+		wholeGraph = target == null;
+		ensureCapacity();
+		Arrays.fill(removed, false);
+		rhs[goal] = 0;
+		pQ.insert(goal, key(goal));
+	}
+
+	/**
+	 * Processes inconsistent vertices in key order until the start is consistent and no queued key is lower
+	 * (until the queue is empty for a whole graph search)
+	 */
+	private void computeShortestPath() {
+		while(!pQ.isEmpty() && (wholeGraph || pQ.peekMinPriority() < key(start) || rhs[start] > g[start])) {
+			int u = pQ.peekMin();
+			long oldKey = pQ.peekMinPriority();
+			long newKey = key(u);
+			if(oldKey < newKey) {
+				pQ.update(u, newKey);	//queued before km or the start moved
+			}
+			else if(g[u] > rhs[u]) {
+				g[u] = rhs[u];
+				pQ.pollMin();
+				recompute(u);
+				updatePredecessors(u);
+			}
+			else {
+				g[u] = INF;
+				recompute(u);
+				updateVertex(u);
+				updatePredecessors(u);
+			}
+		}
+	}
+
+	/**
+	 * Updates every vertex with an edge into u, none for a removed vertex since its edges were notified
+	 */
+	private void updatePredecessors(int u) {
+		if(removed[u]) {
+			return;
+		}
+		for(String predecessor: graph.sources(index.labelOf(u)).keySet()) {
+			updateVertex(index.idOf(predecessor));
+		}
+	}
+
+	/**
+	 * Recomputes the one step lookahead of u and queues it iff it is inconsistent
+	 */
+	private void updateVertex(int u) {
+		ensureCapacity();
+		if(u != goal) {
+			int best = INF;
+			if(!removed[u]) {
+				for(Map.Entry<String, Integer> edge: graph.targets(index.labelOf(u)).entrySet()) {
+					int w = index.idOf(edge.getKey());
+					ensureCapacity();
+					if(g[w] != INF) {
+						best = (int) Math.min(best, (long) g[w] + edge.getValue());
+					}
+				}
+			}
+			rhs[u] = best;
+		}
+		else if(removed[u]) {
+			rhs[u] = INF;	//target removed, nothing can reach it
+		}
+		if(g[u] != rhs[u]) {
+			if(pQ.contains(u)) {
+				pQ.update(u, key(u));
+			}
+			else {
+				pQ.insert(u, key(u));
+			}
+		}
+		else {
+			pQ.remove(u);
+		}
+	}
+
+	private void recompute(int u) {
+		recomputed++;
+		if(publishing) {
+			pushUpdatedDistances(index.labelOf(u), g[u]);
+		}
+	}
+
+	/**
+	 * @return priority packing (min(g, rhs) + h(start, u) + km, min(g, rhs)), compared lexicographically
+	 */
+	private long key(int u) {
+		long k2 = Math.min(g[u], rhs[u]);
+		long k1 = k2 == INF ? INF : Math.min(INF, k2 + h(start, u) + km);
+		return (k1 << 32) | k2;
+	}
+
+	private int h(int from, int to) {
+		if(costPerCell == 0) {
+			return 0;
+		}
+		long cells = Math.max(Math.abs((long) coordinates.x(from) - coordinates.x(to)), Math.abs((long) coordinates.y(from) - coordinates.y(to)));
+		return (int) Math.min(INF, cells * costPerCell);
+	}
+
+	/**
+	 * Follows the cheapest edge by weight + g from the start to the goal
+	 * @return path [goal, vn, ... v1, start]
+	 */
+	private List<String> walkPath() {
+		LinkedList<String> path = new LinkedList<>();
+		int current = start;
+		path.addFirst(index.labelOf(current));
+		while(current != goal && path.size() <= index.size()) {
+			int next = nextTowardsGoal(current);
+			if(next == NONE) {
+				return new LinkedList<>();
+			}
+			current = next;
+			path.addFirst(index.labelOf(current));
+		}
+		return path;
+	}
+
+	private int nextTowardsGoal(int u) {
+		int best = NONE;
+		long bestDistance = INF;
+		for(Map.Entry<String, Integer> edge: graph.targets(index.labelOf(u)).entrySet()) {
+			int w = index.idOf(edge.getKey());
+			ensureCapacity();
+			if(g[w] != INF && (long) g[w] + edge.getValue() < bestDistance) {
+				bestDistance = (long) g[w] + edge.getValue();
+				best = w;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Grows the state arrays to cover every id assigned by the index
+	 */
+	private void ensureCapacity() {
+		if(g.length < index.size()) {
+			int oldLength = g.length;
+			int newLength = Math.max(index.size(), oldLength * 2);
+			g = Arrays.copyOf(g, newLength);
+			rhs = Arrays.copyOf(rhs, newLength);
+			removed = Arrays.copyOf(removed, newLength);
+			Arrays.fill(g, oldLength, newLength, INF);
+			Arrays.fill(rhs, oldLength, newLength, INF);
+			pQ.ensureCapacity(newLength);
+		}
+	}
+
+	@Override
+	public boolean setUpdateQueue(ArrayBlockingQueue<GraphUpdate> updateQueue) {
+		if(this.updateQueue == null) {
+			this.updateQueue = updateQueue;
+			return true;
+		}
+		this.updateQueue = updateQueue;
+		return false;
+	}
+
+	@Override
+	public ArrayBlockingQueue<GraphUpdate> getUpdateQueue() {
+		if(updateQueue == null) {
+			this.updateQueue = new ArrayBlockingQueue<GraphUpdate>(10);
+		}
+		return this.updateQueue;
+	}
+
+	@Override
+	public List<String> findPathToTarget(String source, String target) {
+		publishing = false;
+		if(!plan(source, target)) {
+			return new LinkedList<>();
+		}
+		LinkedList<String> path = new LinkedList<>();
+		for(String vertex: pathToTarget) {
+			path.addFirst(vertex);
+		}
+		return path;
+	}
+
+	@Override
+	public Integer findDistanceToTarget(String source, String target) {
+		publishing = false;
+		if(!plan(source, target)) {
+			return PATH_NOT_FOUND;
+		}
+		return rhs[start];
+	}
+
+	/**
+	 * @return next vertex on the shortest path to the target of each vertex with a known distance
+	 */
+	@Override
+	public Map<String, String> getPredecessors() {
+		Map<String, String> next = new HashMap<>();
+		for(int u = 0; u < index.size() && u < g.length; u++) {
+			if(u != goal && g[u] != INF) {
+				int w = nextTowardsGoal(u);
+				if(w != NONE) {
+					next.put(index.labelOf(u), index.labelOf(w));
+				}
+			}
+		}
+		return next;
+	}
+
+	/**
+	 * @return distance to the target of each vertex with a known distance
+	 */
+	@Override
+	public Map<String, Integer> getDistances() {
+		Map<String, Integer> distances = new HashMap<>();
+		for(int u = 0; u < index.size() && u < g.length; u++) {
+			if(g[u] != INF) {
+				distances.put(index.labelOf(u), g[u]);
+			}
+		}
+		return distances;
+	}
+
+	@Override
+	public void pushUpdatedDistances(String vertex, Integer distance) {
+		Map<String, Integer> update = new HashMap<>();
+		update.put(vertex, distance);
+		try {
+			updateQueue.put(new GraphUpdate(update, iteration));
+		}
+		catch(InterruptedException ie) {
+			System.out.println("Interupted when attempting to push update ");
+			ie.printStackTrace();
+			return;
+		}
+		iteration++;
+	}
+
+	@Override
+	public void pushUpdatedDistances() {
+		Map<String, Integer> update = getDistances();
+		update.put(index.labelOf(goal), rhs[goal]);
+		try {
+			updateQueue.put(new GraphUpdate(update, iteration));
+		}
+		catch(InterruptedException ie) {
+			System.out.println("Interupted when attempting to push update ");
+			ie.printStackTrace();
+		}
+		iteration++;
+	}
+
+	@Override
+	public void pushEndMessage(boolean pathFound) {
+		if(!publishing) {
+			return;
+		}
+		try {
+			updateQueue.put(new GraphUpdate(GraphUpdate.END, pathToTarget));
+		}
+		catch(InterruptedException ie) {
+			System.out.println("Interupted when attempting to push end message");
+			ie.printStackTrace();
+		}
+	}
+
+	@Override
+	public void pushStartMessage() {
+		iteration = 0;
+		try {
+			updateQueue.put(new GraphUpdate(GraphUpdate.START));
+		}
+		catch(InterruptedException ie) {
+			System.out.println("Interupted when attempting to push start message");
+			ie.printStackTrace();
+		}
+	}
+}
@@ -6,41 +6,63 @@ import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.concurrent.ArrayBlockingQueue;
 
 import graph.Graph;
-import graph.VertexDistancePair;
+import queues.DialBucketQueue;
+import queues.IndexedDaryHeap;
+import queues.IndexedPriorityQueue;
+import queues.RadixHeap;
+import searchAlgorithms.VertexIndex;
 
 public class DjirkstaSearchUpdating implements UpdatingSearchAlgorithm{
 	/**
 	 * RI:
 	 * Graph: undirected graph containing string vertices and non-negative weights, represnting the graph to be traverssed
 	 * Iteration: count of how many iterations have been performed in a given algorithm application
+	 * pQ: monotone queue of vertex ids from index, prioritised by tentative distance, picked from maxWeight.
+	 * 		Cleared and reused by each search, replaced only when the weights outgrow it or lazy mode is switched
+	 * queueStep: largest step between priorities pQ accepts, Long.MAX_VALUE for a radix heap
+	 * maxWeight: largest edge weight seen, scanned once at construction and raised by searches relaxing heavier edges,
+	 * 		since the graph may change between searches
+	 * settled: vertices popped from the queue, whose distance is final
+	 * lazy: if set, only vertices reached by the search get distance and queue entries
 	 */
 	
 	private ArrayBlockingQueue<GraphUpdate> updateQueue;
 	private Integer iteration;	//used only to inform updates of iteration number
 	
-	private PriorityQueue<VertexDistancePair> pQ;
+	private IndexedPriorityQueue pQ;
+	private long queueStep;
+	private long maxWeight;
+	private VertexIndex index;
 
 	private Map<String,Integer> distances;
 	private Map<String, String> predecessors;
-	private Set<String> vertices;
+	private Set<String> settled;
 	private Graph<String> graph;
+	private boolean lazy;
 	
 	private List<String> pathToTarget;
 	
 	public  DjirkstaSearchUpdating(Graph<String> graph) {
 		this.graph = graph;
+		this.index = new VertexIndex();
+		for(String vertex: graph.vertices()) {
+			for(int weight: graph.targets(vertex).values()) {
+				maxWeight = Math.max(maxWeight, weight);
+			}
+		}
 	}
 	
 	/**
 	 * Empty constructorfor testing mostly
 	 */
 	protected DjirkstaSearchUpdating() {
-		
+		this.index = new VertexIndex();
+		this.pQ = new IndexedDaryHeap(0);
+		this.queueStep = Long.MAX_VALUE;
 	}
 	
 	/**
@@ -48,21 +70,23 @@ public class DjirkstaSearchUpdating implements UpdatingSearchAlgorithm{
 	 * - resets priroty queue 
 	 * - resets distance map
 	 * - resets predecessors queue
-	 * - sets distances to Max Val
+	 * - sets distances to Max Val, unless in lazy mode
 	 * - starts  
 	 * @param source
 	 */
 	private void initialise(String source) {
-		this.vertices = new HashSet<>(graph.vertices());
-		this.pQ = new PriorityQueue<>();
+		this.settled = new HashSet<>();
+		pickQueue();
 		this.distances = new HashMap<>();
 		this.predecessors = new HashMap<>();
 		distances.put(source,0);
-		pQ.add(new VertexDistancePair(source, 0));
-		for(String vertex:vertices) {
-			if(!vertex.equals(source)) {
-				distances.put(vertex, Integer.MAX_VALUE);
-				pQ.add(new VertexDistancePair(vertex,distances.get(vertex)));
+		pQ.insert(index.idOf(source), 0);
+		if(!lazy) {
+			for(String vertex:graph.vertices()) {
+				if(!vertex.equals(source)) {
+					distances.put(vertex, Integer.MAX_VALUE);
+					pQ.insert(index.idOf(vertex), Integer.MAX_VALUE);
+				}
 			}
 		}
 		if(updateQueue == null) {
@@ -71,15 +95,60 @@ public class DjirkstaSearchUpdating implements UpdatingSearchAlgorithm{
 		pushStartMessage();
 	}
 	
+	/**
+	 * Clears the queue for a new search, or replaces it if it does not suit the current weights:
+	 * Dial's buckets for lazy searches over small weights, a radix heap otherwise.
+	 * Eager searches queue Integer.MAX_VALUE placeholders, so their steps are unbounded
+	 */
+	private void pickQueue() {
+		long step = lazy ? maxWeight : Long.MAX_VALUE;
+		boolean buckets = step < DialBucketQueue.MAX_BUCKETS;
+		if(pQ == null || step > queueStep || buckets != (pQ instanceof DialBucketQueue)) {
+			pQ = IndexedPriorityQueue.monotone(index.size(), step);
+			queueStep = buckets ? step : Long.MAX_VALUE;
+			return;
+		}
+		pQ.clear();
+	}
+
+	/**
+	 * Raises maxWeight to an edge weight about to be relaxed. If it is too heavy for the bucket queue,
+	 * the queued entries move to a radix heap for the rest of the search
+	 */
+	private void checkWeight(int weight) {
+		if(weight <= maxWeight) {
+			return;
+		}
+		maxWeight = weight;
+		if(weight > queueStep) {
+			IndexedPriorityQueue radix = new RadixHeap(index.size());
+			while(!pQ.isEmpty()) {
+				long priority = pQ.peekMinPriority();
+				radix.insert(pQ.pollMin(), priority);
+			}
+			pQ = radix;
+			queueStep = Long.MAX_VALUE;
+		}
+	}
+
+	/**
+	 * Selects lazy or eager (default) initialisation.
+	 * Eager mode queues every vertex and pushes the full distance map as the start state,
+	 * lazy mode only touches vertices the search reaches, so the start update holds only the source
+	 * @param lazy
+	 */
+	public void setLazyInitialisation(boolean lazy) {
+		this.lazy = lazy;
+	}
+	
 	/**
 	 * Method to update the priority of an existing item in the priority queue. 
-	 * removes the item and replaces it with a new item of the same vertex, but with new distance
+	 * lowers the queued vertex in place using the heap position index
 	 * @param vertex
 	 * @param newDistance: new integer distance between the source and the vertex
 	 */
 	private void changePriority(String vertex, Integer newDistance) {
-		pQ.remove(new VertexDistancePair(vertex,distances.get(vertex)));
-		pQ.add(new VertexDistancePair(vertex,newDistance));
+		pQ.insertOrDecrease(index.idOf(vertex), newDistance);
 		distances.put(vertex, newDistance);
 	}
 	
@@ -90,8 +159,8 @@ public class DjirkstaSearchUpdating implements UpdatingSearchAlgorithm{
 		String prevVertex = source;
 		String currVertex = source;
 		while(!pQ.isEmpty()) {
-			currVertex = pQ.remove().vertex; 
-			vertices.remove(currVertex);
+			currVertex = index.labelOf(pQ.pollMin()); 
+			settled.add(currVertex);
 			int distance = distances.get(currVertex);
 			if(distances.get(currVertex)== Integer.MAX_VALUE) {
 				//this vertex was unreachable, exit routine, don't need to push since on updates
@@ -101,9 +170,10 @@ public class DjirkstaSearchUpdating implements UpdatingSearchAlgorithm{
 			
 			Map<String, Integer> neigbourDistances = graph.targets(currVertex);
 			for(String neigbourVertex:neigbourDistances.keySet()) {
-				if(vertices.contains(neigbourVertex)) {//iff vertex is not yet visited
+				if(!settled.contains(neigbourVertex)) {//iff vertex is not yet visited
+					checkWeight(neigbourDistances.get(neigbourVertex));
 					int tentDistance = distances.get(currVertex) + neigbourDistances.get(neigbourVertex);
-					if(tentDistance<distances.get(neigbourVertex)) {
+					if(tentDistance<distances.getOrDefault(neigbourVertex, Integer.MAX_VALUE)) {
 						changePriority(neigbourVertex,tentDistance);
 						distances.put(neigbourVertex, tentDistance);
 						predecessors.put(neigbourVertex,currVertex);
@@ -130,8 +200,8 @@ public class DjirkstaSearchUpdating implements UpdatingSearchAlgorithm{
 		pushUpdatedDistances();
 		String prevVertex = source;
 		while(!pQ.isEmpty()) {
-			String currVertex = pQ.remove().vertex;	//get next highest vertex
-			vertices.remove(currVertex);	//remove from vertex set -> this is probably not necessary, since queue is a set too
+			String currVertex = index.labelOf(pQ.pollMin());	//get next highest vertex
+			settled.add(currVertex);	//distance to currVertex is now final
 
 			if(distances.get(currVertex) == Integer.MAX_VALUE) {
 				System.out.println("Ended search early with no route to target");
@@ -150,10 +220,11 @@ public class DjirkstaSearchUpdating implements UpdatingSearchAlgorithm{
 			Map<String, Integer> neighbourDistances = graph.targets(currVertex);
 			//boolean endOfTheRoad = true;	//not used??
 			for(String neigbour: neighbourDistances.keySet()) {
-				if(vertices.contains(neigbour)) {	//iff vertex is not yet visited
+				if(!settled.contains(neigbour)) {	//iff vertex is not yet visited
 					//endOfTheRoad = false;
+					checkWeight(neighbourDistances.get(neigbour));
 					int tentDist = distances.get(currVertex)+ neighbourDistances.get(neigbour);//calculat new path distancev
-					if(tentDist<distances.get(neigbour)) {
+					if(tentDist<distances.getOrDefault(neigbour, Integer.MAX_VALUE)) {
 						changePriority(neigbour,tentDist);
 						distances.put(neigbour, tentDist); //new distance for that node is the tentative distance
 						predecessors.put(neigbour,currVertex);
@@ -0,0 +1,735 @@
+package updatingSearchAlgorithms;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+
+import graph.Graph;
+import queues.IndexedDaryHeap;
+import searchAlgorithms.GridCoordinateIndex;
+import searchAlgorithms.VertexIndex;
+
+/**
+ * Jump Point Search (Harabor and Grastien) over uniform cost 8-connected grid graphs.
+ * Vertex labels are "x,y" cartesian co-ordinates and a missing vertex is a blocked cell.
+ * The graph must match the no corner cutting grid model, checked when the grid is loaded:
+ * 	- every edge joins adjacent cells, in both directions
+ * 	- every pair of orthogonally adjacent cells is joined, with the same straight weight
+ * 	- diagonally adjacent cells are joined, with the same diagonal weight, iff both cells beside the move are open
+ * A* then only queues jump points, the cells where a straight scan finds a forced neighbour or the target,
+ * so long runs of open cells are crossed without touching the priority queue. Diagonal scans relax the jump points
+ * their straight components find directly, rather than queueing the cell they turn at (Harabor and Grastien 2014).
+ * Updates are pushed for each jump point reached, the end message path is expanded back to every cell.
+ *
+ * searchWholeGraph expands jump points from the source with no target and records the distance of every cell scanned,
+ * which gives every reachable cell its shortest distance (canonical Dijkstra).
+ *
+ * The grid is loaded from the graph once, at construction. After a cell is blocked or opened in the graph,
+ * cellChanged reloads it and rechecks only its neighbours; refresh reloads the whole grid after larger changes.
+ * Search state is stamped with the query it was written by, so a query costs the cells it scans, not the grid.
+ * This class is not threadsafe
+ * @author watso
+ */
+public class JumpPointSearch implements UpdatingSearchAlgorithm {
+	/**
+	 * RI:
+	 * 	cells are numbered (x - minX) + (y - minY) * width over the bounding box of the vertices
+	 * 	labels[cell] is the vertex label of an open cell, null for blocked cells
+	 * 	index/coordinates hold the "x,y" co-ordinates of every label loaded, cellOf only returns open cells
+	 * 	gridValid iff every open cell fits the grid model as last loaded
+	 * 	gScore[cell], parent[cell] and closed[cell] are only meaningful if stamps[cell] == generation,
+	 * 	then cell is a jump point reached by the last search and parent[cell] the jump point it was reached from,
+	 * 	via[cell] the cell a diagonal walk from the parent turned straight at to reach it, NONE if it did not turn
+	 * 	reached[cell] / previous[cell] are only kept by searchWholeGraph, for every cell scanned
+	 * 	distances, predecessors hold the same values as the arrays by vertex label
+	 * AF:
+	 * 	Represents the search tree of jump points (or of every cell for a whole graph search) of the last search
+	 */
+	private static final int INF = Integer.MAX_VALUE;
+	private static final int NONE = -1;
+
+	private Graph<String> graph;
+	private ArrayBlockingQueue<GraphUpdate> updateQueue;
+	private Integer iteration;	//used only to inform updates of iteration number
+	private boolean publishing;	//find methods search without pushing updates
+
+	private int minX;
+	private int minY;
+	private int width;
+	private int height;
+	private String[] labels;
+	private VertexIndex index;
+	private GridCoordinateIndex coordinates;
+	private boolean gridValid;
+	private int straight;	//weight of orthogonal moves
+	private int diagonal;	//weight of diagonal moves
+
+	private IndexedDaryHeap pQ;	//jump point cells prioritised by fScore
+	private int[] gScore;
+	private int[] parent;
+	private int[] via;
+	private boolean[] closed;
+	private int[] stamps;
+	private int generation;
+	private int[] reached;
+	private int[] previous;
+	private boolean recording;
+	private int target;
+	private int xt;
+	private int yt;
+
+	private Map<String, Integer> distances;
+	private Map<String, String> predecessors;
+	private List<String> pathToTarget;
+
+	public JumpPointSearch(Graph<String> graph) {
+		this.graph = graph;
+		this.pQ = new IndexedDaryHeap(0);
+		this.distances = new HashMap<>();
+		this.predecessors = new HashMap<>();
+		this.pathToTarget = new LinkedList<>();
+		this.gridValid = loadGrid();
+	}
+
+	/**
+	 * Reloads the whole grid from the graph, after changes too many or too far apart for cellChanged
+	 * @return true if the graph fits the grid model, false with an error printed otherwise
+	 */
+	public boolean refresh() {
+		gridValid = loadGrid();
+		return gridValid;
+	}
+
+	/**
+	 * Reloads a cell that was added to or removed from the graph and rechecks the grid model around it,
+	 * the only cells whose moves it can change. Falls back to refresh if the cell lies outside the loaded grid
+	 * or the grid did not fit the model
+	 * @param label - "x,y" label of the cell
+	 * @return true if the graph fits the grid model, false with an error printed otherwise
+	 */
+	public boolean cellChanged(String label) {
+		if(!gridValid) {
+			return refresh();
+		}
+		boolean present = graph.vertices().contains(label);
+		if(!present && index.find(label) == VertexIndex.NOT_FOUND) {
+			return true;	//never loaded, so nothing to remove
+		}
+		int x;
+		int y;
+		try {
+			int id = index.idOf(label);
+			x = coordinates.x(id);
+			y = coordinates.y(id);
+		}
+		catch(IllegalArgumentException iae) {
+			return refresh();
+		}
+		if(x < minX || y < minY || x - minX >= width || y - minY >= height) {
+			return refresh();
+		}
+		labels[cellAt(x, y)] = present ? label : null;
+		for(int dx = -1; dx <= 1; dx++) {
+			for(int dy = -1; dy <= 1; dy++) {
+				if(isOpen(x + dx, y + dy) && !fitsModel(cellAt(x + dx, y + dy))) {
+					gridValid = false;
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public void searchWholeGraph(String source) {
+		publishing = true;
+		search(source, null);
+	}
+
+	@Override
+	public boolean searchForTarget(String source, String target) {
+		publishing = true;
+		return search(source, target);
+	}
+
+	/**
+	 * Runs one search, to target or over the whole graph if target is null
+	 * @return true if the target was reached
+	 */
+	private boolean search(String source, String targetLabel) {
+		if(publishing) {
+			if(updateQueue == null) {
+				getUpdateQueue();
+			}
+			pushStartMessage();
+		}
+		distances = new HashMap<>();
+		predecessors = new HashMap<>();
+		pathToTarget = new LinkedList<>();
+		if(!gridValid) {
+			System.out.println("Graph does not fit the jump point grid model");
+			pushEndMessage(false);
+			return false;
+		}
+		int start = cellOf(source);
+		target = targetLabel == null ? NONE : cellOf(targetLabel);
+		if(start == NONE || (targetLabel != null && target == NONE)) {
+			System.out.println(String.format("Source %s or target %s is not an open cell of the grid", source, targetLabel));
+			pushEndMessage(false);
+			return false;
+		}
+		int cells = labels.length;
+		recording = target == NONE;
+		nextGeneration();
+		if(recording) {
+			Arrays.fill(reached, INF);	//a whole graph search scans every reachable cell anyway
+			Arrays.fill(previous, NONE);
+			reached[start] = 0;
+		}
+		else {
+			xt = xOf(target);
+			yt = yOf(target);
+		}
+		pQ.clear();
+		touch(start);
+		gScore[start] = 0;
+		distances.put(source, 0);
+		pQ.insert(start, hScore(start));
+		if(publishing) {
+			pushUpdatedDistances();
+		}
+
+		int furthest = start;
+		while(!pQ.isEmpty()) {
+			int current = pQ.pollMin();
+			closed[current] = true;
+			if(current == target) {
+				pathToTarget = expandPath(current);
+				pushEndMessage(true);
+				return true;
+			}
+			if(gScore[current] > gScore[furthest]) {
+				furthest = current;
+			}
+			expand(current);
+		}
+		if(recording) {
+			for(int cell = 0; cell < cells; cell++) {
+				if(reached[cell] != INF) {
+					distances.put(labels[cell], reached[cell]);
+					if(previous[cell] != NONE) {
+						predecessors.put(labels[cell], labels[previous[cell]]);
+					}
+					if(reached[cell] > reached[furthest]) {
+						furthest = cell;
+					}
+				}
+			}
+		}
+		pathToTarget = expandPath(furthest);	//not longest
+		pushEndMessage(false);
+		return false;
+	}
+
+	/**
+	 * Scans from the jump point in each direction kept after pruning, queueing the jump points found.
+	 * Diagonal moves keep their natural directions. Straight moves keep the way ahead, and turn towards a side
+	 * only where the side is forced, open beside the jump point but blocked beside the cell behind it
+	 */
+	private void expand(int current) {
+		int x = xOf(current);
+		int y = yOf(current);
+		int from = via[current] != NONE ? via[current] : parent[current];
+		if(from == NONE) {
+			for(int dx = -1; dx <= 1; dx++) {
+				for(int dy = -1; dy <= 1; dy++) {
+					if((dx != 0 || dy != 0) && canMove(x, y, dx, dy)) {
+						scan(current, x, y, dx, dy);
+					}
+				}
+			}
+			return;
+		}
+		int dx = Integer.signum(x - xOf(from));
+		int dy = Integer.signum(y - yOf(from));
+		if(dx != 0 && dy != 0) {
+			boolean walkX = isOpen(x + dx, y);
+			boolean walkY = isOpen(x, y + dy);
+			if(walkY) {
+				scan(current, x, y, 0, dy);
+			}
+			if(walkX) {
+				scan(current, x, y, dx, 0);
+			}
+			if(walkX && walkY) {
+				scan(current, x, y, dx, dy);
+			}
+		}
+		else if(dx != 0) {
+			boolean ahead = isOpen(x + dx, y);
+			if(ahead) {
+				scan(current, x, y, dx, 0);
+			}
+			for(int side = -1; side <= 1; side += 2) {
+				if(isOpen(x, y + side) && !isOpen(x - dx, y + side)) {	//forced, the cell behind cannot reach the side
+					scan(current, x, y, 0, side);
+					if(ahead) {
+						scan(current, x, y, dx, side);
+					}
+				}
+			}
+		}
+		else {
+			boolean ahead = isOpen(x, y + dy);
+			if(ahead) {
+				scan(current, x, y, 0, dy);
+			}
+			for(int side = -1; side <= 1; side += 2) {
+				if(isOpen(x + side, y) && !isOpen(x + side, y - dy)) {
+					scan(current, x, y, side, 0);
+					if(ahead) {
+						scan(current, x, y, side, dy);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Jumps one direction from the current jump point and relaxes the jump points found.
+	 * A diagonal walk does not queue the cells where its straight components find jump points, it relaxes
+	 * those jump points directly, turning at the cell, and walks on until it is blocked or reaches the target
+	 */
+	private void scan(int current, int x, int y, int dx, int dy) {
+		if(dx == 0 || dy == 0) {
+			int jumpPoint = jump(x + dx, y + dy, dx, dy, gScore[current] + straight, cellAt(x, y));
+			if(jumpPoint != NONE) {
+				relax(current, jumpPoint, NONE, gScore[current] + octile(current, jumpPoint));
+			}
+			return;
+		}
+		int from = cellAt(x, y);
+		int g = gScore[current];
+		do {
+			x += dx;
+			y += dy;
+			g += diagonal;
+			if(!isOpen(x, y)) {
+				return;
+			}
+			int cell = cellAt(x, y);
+			if(recording && g < reached[cell]) {
+				reached[cell] = g;
+				previous[cell] = from;
+			}
+			if(cell == target) {
+				relax(current, cell, NONE, g);
+				return;
+			}
+			int jumpPoint = jump(x + dx, y, dx, 0, g + straight, cell);
+			if(jumpPoint != NONE) {
+				relax(current, jumpPoint, cell, g + octile(cell, jumpPoint));
+			}
+			jumpPoint = jump(x, y + dy, 0, dy, g + straight, cell);
+			if(jumpPoint != NONE) {
+				relax(current, jumpPoint, cell, g + octile(cell, jumpPoint));
+			}
+			from = cell;
+		} while(isOpen(x + dx, y) && isOpen(x, y + dy));	//no corner cutting
+	}
+
+	/**
+	 * Lowers the distance of a jump point reached from the current one, queueing it
+	 * @param turn - cell where a diagonal walk turned straight to reach the jump point, NONE for a walk in one direction
+	 */
+	private void relax(int current, int jumpPoint, int turn, int newG) {
+		touch(jumpPoint);
+		if(closed[jumpPoint]) {
+			return;
+		}
+		if(newG < gScore[jumpPoint]) {
+			gScore[jumpPoint] = newG;
+			parent[jumpPoint] = current;
+			via[jumpPoint] = turn;
+			pQ.insertOrDecrease(jumpPoint, (long) newG + hScore(jumpPoint));
+			distances.put(labels[jumpPoint], newG);
+			predecessors.put(labels[jumpPoint], labels[current]);
+			if(publishing) {
+				pushUpdatedDistances(labels[jumpPoint], newG);
+			}
+		}
+	}
+
+	/**
+	 * Walks straight from (x, y) in direction (dx, dy) until a blocked cell, the target, or a cell with a forced neighbour.
+	 * Whole graph searches record the distance of every cell walked over
+	 * @param g - distance to (x, y) along the walk
+	 * @param from - cell the walk stepped in from
+	 * @return jump point cell, NONE if the walk hits a blocked cell first
+	 */
+	private int jump(int x, int y, int dx, int dy, int g, int from) {
+		while(isOpen(x, y)) {
+			int cell = cellAt(x, y);
+			if(recording && g < reached[cell]) {
+				reached[cell] = g;
+				previous[cell] = from;
+			}
+			if(cell == target) {
+				return cell;
+			}
+			if(dx != 0) {
+				if((isOpen(x, y - 1) && !isOpen(x - dx, y - 1)) || (isOpen(x, y + 1) && !isOpen(x - dx, y + 1))) {
+					return cell;
+				}
+			}
+			else if((isOpen(x - 1, y) && !isOpen(x - 1, y - dy)) || (isOpen(x + 1, y) && !isOpen(x + 1, y - dy))) {
+				return cell;
+			}
+			x += dx;
+			y += dy;
+			g += straight;
+			from = cell;
+		}
+		return NONE;
+	}
+
+	/**
+	 * Builds the cell grid from the graph, sizing the search state to it
+	 * @return false, with an error printed, if the graph is not a uniform cost 8-connected grid
+	 */
+	private boolean loadGrid() {
+		index = new VertexIndex();
+		coordinates = GridCoordinateIndex.over(index);
+		labels = new String[0];
+		width = 0;
+		height = 0;
+		long[] packed = new long[graph.vertices().size()];
+		int count = 0;
+		minX = Integer.MAX_VALUE;
+		minY = Integer.MAX_VALUE;
+		int maxX = Integer.MIN_VALUE;
+		int maxY = Integer.MIN_VALUE;
+		try {
+			for(String vertex: graph.vertices()) {
+				long value = coordinates.packed(index.idOf(vertex));
+				packed[count++] = value;
+				minX = Math.min(minX, GridCoordinateIndex.unpackX(value));
+				minY = Math.min(minY, GridCoordinateIndex.unpackY(value));
+				maxX = Math.max(maxX, GridCoordinateIndex.unpackX(value));
+				maxY = Math.max(maxY, GridCoordinateIndex.unpackY(value));
+			}
+		}
+		catch(IllegalArgumentException iae) {
+			System.out.println("Jump point search requires \"x,y\" vertex labels: " + iae.getMessage());
+			return false;
+		}
+		if(count == 0) {
+			System.out.println("Jump point search on an empty graph");
+			return false;
+		}
+		long cells = ((long) maxX - minX + 1) * ((long) maxY - minY + 1);
+		if(cells > Integer.MAX_VALUE - 8) {
+			System.out.println("Grid too large for jump point search: " + cells + " cells");
+			return false;
+		}
+		width = maxX - minX + 1;
+		height = maxY - minY + 1;
+		labels = new String[(int) cells];
+		for(int id = 0; id < count; id++) {
+			labels[cellAt(GridCoordinateIndex.unpackX(packed[id]), GridCoordinateIndex.unpackY(packed[id]))] = index.labelOf(id);
+		}
+		gScore = new int[(int) cells];
+		parent = new int[(int) cells];
+		via = new int[(int) cells];
+		closed = new boolean[(int) cells];
+		stamps = new int[(int) cells];
+		generation = 0;
+		reached = new int[(int) cells];
+		previous = new int[(int) cells];
+		pQ.ensureCapacity((int) cells);
+
+		straight = NONE;
+		diagonal = NONE;
+		for(int id = 0; id < count; id++) {
+			if(!fitsModel(cellAt(GridCoordinateIndex.unpackX(packed[id]), GridCoordinateIndex.unpackY(packed[id])))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Checks the edges of an open cell against the grid model: each joins an allowed move at the uniform weight
+	 * of its kind, and every allowed move is an edge. Takes the weights from the first edges seen if not yet known
+	 * @return false, with an error printed, if the cell does not fit
+	 */
+	private boolean fitsModel(int cell) {
+		String label = labels[cell];
+		int x = xOf(cell);
+		int y = yOf(cell);
+		int edges = 0;
+		for(Map.Entry<String, Integer> edge: graph.targets(label).entrySet()) {
+			int neighbour = cellOf(edge.getKey());
+			int dx = neighbour == NONE ? 0 : xOf(neighbour) - x;
+			int dy = neighbour == NONE ? 0 : yOf(neighbour) - y;
+			if(neighbour == NONE || Math.abs(dx) > 1 || Math.abs(dy) > 1 || (dx == 0 && dy == 0) || !canMove(x, y, dx, dy)) {
+				System.out.println(String.format("Edge %s - %s does not fit the grid model", label, edge.getKey()));
+				return false;
+			}
+			boolean isDiagonal = dx != 0 && dy != 0;
+			int expected = isDiagonal ? diagonal : straight;
+			if(expected != NONE && expected != edge.getValue()) {
+				System.out.println(String.format("Edge %s - %s breaks uniform cost, weight %d", label, edge.getKey(), edge.getValue()));
+				return false;
+			}
+			if(isDiagonal) {
+				diagonal = edge.getValue();
+			}
+			else {
+				straight = edge.getValue();
+			}
+			edges++;
+		}
+		int moves = 0;	//every move the model allows must be an edge
+		for(int dx = -1; dx <= 1; dx++) {
+			for(int dy = -1; dy <= 1; dy++) {
+				if((dx != 0 || dy != 0) && canMove(x, y, dx, dy)) {
+					moves++;
+				}
+			}
+		}
+		if(moves != edges) {
+			System.out.println(String.format("Cell %s has %d edges where the 8-connected grid model has %d moves", label, edges, moves));
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * @return true if the grid model allows a move from open cell (x, y) in direction (dx, dy)
+	 */
+	private boolean canMove(int x, int y, int dx, int dy) {
+		if(!isOpen(x + dx, y + dy)) {
+			return false;
+		}
+		return dx == 0 || dy == 0 || (isOpen(x + dx, y) && isOpen(x, y + dy));
+	}
+
+	private boolean isOpen(int x, int y) {
+		return x >= minX && y >= minY && x - minX < width && y - minY < height && labels[cellAt(x, y)] != null;
+	}
+
+	private int cellAt(int x, int y) {
+		return (x - minX) + (y - minY) * width;
+	}
+
+	/**
+	 * @return cell of the label from the loaded grid, NONE unless it is an open cell
+	 */
+	private int cellOf(String label) {
+		int id = label == null ? VertexIndex.NOT_FOUND : index.find(label);
+		if(id == VertexIndex.NOT_FOUND) {
+			return NONE;
+		}
+		int x = coordinates.x(id);
+		int y = coordinates.y(id);
+		return isOpen(x, y) && label.equals(labels[cellAt(x, y)]) ? cellAt(x, y) : NONE;
+	}
+
+	/**
+	 * Starts a new search, forgetting every cell the last one stamped, clearing the stamps if the counter wraps
+	 */
+	private void nextGeneration() {
+		generation++;
+		if(generation == Integer.MAX_VALUE) {
+			Arrays.fill(stamps, 0);
+			generation = 1;
+		}
+	}
+
+	/**
+	 * Gives a cell first reached by this search its unreached state
+	 */
+	private void touch(int cell) {
+		if(stamps[cell] != generation) {
+			stamps[cell] = generation;
+			gScore[cell] = INF;
+			parent[cell] = NONE;
+			via[cell] = NONE;
+			closed[cell] = false;
+		}
+	}
+
+	private int xOf(int cell) {
+		return minX + cell % width;
+	}
+
+	private int yOf(int cell) {
+		return minY + cell / width;
+	}
+
+	/**
+	 * @return length of the shortest move sequence between the cells on an open grid
+	 */
+	private int octile(int a, int b) {
+		int dx = Math.abs(xOf(a) - xOf(b));
+		int dy = Math.abs(yOf(a) - yOf(b));
+		return straight * Math.abs(dx - dy) + diagonal * Math.min(dx, dy);
+	}
+
+	/**
+	 * Octile distance to the target, 0 for whole graph searches
+	 */
+	private int hScore(int cell) {
+		if(target == NONE) {
+			return 0;
+		}
+		int dx = Math.abs(xOf(cell) - xt);
+		int dy = Math.abs(yOf(cell) - yt);
+		return straight * Math.abs(dx - dy) + diagonal * Math.min(dx, dy);
+	}
+
+	/**
+	 * Walks the jump point tree back from cell, filling in the cells between each pair of jump points
+	 * @return path [cell, vn, ... v1, source]
+	 */
+	private List<String> expandPath(int cell) {
+		List<String> path = new LinkedList<>();
+		int[] links = recording ? previous : parent;
+		while(cell != NONE) {
+			path.add(labels[cell]);
+			int next = links[cell];
+			if(next != NONE) {
+				int turn = recording ? NONE : via[cell];
+				if(turn != NONE) {
+					addBetween(path, cell, turn);
+					path.add(labels[turn]);
+					addBetween(path, turn, next);
+				}
+				else {
+					addBetween(path, cell, next);
+				}
+			}
+			cell = next;
+		}
+		return path;
+	}
+
+	/**
+	 * Adds the cells strictly between two cells on one straight or diagonal line, from a towards b
+	 */
+	private void addBetween(List<String> path, int a, int b) {
+		int dx = Integer.signum(xOf(b) - xOf(a));
+		int dy = Integer.signum(yOf(b) - yOf(a));
+		for(int x = xOf(a) + dx, y = yOf(a) + dy; cellAt(x, y) != b; x += dx, y += dy) {
+			path.add(labels[cellAt(x, y)]);
+		}
+	}
+
+	@Override
+	public boolean setUpdateQueue(ArrayBlockingQueue<GraphUpdate> updateQueue) {
+		if(this.updateQueue == null) {
+			this.updateQueue = updateQueue;
+			return true;
+		}
+		this.updateQueue = updateQueue;
+		return false;
+	}
+
+	@Override
+	public ArrayBlockingQueue<GraphUpdate> getUpdateQueue() {
+		if(updateQueue == null) {
+			this.updateQueue = new ArrayBlockingQueue<GraphUpdate>(10);
+		}
+		return this.updateQueue;
+	}
+
+	@Override
+	public List<String> findPathToTarget(String source, String target) {
+		publishing = false;
+		if(!search(source, target)) {
+			return new LinkedList<>();
+		}
+		LinkedList<String> path = new LinkedList<>();
+		for(String vertex: pathToTarget) {
+			path.addFirst(vertex);
+		}
+		return path;
+	}
+
+	@Override
+	public Integer findDistanceToTarget(String source, String target) {
+		publishing = false;
+		if(!search(source, target)) {
+			return PATH_NOT_FOUND;
+		}
+		return gScore[this.target];
+	}
+
+	@Override
+	public Map<String, String> getPredecessors() {
+		return new HashMap<String, String>(predecessors);
+	}
+
+	@Override
+	public Map<String, Integer> getDistances() {
+		return new HashMap<String, Integer>(distances);
+	}
+
+	@Override
+	public void pushUpdatedDistances(String vertex, Integer distance) {
+		Map<String, Integer> update = new HashMap<>();
+		update.put(vertex, distance);
+		try {
+			updateQueue.put(new GraphUpdate(update, iteration));
+		}
+		catch(InterruptedException ie) {
+			System.out.println("Interupted when attempting to push update ");
+			ie.printStackTrace();
+			return;
+		}
+		iteration++;
+	}
+
+	@Override
+	public void pushUpdatedDistances() {
+		Map<String, Integer> update = new HashMap<>(distances);
+		try {
+			updateQueue.put(new GraphUpdate(update, iteration));
+		}
+		catch(InterruptedException ie) {
+			System.out.println("Interupted when attempting to push update ");
+			ie.printStackTrace();
+		}
+		iteration++;
+	}
+
+	@Override
+	public void pushEndMessage(boolean pathFound) {
+		if(!publishing) {
+			return;
+		}
+		try {
+			updateQueue.put(new GraphUpdate(GraphUpdate.END, pathToTarget));
+		}
+		catch(InterruptedException ie) {
+			System.out.println("Interupted when attempting to push end message");
+			ie.printStackTrace();
+		}
+	}
+
+	@Override
+	public void pushStartMessage() {
+		iteration = 0;
+		try {
+			updateQueue.put(new GraphUpdate(GraphUpdate.START));
+		}
+		catch(InterruptedException ie) {
+			System.out.println("Interupted when attempting to push start message");
+			ie.printStackTrace();
+		}
+	}
+}
@@ -25,6 +25,10 @@ public interface UpdatingSearchAlgorithm{
 	public static final int A_STAR_DIAGONAL = 2;
 	public static final int A_STAR_EUCLIDIAN = 3;
 	public static final int A_STAR_MANHATTAN = 4;
+	public static final int A_STAR_LANDMARK = 5;
+	public static final int JUMP_POINT = 6;	//uniform cost 8-connected grids only
+	public static final int D_STAR_LITE = 7;	//incremental replanning, see DStarLiteSearch.edgeChanged
+	public static final int ANYTIME_A_STAR = 8;	//ARA* with the manhattan heuristic, see AStarSearchUpdatingVariableHeuristic.searchAnytime
 	/**
 	 * Create a new search algorithm object with the graph to be searched
 	 * @param graph: graph<String,Integer> object to be searched
@@ -45,6 +49,19 @@ public interface UpdatingSearchAlgorithm{
 			case(A_STAR_MANHATTAN):
 				return new AStarSearchUpdatingVariableHeuristic(graph,
 						AStarSearchUpdatingVariableHeuristic.MANHATTAN);
+			case(A_STAR_LANDMARK):
+				return new AStarSearchUpdatingVariableHeuristic(graph,
+						AStarSearchUpdatingVariableHeuristic.LANDMARK);
+			case(JUMP_POINT):
+				return new JumpPointSearch(graph);
+			case(D_STAR_LITE):
+				return new DStarLiteSearch(graph);
+			case(ANYTIME_A_STAR):
+				AStarSearchUpdatingVariableHeuristic anytime = new AStarSearchUpdatingVariableHeuristic(graph,
+						AStarSearchUpdatingVariableHeuristic.MANHATTAN);
+				anytime.setAnytime(AStarSearchUpdatingVariableHeuristic.DEFAULT_INFLATION,
+						AStarSearchUpdatingVariableHeuristic.DEFAULT_BUDGET_MILLIS);
+				return anytime;
 			default:
 				System.out.println("Incorrect argument to USA creator: " + type.toString());
 				return null;
@@ -165,4 +182,4 @@ public interface UpdatingSearchAlgorithm{
 
 	
 }
- 
\ No newline at end of file
+ 
\ No newline at end of file